@@ -0,0 +1,98 @@
+package appeng.api.stacks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import appeng.api.config.FuzzyMode;
+import appeng.benchmark.BenchmarkKeys;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class KeyCounterBenchmark {
+    private static final int LOOKUPS = 1024;
+
+    @Param({ "1000", "100000", "1000000" })
+    public int keyCount;
+
+    private AEItemKey[] keys;
+    private int[] lookups;
+    private KeyCounter filled;
+
+    @Setup
+    public void setup() {
+        keys = BenchmarkKeys.items(keyCount);
+        lookups = BenchmarkKeys.randomIndices(keyCount, LOOKUPS);
+        filled = new KeyCounter();
+        for (var key : keys) {
+            filled.add(key, 64);
+        }
+    }
+
+    @Benchmark
+    public KeyCounter addAllKeys() {
+        var counter = new KeyCounter();
+        for (var key : keys) {
+            counter.add(key, 1);
+        }
+        return counter;
+    }
+
+    @Benchmark
+    public KeyCounter addAllCounter() {
+        var counter = new KeyCounter();
+        counter.addAll(filled);
+        return counter;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public long get() {
+        long sum = 0;
+        for (var index : lookups) {
+            sum += filled.get(keys[index]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public long addAndRemove() {
+        long sum = 0;
+        for (var index : lookups) {
+            var key = keys[index];
+            filled.add(key, 1);
+            filled.remove(key, 1);
+            sum += filled.get(key);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int findFuzzy() {
+        int found = 0;
+        for (var index : lookups) {
+            found += filled.findFuzzy(keys[index], FuzzyMode.IGNORE_ALL).size();
+        }
+        return found;
+    }
+
+    @Benchmark
+    public long iterate() {
+        long sum = 0;
+        for (var entry : filled) {
+            sum += entry.getLongValue();
+        }
+        return sum;
+    }
+}
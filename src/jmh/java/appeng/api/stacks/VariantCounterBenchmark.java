@@ -0,0 +1,114 @@
+package appeng.api.stacks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import net.minecraft.world.item.Items;
+
+import appeng.api.config.FuzzyMode;
+import appeng.benchmark.BenchmarkKeys;
+
+/**
+ * Measures the variant maps used by {@link KeyCounter} for all keys sharing the same primary key, i.e. NBT variants of
+ * a single item or the durability levels of a tool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class VariantCounterBenchmark {
+    private static final int LOOKUPS = 1024;
+
+    @Param({ "1000", "10000", "100000" })
+    public int variantCount;
+
+    private AEItemKey[] nbtVariants;
+    private AEItemKey[] damagedVariants;
+    private int[] lookups;
+    private VariantCounter unordered;
+    private VariantCounter fuzzy;
+
+    @Setup
+    public void setup() {
+        // Only the NBT differs, which means all keys share the same primary key
+        var template = AEItemKey.of(Items.STICK);
+        nbtVariants = new AEItemKey[variantCount];
+        for (int i = 0; i < variantCount; i++) {
+            var stack = template.toStack();
+            stack.getOrCreateTag().putInt("variant", i);
+            nbtVariants[i] = AEItemKey.of(stack);
+        }
+        damagedVariants = BenchmarkKeys.damagedVariants(Items.DIAMOND_SWORD, variantCount);
+        lookups = BenchmarkKeys.randomIndices(variantCount, LOOKUPS);
+
+        unordered = new VariantCounter.UnorderedVariantMap();
+        for (var key : nbtVariants) {
+            unordered.add(key, 1);
+        }
+        fuzzy = new VariantCounter.FuzzyVariantMap();
+        for (var key : damagedVariants) {
+            fuzzy.add(key, 1);
+        }
+    }
+
+    @Benchmark
+    public VariantCounter addUnordered() {
+        var counter = new VariantCounter.UnorderedVariantMap();
+        for (var key : nbtVariants) {
+            counter.add(key, 1);
+        }
+        return counter;
+    }
+
+    @Benchmark
+    public VariantCounter addFuzzy() {
+        var counter = new VariantCounter.FuzzyVariantMap();
+        for (var key : damagedVariants) {
+            counter.add(key, 1);
+        }
+        return counter;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public long getUnordered() {
+        long sum = 0;
+        for (var index : lookups) {
+            sum += unordered.get(nbtVariants[index]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public long getFuzzy() {
+        long sum = 0;
+        for (var index : lookups) {
+            sum += fuzzy.get(damagedVariants[index]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int findFuzzyPercent() {
+        int found = 0;
+        for (var index : lookups) {
+            found += fuzzy.findFuzzy(damagedVariants[index], FuzzyMode.PERCENT_50).size();
+        }
+        return found;
+    }
+
+    @Benchmark
+    public VariantCounter copyFuzzy() {
+        return fuzzy.copy();
+    }
+}
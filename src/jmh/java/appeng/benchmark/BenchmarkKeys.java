@@ -0,0 +1,76 @@
+package appeng.benchmark;
+
+import java.util.Random;
+
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+
+import appeng.api.stacks.AEItemKey;
+
+/**
+ * Generates the keys used by the benchmarks. Keys are spread over all registered items to get a realistic distribution
+ * of primary keys, and are only made unique with NBT once the registry runs out of items.
+ */
+public final class BenchmarkKeys {
+    private static final long SEED = 0x4145324AL;
+
+    private BenchmarkKeys() {
+    }
+
+    public static AEItemKey[] items(int count) {
+        var items = BuiltInRegistries.ITEM.stream()
+                .filter(item -> item != Items.AIR)
+                .toArray(Item[]::new);
+
+        var keys = new AEItemKey[count];
+        for (int i = 0; i < count; i++) {
+            var item = items[i % items.length];
+            var variant = i / items.length;
+            if (variant == 0) {
+                keys[i] = AEItemKey.of(item);
+            } else {
+                var tag = new CompoundTag();
+                tag.putInt("variant", variant);
+                keys[i] = AEItemKey.of(item, tag);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Generates variants of a damageable item, with every possible damage value being used before NBT is added.
+     */
+    public static AEItemKey[] damagedVariants(Item item, int count) {
+        var maxDamage = new ItemStack(item).getMaxDamage();
+        if (maxDamage <= 0) {
+            throw new IllegalArgumentException(item + " can't be damaged");
+        }
+
+        var keys = new AEItemKey[count];
+        for (int i = 0; i < count; i++) {
+            var stack = new ItemStack(item);
+            stack.setDamageValue(i % maxDamage);
+            var variant = i / maxDamage;
+            if (variant > 0) {
+                stack.getOrCreateTag().putInt("variant", variant);
+            }
+            keys[i] = AEItemKey.of(stack);
+        }
+        return keys;
+    }
+
+    /**
+     * Picks random indices into an array of the given size, using a fixed seed so that runs are comparable.
+     */
+    public static int[] randomIndices(int size, int count) {
+        var random = new Random(SEED);
+        var indices = new int[count];
+        for (int i = 0; i < count; i++) {
+            indices[i] = random.nextInt(size);
+        }
+        return indices;
+    }
+}
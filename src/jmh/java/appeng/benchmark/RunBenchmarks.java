@@ -0,0 +1,37 @@
+package appeng.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import appeng.util.BootstrapMinecraft;
+
+/**
+ * Entry point for the <code>jmh</code> Gradle task.
+ * <p/>
+ * The benchmarks need the same bootstrapped game environment as the unit tests, which is only available inside of the
+ * JUnit launcher session. They are therefore started from here and run in the same JVM instead of in forked ones.
+ */
+@BootstrapMinecraft
+class RunBenchmarks {
+    @Test
+    void runBenchmarks() throws RunnerException {
+        var quick = Boolean.getBoolean("appeng.jmh.quick");
+
+        var options = new OptionsBuilder()
+                .include(System.getProperty("appeng.jmh.include", ".*"))
+                .forks(0)
+                .warmupIterations(quick ? 1 : 5)
+                .warmupTime(TimeValue.seconds(quick ? 1 : 5))
+                .measurementIterations(quick ? 2 : 5)
+                .measurementTime(TimeValue.seconds(quick ? 1 : 5))
+                .resultFormat(ResultFormatType.JSON)
+                .result(System.getProperty("appeng.jmh.results", "jmh-results.json"))
+                .build();
+
+        new Runner(options).run();
+    }
+}
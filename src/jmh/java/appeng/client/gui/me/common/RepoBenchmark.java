@@ -0,0 +1,124 @@
+package appeng.client.gui.me.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import appeng.api.config.SortDir;
+import appeng.api.config.SortOrder;
+import appeng.api.config.TypeFilter;
+import appeng.api.config.ViewItems;
+import appeng.api.stacks.AEItemKey;
+import appeng.benchmark.BenchmarkKeys;
+import appeng.client.gui.widgets.ISortSource;
+import appeng.menu.me.common.GridInventoryEntry;
+
+/**
+ * Measures how long the client-side terminal inventory takes to process updates from the server, for a network with
+ * 100k types.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RepoBenchmark {
+    private static final int ENTRY_COUNT = 100_000;
+    private static final int LOOKUPS = 1024;
+
+    @Param({ "AMOUNT", "NAME" })
+    public SortOrder sortBy;
+
+    /**
+     * Number of entries changed by each incremental update.
+     */
+    @Param({ "16", "1024" })
+    public int changesPerUpdate;
+
+    private AEItemKey[] keys;
+    private List<GridInventoryEntry> allEntries;
+    private int[] changedIndices;
+    private int[] lookups;
+    private Repo repo;
+    private long nextAmount = 1;
+    private int nextChange;
+
+    @Setup
+    public void setup() {
+        keys = BenchmarkKeys.items(ENTRY_COUNT);
+        allEntries = new ArrayList<>(ENTRY_COUNT);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            // Every tenth key is craftable
+            allEntries.add(new GridInventoryEntry(i + 1, keys[i], (i * 7919L) % 100_000 + 1, 0, i % 10 == 0));
+        }
+        changedIndices = BenchmarkKeys.randomIndices(ENTRY_COUNT, 64 * 1024);
+        lookups = BenchmarkKeys.randomIndices(ENTRY_COUNT, LOOKUPS);
+
+        var sortSource = new ISortSource() {
+            @Override
+            public SortOrder getSortBy() {
+                return sortBy;
+            }
+
+            @Override
+            public SortDir getSortDir() {
+                return SortDir.DESCENDING;
+            }
+
+            @Override
+            public ViewItems getSortDisplay() {
+                return ViewItems.ALL;
+            }
+
+            @Override
+            public TypeFilter getTypeFilter() {
+                return TypeFilter.ALL;
+            }
+        };
+        repo = new Repo(() -> 0, sortSource);
+        repo.handleUpdate(true, allEntries);
+    }
+
+    /**
+     * Opening a terminal.
+     */
+    @Benchmark
+    public Repo fullUpdate() {
+        repo.handleUpdate(true, allEntries);
+        return repo;
+    }
+
+    /**
+     * Amounts of random entries changing, which is what a terminal on a busy network receives every tick.
+     */
+    @Benchmark
+    public Repo incrementalUpdate() {
+        var update = new ArrayList<GridInventoryEntry>(changesPerUpdate);
+        for (int i = 0; i < changesPerUpdate; i++) {
+            var index = changedIndices[nextChange++ % changedIndices.length];
+            update.add(new GridInventoryEntry(index + 1, null, nextAmount++, 0, index % 10 == 0));
+        }
+        repo.handleUpdate(false, update);
+        return repo;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int isCraftable() {
+        int craftable = 0;
+        for (var index : lookups) {
+            if (repo.isCraftable(keys[index])) {
+                craftable++;
+            }
+        }
+        return craftable;
+    }
+}
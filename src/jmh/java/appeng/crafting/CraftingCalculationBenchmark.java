@@ -0,0 +1,83 @@
+package appeng.crafting;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import appeng.api.networking.crafting.CalculationStrategy;
+import appeng.api.networking.crafting.ICraftingPlan;
+import appeng.api.stacks.AEItemKey;
+import appeng.api.stacks.GenericStack;
+import appeng.benchmark.BenchmarkKeys;
+import appeng.crafting.simulation.helpers.ProcessingPatternBuilder;
+import appeng.crafting.simulation.helpers.SimulationEnv;
+
+/**
+ * Measures a full crafting calculation for a binary tree of intermediates: every intermediate of a level is crafted from
+ * both intermediates of the level below, so the tree has <code>2^depth</code> leaves.
+ * <p/>
+ * Optionally, every intermediate also gets a preferred pattern that can't be crafted since one of its inputs is missing,
+ * which forces the calculation to explore and discard a failing branch at every node.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CraftingCalculationBenchmark {
+    private static final long TIMEOUT_MILLIS = 60_000;
+
+    @Param({ "4", "8", "12" })
+    public int depth;
+
+    @Param({ "false", "true" })
+    public boolean failingAlternatives;
+
+    @Param({ "1000" })
+    public long amount;
+
+    private SimulationEnv env;
+    private AEItemKey target;
+
+    @Setup
+    public void setup() {
+        env = new SimulationEnv();
+
+        var keys = BenchmarkKeys.items(2 * (depth + 1) + 1);
+        var missing = keys[keys.length - 1];
+
+        // Level 0 is stored in abundance, every other level has to be crafted
+        env.addStoredItem(keys[0], Long.MAX_VALUE / 4);
+        env.addStoredItem(keys[1], Long.MAX_VALUE / 4);
+
+        for (int level = 1; level <= depth; level++) {
+            var inputA = keys[2 * (level - 1)];
+            var inputB = keys[2 * (level - 1) + 1];
+            for (int i = 0; i < 2; i++) {
+                var output = keys[2 * level + i];
+                if (failingAlternatives) {
+                    env.addPattern(new ProcessingPatternBuilder(new GenericStack(output, 1))
+                            .addPreciseInput(1, new GenericStack(inputA, 1))
+                            .addPreciseInput(1, new GenericStack(missing, 1))
+                            .build());
+                }
+                env.addPattern(new ProcessingPatternBuilder(new GenericStack(output, 1))
+                        .addPreciseInput(1, new GenericStack(inputA, 1))
+                        .addPreciseInput(1, new GenericStack(inputB, 1))
+                        .build());
+            }
+        }
+
+        target = keys[2 * depth];
+    }
+
+    @Benchmark
+    public ICraftingPlan calculate() {
+        return env.runSimulation(new GenericStack(target, amount), CalculationStrategy.CRAFT_LESS, TIMEOUT_MILLIS);
+    }
+}
@@ -0,0 +1,95 @@
+package appeng.me.cells;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import net.minecraft.world.item.ItemStack;
+
+import appeng.api.config.Actionable;
+import appeng.api.networking.security.IActionSource;
+import appeng.api.stacks.AEItemKey;
+import appeng.api.stacks.KeyCounter;
+import appeng.benchmark.BenchmarkKeys;
+import appeng.core.definitions.AEItems;
+import appeng.me.helpers.BaseActionSource;
+
+/**
+ * Measures the cost of changing, persisting and loading a single cell.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BasicCellInventoryBenchmark {
+    private static final int OPERATIONS = 1024;
+    private static final IActionSource SRC = new BaseActionSource();
+
+    @Param({ "1", "16", "63" })
+    public int typeCount;
+
+    private AEItemKey[] keys;
+    private int[] operations;
+    private BasicCellInventory cell;
+    private ItemStack persistedStack;
+
+    @Setup
+    public void setup() {
+        keys = BenchmarkKeys.items(typeCount);
+        operations = BenchmarkKeys.randomIndices(typeCount, OPERATIONS);
+
+        cell = BasicCellInventory.createInventory(new ItemStack(AEItems.ITEM_CELL_256K), () -> {
+        });
+        for (var key : keys) {
+            cell.insert(key, 1000, Actionable.MODULATE, SRC);
+        }
+        cell.persist();
+
+        persistedStack = new ItemStack(AEItems.ITEM_CELL_256K);
+        var persistedCell = BasicCellInventory.createInventory(persistedStack, null);
+        for (var key : keys) {
+            persistedCell.insert(key, 1000, Actionable.MODULATE, SRC);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public long insertAndExtract() {
+        long sum = 0;
+        for (var index : operations) {
+            var key = keys[index];
+            sum += cell.insert(key, 1, Actionable.MODULATE, SRC);
+            sum += cell.extract(key, 1, Actionable.MODULATE, SRC);
+        }
+        return sum;
+    }
+
+    /**
+     * A single change followed by persisting the cell, which is what a drive does at most once per tick.
+     */
+    @Benchmark
+    public long changeAndPersist() {
+        var inserted = cell.insert(keys[0], 1, Actionable.MODULATE, SRC);
+        cell.extract(keys[0], 1, Actionable.MODULATE, SRC);
+        cell.persist();
+        return inserted;
+    }
+
+    /**
+     * Loading the content of a cell that was just inserted into a drive or chest.
+     */
+    @Benchmark
+    public KeyCounter load() {
+        var loaded = BasicCellInventory.createInventory(persistedStack.copy(), null);
+        var counter = new KeyCounter();
+        loaded.getAvailableStacks(counter);
+        return counter;
+    }
+}
@@ -0,0 +1,98 @@
+package appeng.me.service.helpers;
+
+import static org.mockito.Mockito.mock;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import appeng.api.networking.IGridNode;
+import appeng.api.networking.ticking.IGridTickable;
+import appeng.api.networking.ticking.TickingRequest;
+
+/**
+ * Simulates a large number of devices that are constantly put to sleep, woken up and alerted, like import and export
+ * buses that alternate between having work and being idle.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TickQueueBenchmark {
+    private static final int OPERATIONS = 1024;
+
+    @Param({ "1000", "10000" })
+    public int trackerCount;
+
+    private TickTracker[] trackers;
+    private TickQueue queue;
+    private int[] operations;
+    private long currentTick;
+
+    @Setup
+    public void setup() {
+        var random = new Random(1);
+        var node = mock(IGridNode.class);
+        var tickable = mock(IGridTickable.class);
+
+        queue = new TickQueue();
+        trackers = new TickTracker[trackerCount];
+        for (int i = 0; i < trackerCount; i++) {
+            var tracker = new TickTracker(new TickingRequest(1, 100, false, true), node, tickable,
+                    random.nextInt(100));
+            tracker.setCurrentRate(1 + random.nextInt(100));
+            trackers[i] = tracker;
+            queue.add(tracker);
+        }
+
+        operations = new int[OPERATIONS];
+        for (int i = 0; i < OPERATIONS; i++) {
+            operations[i] = random.nextInt(trackerCount);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public int flap() {
+        for (int i = 0; i < OPERATIONS; i++) {
+            var tracker = trackers[operations[i]];
+            switch (i % 3) {
+                // Sleep
+                case 0 -> queue.remove(tracker);
+                // Wake
+                case 1 -> queue.add(tracker);
+                // Alert
+                default -> {
+                    tracker.setTickOnNextTick();
+                    queue.add(tracker);
+                }
+            }
+        }
+        return queue.size();
+    }
+
+    /**
+     * Polls and re-queues the trackers that are due, like a single server tick does.
+     */
+    @Benchmark
+    public int tick() {
+        currentTick++;
+        int ticked = 0;
+        TickTracker tracker;
+        while ((tracker = queue.peek()) != null && tracker.getNextTick() <= currentTick) {
+            queue.poll();
+            tracker.setLastTick(currentTick);
+            queue.add(tracker);
+            ticked++;
+        }
+        return ticked;
+    }
+}
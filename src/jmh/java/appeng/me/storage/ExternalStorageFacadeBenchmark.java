@@ -0,0 +1,80 @@
+package appeng.me.storage;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import net.neoforged.neoforge.items.ItemStackHandler;
+
+import appeng.api.config.Actionable;
+import appeng.api.networking.security.IActionSource;
+import appeng.api.stacks.AEItemKey;
+import appeng.api.stacks.KeyCounter;
+import appeng.benchmark.BenchmarkKeys;
+import appeng.me.helpers.BaseActionSource;
+
+/**
+ * Measures what a storage bus does with a large external inventory, such as a drawer controller: scanning it every tick
+ * to detect changes, and extracting from it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExternalStorageFacadeBenchmark {
+    private static final IActionSource SRC = new BaseActionSource();
+
+    @Param({ "1000", "10000" })
+    public int slotCount;
+
+    @Param({ "false", "true" })
+    public boolean cached;
+
+    private ExternalStorageFacade facade;
+    private AEItemKey storedKey;
+    private AEItemKey missingKey;
+    private final KeyCounter counter = new KeyCounter();
+
+    @Setup
+    public void setup() {
+        var keys = BenchmarkKeys.items(slotCount + 1);
+        var handler = new ItemStackHandler(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            handler.setStackInSlot(i, keys[i].toStack(32));
+        }
+        storedKey = keys[slotCount / 2];
+        missingKey = keys[slotCount];
+
+        facade = ExternalStorageFacade.of(handler);
+        facade.setSlotIndexEnabled(cached);
+        facade.setSlotKeyCacheEnabled(cached);
+        // The storage bus scans the inventory before anything is extracted
+        facade.getAvailableStacks(counter);
+    }
+
+    /**
+     * Scanning an inventory whose content didn't change.
+     */
+    @Benchmark
+    public KeyCounter scan() {
+        counter.reset();
+        facade.getAvailableStacks(counter);
+        return counter;
+    }
+
+    @Benchmark
+    public long simulateExtractStoredKey() {
+        return facade.extract(storedKey, 1, Actionable.SIMULATE, SRC);
+    }
+
+    @Benchmark
+    public long simulateExtractMissingKey() {
+        return facade.extract(missingKey, 1, Actionable.SIMULATE, SRC);
+    }
+}
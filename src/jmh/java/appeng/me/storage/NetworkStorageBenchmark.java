@@ -0,0 +1,128 @@
+package appeng.me.storage;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import net.minecraft.world.item.ItemStack;
+
+import appeng.api.config.Actionable;
+import appeng.api.networking.security.IActionSource;
+import appeng.api.stacks.AEItemKey;
+import appeng.api.stacks.KeyCounter;
+import appeng.benchmark.BenchmarkKeys;
+import appeng.core.definitions.AEItems;
+import appeng.me.cells.BasicCellInventory;
+import appeng.me.helpers.BaseActionSource;
+
+/**
+ * Measures insertion into and extraction from a network with many mounted cells, which is what every import bus,
+ * pattern provider and terminal interaction ends up calling.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NetworkStorageBenchmark {
+    private static final int OPERATIONS = 1024;
+    private static final int PRIORITIES = 4;
+    private static final IActionSource SRC = new BaseActionSource();
+
+    @Param({ "16", "128", "512" })
+    public int cellCount;
+
+    @Param({ "1000", "8000" })
+    public int keyCount;
+
+    /**
+     * Enables both the insert routing cache and the extraction index.
+     */
+    @Param({ "false", "true" })
+    public boolean indexed;
+
+    private NetworkStorage storage;
+    private AEItemKey[] keys;
+    private AEItemKey[] missingKeys;
+    private int[] operations;
+
+    @Setup
+    public void setup() {
+        storage = new NetworkStorage();
+        for (int i = 0; i < cellCount; i++) {
+            // Mounted like a drive does, which persists its cells in batches rather than after every change
+            var cell = BasicCellInventory.createInventory(new ItemStack(AEItems.ITEM_CELL_256K), () -> {
+            });
+            storage.mount(i % PRIORITIES, new DriveWatcher(cell, () -> {
+            }));
+        }
+        storage.setInsertRoutingEnabled(indexed);
+        storage.setExtractionIndexEnabled(indexed);
+
+        var allKeys = BenchmarkKeys.items(keyCount * 2);
+        keys = new AEItemKey[keyCount];
+        missingKeys = new AEItemKey[keyCount];
+        System.arraycopy(allKeys, 0, keys, 0, keyCount);
+        System.arraycopy(allKeys, keyCount, missingKeys, 0, keyCount);
+
+        for (var key : keys) {
+            storage.insert(key, 1000, Actionable.MODULATE, SRC);
+        }
+        operations = BenchmarkKeys.randomIndices(keyCount, OPERATIONS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public long insertStoredKey() {
+        long sum = 0;
+        for (var index : operations) {
+            var key = keys[index];
+            sum += storage.insert(key, 1, Actionable.MODULATE, SRC);
+            sum += storage.extract(key, 1, Actionable.MODULATE, SRC);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public long simulateInsertStoredKey() {
+        long sum = 0;
+        for (var index : operations) {
+            sum += storage.insert(keys[index], 64, Actionable.SIMULATE, SRC);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public long simulateExtractStoredKey() {
+        long sum = 0;
+        for (var index : operations) {
+            sum += storage.extract(keys[index], 64, Actionable.SIMULATE, SRC);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public long simulateExtractMissingKey() {
+        long sum = 0;
+        for (var index : operations) {
+            sum += storage.extract(missingKeys[index], 64, Actionable.SIMULATE, SRC);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public KeyCounter getAvailableStacks() {
+        var counter = new KeyCounter();
+        storage.getAvailableStacks(counter);
+        return counter;
+    }
+}
@@ -31,6 +31,7 @@
 import net.minecraft.world.level.block.entity.BlockEntity;
 
 import appeng.api.crafting.IPatternDetails;
+import appeng.api.networking.crafting.ICraftingProvider;
 import appeng.api.stacks.KeyCounter;
 import appeng.capabilities.Capabilities;
 
@@ -74,6 +75,23 @@ static ICraftingMachine of(Level level, BlockPos pos, Direction side,
      */
     boolean pushPattern(IPatternDetails patternDetails, KeyCounter[] inputs, Direction ejectionDirection);
 
+    /**
+     * inserts up to <code>times</code> crafts of the same plan into the crafting machine. The default implementation
+     * calls {@link #pushPattern} with a copy of the inputs until the machine refuses.
+     *
+     * @param inputs The crafting ingredients for a <b>single</b> craft. They must not be modified.
+     * @return how many crafts were accepted.
+     */
+    default int pushPatterns(IPatternDetails patternDetails, KeyCounter[] inputs, int times,
+            Direction ejectionDirection) {
+        int pushed = 0;
+        while (pushed < times && acceptsPlans()
+                && pushPattern(patternDetails, ICraftingProvider.copyInputs(inputs), ejectionDirection)) {
+            pushed++;
+        }
+        return pushed;
+    }
+
     /**
      * check if the crafting machine is accepting pushes via pushPattern, if this is false, all calls to push will fail,
      * you can try inserting into the inventory instead.
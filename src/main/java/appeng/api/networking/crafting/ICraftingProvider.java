@@ -59,6 +59,27 @@ default int getPatternPriority() {
      */
     boolean pushPattern(IPatternDetails patternDetails, KeyCounter[] inputHolder);
 
+    /**
+     * Instruct a provider to craft one of the patterns multiple times. Crafting CPUs use this to push large numbers of
+     * the same pattern without going through the provider list for every single craft.
+     * <p/>
+     * The default implementation calls {@link #pushPattern} with a copy of the inputs until the provider refuses.
+     *
+     * @param patternDetails details
+     * @param inputHolder    the requested stacks for a <b>single</b> craft, for each input slot of the pattern. They
+     *                       must not be modified, use {@link #copyInputs} to get a copy that can be pushed.
+     * @param times          how many times the pattern should be crafted at most
+     *
+     * @return how many times the pattern was successfully pushed, between 0 and <code>times</code>.
+     */
+    default int pushPatterns(IPatternDetails patternDetails, KeyCounter[] inputHolder, int times) {
+        int pushed = 0;
+        while (pushed < times && !isBusy() && pushPattern(patternDetails, copyInputs(inputHolder))) {
+            pushed++;
+        }
+        return pushed;
+    }
+
     /**
      * @return if this is true, the crafting engine will refuse to send patterns to this provider.
      */
@@ -72,6 +93,18 @@ default Set<AEKey> getEmitableItems() {
         return Set.of();
     }
 
+    /**
+     * Copies the inputs of a single craft, so that they can be passed to {@link #pushPattern}.
+     */
+    static KeyCounter[] copyInputs(KeyCounter[] inputHolder) {
+        var copy = new KeyCounter[inputHolder.length];
+        for (int i = 0; i < inputHolder.length; i++) {
+            copy[i] = new KeyCounter();
+            copy[i].addAll(inputHolder[i]);
+        }
+        return copy;
+    }
+
     /**
      * This convenience method can be used when the crafting options or emitable items have changed to request an update
      * of the crafting service's cache.This only works if the given managed grid node provides this service.
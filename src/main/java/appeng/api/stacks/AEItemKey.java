@@ -2,10 +2,13 @@
 
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.ref.WeakReference;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.jetbrains.annotations.Nullable;
 
@@ -39,6 +42,52 @@ public final class AEItemKey extends AEKey {
         }
     }
 
+    /**
+     * Used to check whether a stack has any capabilities at all, without serializing them. Null if unavailable, in
+     * which case capabilities are always serialized.
+     */
+    @Nullable
+    private static final MethodHandle GET_CAPS_HANDLE;
+    static {
+        MethodHandle handle;
+        try {
+            var method = CapabilityProvider.class.getDeclaredMethod("getCapabilities");
+            method.setAccessible(true);
+            handle = MethodHandles.lookup().unreflect(method)
+                    .asType(MethodType.methodType(Object.class, CapabilityProvider.class));
+        } catch (Exception exception) {
+            AELog.debug("Failed to create getCapabilities method handle", exception);
+            handle = null;
+        }
+        GET_CAPS_HANDLE = handle;
+    }
+
+    /**
+     * The key for each item without a tag or capabilities, which is what most stacks are.
+     */
+    private static final Map<Item, AEItemKey> PLAIN_KEYS = new ConcurrentHashMap<>();
+
+    /**
+     * The last stack with a tag that was converted to a key on the current thread. Converting the same stack object
+     * again, i.e. when checking and then inserting a slot, only has to compare the tag instead of interning it. The
+     * stack is only weakly referenced, so that the thread doesn't keep it alive.
+     */
+    private static final ThreadLocal<LastSeen> LAST_SEEN = ThreadLocal.withInitial(LastSeen::new);
+
+    /**
+     * @return True if the stack has no capabilities, which means {@link #serializeStackCaps} would return null.
+     */
+    private static boolean hasNoCaps(ItemStack stack) {
+        if (GET_CAPS_HANDLE == null) {
+            return false;
+        }
+        try {
+            return (Object) GET_CAPS_HANDLE.invokeExact((CapabilityProvider) stack) == null;
+        } catch (Throwable ex) {
+            throw new RuntimeException("Failed to call getCapabilities", ex);
+        }
+    }
+
     @Nullable
     private static CompoundTag serializeStackCaps(ItemStack stack) {
         try {
@@ -73,6 +122,25 @@ public static AEItemKey of(ItemStack stack) {
         if (stack.isEmpty()) {
             return null;
         }
+
+        if (hasNoCaps(stack)) {
+            var tag = stack.getTag();
+            if (tag == null) {
+                return of(stack.getItem(), null, null);
+            }
+
+            // The tag of a stack can be modified in place, so it has to be compared again
+            var lastSeen = LAST_SEEN.get();
+            if (lastSeen.stack.get() == stack && tag.equals(lastSeen.key.internedTag.tag)) {
+                return lastSeen.key;
+            }
+
+            var key = of(stack.getItem(), tag, null);
+            lastSeen.stack = new WeakReference<>(stack);
+            lastSeen.key = key;
+            return key;
+        }
+
         return of(stack.getItem(), stack.getTag(), serializeStackCaps(stack));
     }
 
@@ -122,13 +190,26 @@ public static AEItemKey of(ItemLike item, @Nullable CompoundTag tag) {
     }
 
     private static AEItemKey of(ItemLike item, @Nullable CompoundTag tag, @Nullable CompoundTag caps) {
+        if (tag == null && caps == null) {
+            var plainKey = PLAIN_KEYS.get(item.asItem());
+            if (plainKey == null) {
+                plainKey = PLAIN_KEYS.computeIfAbsent(item.asItem(),
+                        i -> new AEItemKey(i, InternedTag.EMPTY, InternedTag.EMPTY));
+            }
+            return plainKey;
+        }
         return new AEItemKey(item.asItem(), InternedTag.of(tag, false), InternedTag.of(caps, false));
     }
 
     public boolean matches(ItemStack stack) {
-        // TODO: remove or optimize cap check if it becomes too slow >:-(
-        return !stack.isEmpty() && stack.is(item) && Objects.equals(stack.getTag(), internedTag.tag)
-                && Objects.equals(serializeStackCaps(stack), internedCaps.tag);
+        if (stack.isEmpty() || !stack.is(item) || !Objects.equals(stack.getTag(), internedTag.tag)) {
+            return false;
+        }
+        // Only serialize the capabilities of the stack if there are any
+        if (internedCaps.tag == null && hasNoCaps(stack)) {
+            return true;
+        }
+        return Objects.equals(serializeStackCaps(stack), internedCaps.tag);
     }
 
     public ItemStack toStack() {
@@ -287,6 +368,12 @@ public String toString() {
         return internedTag.tag == null ? idString : idString + " (+tag)";
     }
 
+    private static final class LastSeen {
+        private WeakReference<ItemStack> stack = new WeakReference<>(null);
+        @Nullable
+        private AEItemKey key;
+    }
+
     private static final class InternedTag {
         private static final InternedTag EMPTY = new InternedTag(null);
 
@@ -18,6 +18,7 @@
 
 package appeng.blockentity;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
@@ -65,6 +66,7 @@
 import appeng.api.orientation.RelativeSide;
 import appeng.block.AEBaseEntityBlock;
 import appeng.client.render.model.AEModelData;
+import appeng.core.AEConfig;
 import appeng.core.AELog;
 import appeng.hooks.VisualStateSaving;
 import appeng.hooks.ticking.TickHandler;
@@ -94,6 +96,18 @@ public class AEBaseBlockEntity extends BlockEntity
     // Remove in 1.20.1+: Convert legacy NBT orientation to blockstate
     @Nullable
     private BlockOrientation pendingOrientationChange;
+    /**
+     * Whether {@link #markForUpdate()} queued this block entity with the {@link TickHandler} to send its update later
+     * in the tick.
+     */
+    private boolean updateQueued;
+    /**
+     * The update data that was last broadcast to the players tracking this block entity, if unchanged updates are
+     * skipped. Only recorded in {@link #sendUpdate}, since {@link #getUpdateTag()} is also used to send the chunk to
+     * players that start tracking it, which doesn't mean that the other players have received that data.
+     */
+    @Nullable
+    private byte[] lastUpdateData;
 
     public AEBaseBlockEntity(BlockEntityType<?> blockEntityType, BlockPos pos, BlockState blockState) {
         super(blockEntityType, pos, blockState);
@@ -211,13 +225,16 @@ protected void scheduleInit() {
     @Override
     public CompoundTag getUpdateTag() {
         var data = new CompoundTag();
+        data.putByteArray("#upd", writeUpdateData());
+        return data;
+    }
 
+    private byte[] writeUpdateData() {
         var stream = new FriendlyByteBuf(Unpooled.buffer());
         this.writeToStream(stream);
 
         stream.capacity(stream.readableBytes());
-        data.putByteArray("#upd", stream.array());
-        return data;
+        return stream.array();
     }
 
     private boolean readUpdateData(FriendlyByteBuf stream) {
@@ -267,8 +284,39 @@ public void markForUpdate() {
         // Clearing the cached model-data is always harmless regardless of status
         this.requestModelDataUpdate();
 
-        // TODO: Optimize Network Load
+        // Block entities that change several times per tick, i.e. while their grid boots, are only sent once
+        if (this.level != null && !this.level.isClientSide()
+                && AEConfig.instance().isBlockEntityUpdateCoalescingEnabled()) {
+            if (!this.updateQueued) {
+                this.updateQueued = true;
+                TickHandler.instance().addBlockEntityUpdate(this);
+            }
+            return;
+        }
+
+        sendUpdate(false);
+    }
+
+    /**
+     * Sends the update queued by {@link #markForUpdate()}. Only called by the {@link TickHandler}.
+     */
+    @ApiStatus.Internal
+    public final void sendQueuedUpdate() {
+        if (this.updateQueued) {
+            this.updateQueued = false;
+            sendUpdate(AEConfig.instance().isSkipUnchangedBlockEntityUpdates());
+        }
+    }
+
+    private void sendUpdate(boolean skipUnchanged) {
         if (this.level != null && !this.isRemoved() && !notLoaded()) {
+            // Remember what was broadcast to the tracking players, to skip later updates that send the same data.
+            // Only queued updates are compared, so there is nothing to remember if updates aren't coalesced.
+            byte[] updateData = null;
+            if (AEConfig.instance().isSkipUnchangedBlockEntityUpdates()
+                    && AEConfig.instance().isBlockEntityUpdateCoalescingEnabled()) {
+                updateData = writeUpdateData();
+            }
 
             boolean alreadyUpdated = false;
             // Let the block update its own state with our internal state changes
@@ -283,8 +331,12 @@ public void markForUpdate() {
             }
 
             if (!alreadyUpdated) {
+                if (skipUnchanged && updateData != null && Arrays.equals(updateData, this.lastUpdateData)) {
+                    return;
+                }
                 this.level.sendBlockUpdated(this.worldPosition, currentState, currentState, Block.UPDATE_NEIGHBORS);
             }
+            this.lastUpdateData = updateData;
         }
     }
 
@@ -51,6 +51,7 @@
 import appeng.api.inventories.InternalInventory;
 import appeng.api.networking.IGridNode;
 import appeng.api.networking.IGridNodeListener;
+import appeng.api.networking.crafting.ICraftingProvider;
 import appeng.api.networking.ticking.IGridTickable;
 import appeng.api.networking.ticking.TickRateModulation;
 import appeng.api.networking.ticking.TickingRequest;
@@ -170,6 +171,15 @@ public boolean pushPattern(IPatternDetails patternDetails, KeyCounter[] table,
         return false;
     }
 
+    @Override
+    public int pushPatterns(IPatternDetails patternDetails, KeyCounter[] table, int times, Direction where) {
+        // The assembler only holds the ingredients of a single craft, don't bother copying them for further attempts
+        if (times <= 0 || !this.myPattern.isEmpty() || !this.gridInv.isEmpty() || !this.patternInv.isEmpty()) {
+            return 0;
+        }
+        return this.pushPattern(patternDetails, ICraftingProvider.copyInputs(table), where) ? 1 : 0;
+    }
+
     private void fillGrid(KeyCounter[] table, IMolecularAssemblerSupportedPattern adapter) {
         adapter.fillCraftingGrid(table, this.gridInv::setItemDirect);
 
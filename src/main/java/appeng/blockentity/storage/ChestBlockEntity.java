@@ -79,6 +79,8 @@
 import appeng.helpers.IPriorityHost;
 import appeng.me.helpers.MachineSource;
 import appeng.me.storage.DelegatingMEInventory;
+import appeng.me.storage.IJournaledStorage;
+import appeng.me.storage.StorageChangeJournal;
 import appeng.menu.ISubMenu;
 import appeng.menu.MenuOpener;
 import appeng.menu.implementations.ChestMenu;
@@ -557,8 +559,10 @@ public void openCellInventoryMenu(Player player) {
         MenuOpener.open(ChestMenu.TYPE, player, MenuLocators.forBlockEntity(this));
     }
 
-    private class ChestMonitorHandler extends DelegatingMEInventory {
+    private class ChestMonitorHandler extends DelegatingMEInventory implements IJournaledStorage {
         private final StorageCell cellInventory;
+        @Nullable
+        private StorageChangeJournal changeJournal;
 
         public ChestMonitorHandler(StorageCell cellInventory) {
             super(cellInventory);
@@ -570,6 +574,7 @@ public long insert(AEKey what, long amount, Actionable mode, IActionSource sourc
             var inserted = super.insert(what, amount, mode, source);
             if (inserted > 0 && mode == Actionable.MODULATE) {
                 blinkCell(0);
+                onContentChanged();
             }
             return inserted;
         }
@@ -579,9 +584,27 @@ public long extract(AEKey what, long amount, Actionable mode, IActionSource sour
             var extracted = super.extract(what, amount, mode, source);
             if (extracted > 0 && mode == Actionable.MODULATE) {
                 blinkCell(0);
+                onContentChanged();
             }
             return extracted;
         }
+
+        @Override
+        public void setChangeJournal(@Nullable StorageChangeJournal journal) {
+            this.changeJournal = journal;
+        }
+
+        @Override
+        public boolean reportsAllChanges() {
+            return true;
+        }
+
+        // The chest can be accessed directly, without going through the network storage
+        private void onContentChanged() {
+            if (changeJournal != null) {
+                changeJournal.inventoryChanged(this);
+            }
+        }
     }
 
     @Nullable
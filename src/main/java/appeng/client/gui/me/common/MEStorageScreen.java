@@ -712,6 +712,7 @@ private boolean isHovered() {
     @Override
     public void containerTick() {
         this.repo.setPower(this.menu.isPowered());
+        this.repo.updateSearchIndex();
 
         if (this.supportsViewCells) {
             List<ItemStack> viewCells = this.menu.getViewCells();
@@ -24,6 +24,7 @@
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -35,16 +36,25 @@
 
 import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
 import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 
 import appeng.api.config.SortDir;
 import appeng.api.config.SortOrder;
+import appeng.api.config.TypeFilter;
 import appeng.api.config.ViewItems;
 import appeng.api.stacks.AEKey;
+import appeng.api.storage.AEKeyFilter;
 import appeng.client.gui.me.search.RepoSearch;
 import appeng.client.gui.widgets.IScrollSource;
 import appeng.client.gui.widgets.ISortSource;
+import appeng.core.AEConfig;
 import appeng.core.AELog;
 import appeng.menu.me.common.GridInventoryEntry;
 import appeng.menu.me.common.IClientRepo;
@@ -53,9 +63,17 @@
 /**
  * For showing the network content of a storage channel, this class will maintain a client-side copy of the current
  * server-side storage, which is continuously synchronized to the client while it is open.
+ * <p/>
+ * The view is only rebuilt from scratch when the way it is filtered or sorted changes, or when too many entries changed
+ * at once. Otherwise, only the entries that changed since the last update are moved within the sorted view.
  */
 public class Repo implements IClientRepo {
 
+    /**
+     * The view is always rebuilt if more than this many entries changed, or more than 1/32 of the entries in the view.
+     */
+    private static final int MIN_CHANGES_FOR_REBUILD = 256;
+
     public static final Comparator<GridInventoryEntry> AMOUNT_ASC = Comparator
             .comparingDouble((GridInventoryEntry entry) -> ((double) entry.getStoredAmount())
                     / ((double) entry.getWhat().getAmountPerUnit()));
@@ -72,6 +90,15 @@ public class Repo implements IClientRepo {
     private boolean hasPower;
 
     private final BiMap<Long, GridInventoryEntry> entries = HashBiMap.create();
+    /**
+     * The entries that changed since the view was last updated by serial, with the entry they replaced, which is null
+     * for new entries. This is only tracked while the view can be updated incrementally.
+     */
+    private final Long2ObjectMap<GridInventoryEntry> changedEntries = new Long2ObjectOpenHashMap<>();
+    /**
+     * Number of entries for each craftable key.
+     */
+    private final Object2IntMap<AEKey> craftableKeys = new Object2IntOpenHashMap<>();
     private final ArrayList<GridInventoryEntry> view = new ArrayList<>();
     private final ArrayList<GridInventoryEntry> pinnedRow = new ArrayList<>();
     private final RepoSearch search = new RepoSearch();
@@ -82,6 +109,18 @@ public class Repo implements IClientRepo {
     private final ISortSource sortSrc;
     private boolean paused;
 
+    // The state the view was last rebuilt for
+    private boolean viewValid;
+    private SortOrder viewSortOrder;
+    private SortDir viewSortDir;
+    private Comparator<GridInventoryEntry> viewComparator;
+    private ViewItems viewMode;
+    private TypeFilter viewTypeFilter;
+    private String viewSearchString;
+    private boolean viewSearchTooltips;
+    private IPartitionList viewPartitionList;
+    private Set<AEKey> viewPinnedKeys;
+
     public Repo(IScrollSource src, ISortSource sortSrc) {
         this.src = src;
         this.sortSrc = sortSrc;
@@ -117,23 +156,54 @@ private void handleUpdate(GridInventoryEntry serverEntry) {
                 return;
             }
             if (serverEntry.isMeaningful()) {
-                entries.put(serverEntry.getSerial(), serverEntry);
+                putEntry(serverEntry);
             }
             return;
         }
 
         // Update the local entry
         if (!serverEntry.isMeaningful()) {
-            entries.remove(serverEntry.getSerial());
+            removeEntry(serverEntry.getSerial());
         } else if (serverEntry.getWhat() == null) {
-            entries.put(serverEntry.getSerial(), new GridInventoryEntry(
+            putEntry(new GridInventoryEntry(
                     serverEntry.getSerial(),
                     localEntry.getWhat(),
                     serverEntry.getStoredAmount(),
                     serverEntry.getRequestableAmount(),
                     serverEntry.isCraftable()));
         } else {
-            entries.put(serverEntry.getSerial(), serverEntry);
+            putEntry(serverEntry);
+        }
+    }
+
+    private void putEntry(GridInventoryEntry entry) {
+        var previous = entries.put(entry.getSerial(), entry);
+        if (previous == null) {
+            search.addEntry(entry);
+        }
+        onEntryChanged(entry.getSerial(), previous, entry);
+    }
+
+    private void removeEntry(long serial) {
+        var previous = entries.remove(serial);
+        search.removeEntry(serial);
+        onEntryChanged(serial, previous, null);
+    }
+
+    private void onEntryChanged(long serial, @Nullable GridInventoryEntry previous,
+            @Nullable GridInventoryEntry current) {
+        if (previous != null && previous.isCraftable()) {
+            if (craftableKeys.mergeInt(previous.getWhat(), -1, Integer::sum) <= 0) {
+                craftableKeys.removeInt(previous.getWhat());
+            }
+        }
+        if (current != null && current.isCraftable()) {
+            craftableKeys.mergeInt(current.getWhat(), 1, Integer::sum);
+        }
+
+        // Only the entry that is currently in the view has to be remembered
+        if (viewValid && !changedEntries.containsKey(serial)) {
+            changedEntries.put(serial, previous);
         }
     }
 
@@ -169,30 +239,126 @@ public final void updateView() {
             }
 
             addEntriesToView(entriesToAdd);
-        } else {
-            this.view.clear();
-            this.pinnedRow.clear();
 
-            this.view.ensureCapacity(this.entries.size());
-            this.pinnedRow.ensureCapacity(rowSize);
+            // The view is no longer sorted, so it has to be rebuilt once it is unpaused
+            invalidateView();
+        } else if (!canUpdateIncrementally() || !applyChangesToView()) {
+            rebuildView();
+        }
 
-            addEntriesToView(this.entries.values());
+        if (this.updateViewListener != null) {
+            this.updateViewListener.run();
         }
+    }
+
+    private void rebuildView() {
+        this.view.clear();
+        this.pinnedRow.clear();
+
+        this.view.ensureCapacity(this.entries.size());
+        this.pinnedRow.ensureCapacity(rowSize);
+
+        addEntriesToView(this.entries.values());
+
+        // Sort older entries first in the pinned row
+        pinnedRow.sort(PINNED_ROW_COMPARATOR);
+
+        var sortOrder = this.sortSrc.getSortBy();
+        var sortDir = this.sortSrc.getSortDir();
+
+        // Entries that are equal for the chosen order are sorted by serial, so that every entry has a unique position
+        // that can be found using a binary search
+        this.viewComparator = getComparator(sortOrder, sortDir)
+                .thenComparingLong(GridInventoryEntry::getSerial);
+        this.view.sort(viewComparator);
+
+        this.viewSortOrder = sortOrder;
+        this.viewSortDir = sortDir;
+        this.viewMode = this.sortSrc.getSortDisplay();
+        this.viewTypeFilter = this.sortSrc.getTypeFilter();
+        this.viewSearchString = this.search.getSearchString();
+        this.viewSearchTooltips = AEConfig.instance().isSearchTooltips();
+        this.viewPartitionList = this.partitionList;
+        this.viewPinnedKeys = new HashSet<>(PinnedKeys.getPinnedKeys());
+        this.viewValid = true;
+        this.changedEntries.clear();
+    }
 
-        // Don't re-sort while being paused
-        if (!isPaused()) {
-            // Sort older entries first in the pinned row
-            pinnedRow.sort(PINNED_ROW_COMPARATOR);
+    private void invalidateView() {
+        this.viewValid = false;
+        this.changedEntries.clear();
+    }
 
-            var sortOrder = this.sortSrc.getSortBy();
-            var sortDir = this.sortSrc.getSortDir();
+    private boolean canUpdateIncrementally() {
+        return viewValid
+                && changedEntries.size() <= Math.max(MIN_CHANGES_FOR_REBUILD, view.size() / 32)
+                && viewSortOrder == sortSrc.getSortBy()
+                && viewSortDir == sortSrc.getSortDir()
+                && viewMode == sortSrc.getSortDisplay()
+                && viewTypeFilter == sortSrc.getTypeFilter()
+                && viewSearchString.equals(search.getSearchString())
+                && viewSearchTooltips == AEConfig.instance().isSearchTooltips()
+                && viewPartitionList == partitionList
+                && viewPinnedKeys.equals(PinnedKeys.getPinnedKeys());
+    }
 
-            this.view.sort(getComparator(sortOrder, sortDir));
+    /**
+     * Moves the entries that changed since the last update to their new position in the sorted view.
+     *
+     * @return False if the view has to be rebuilt instead.
+     */
+    private boolean applyChangesToView() {
+        // The pinned row is small, but has rules that are easier to just apply again
+        if (!PinnedKeys.isEmpty()) {
+            for (var change : Long2ObjectMaps.fastIterable(changedEntries)) {
+                var previous = change.getValue();
+                var current = entries.get(change.getLongKey());
+                if (previous != null && PinnedKeys.isPinned(previous.getWhat())
+                        || current != null && PinnedKeys.isPinned(current.getWhat())) {
+                    return false;
+                }
+            }
         }
 
-        if (this.updateViewListener != null) {
-            this.updateViewListener.run();
+        var viewMode = this.sortSrc.getSortDisplay();
+        var typeFilter = this.sortSrc.getTypeFilter().getFilter();
+
+        for (var change : Long2ObjectMaps.fastIterable(changedEntries)) {
+            var previous = change.getValue();
+            var current = entries.get(change.getLongKey());
+
+            var index = previous != null ? indexInView(previous) : -1;
+            var visible = current != null && isVisible(current, viewMode, typeFilter);
+
+            if (index >= 0 && visible && viewComparator.compare(previous, current) == 0) {
+                // The position of the entry didn't change, i.e. only its amount changed while sorting by name
+                view.set(index, current);
+                continue;
+            }
+
+            if (index >= 0) {
+                view.remove(index);
+            }
+            if (visible) {
+                var insertionPoint = Collections.binarySearch(view, current, viewComparator);
+                if (insertionPoint < 0) {
+                    view.add(-insertionPoint - 1, current);
+                } else {
+                    view.set(insertionPoint, current);
+                }
+            }
+        }
+
+        changedEntries.clear();
+        return true;
+    }
+
+    private int indexInView(GridInventoryEntry entry) {
+        var index = Collections.binarySearch(view, entry, viewComparator);
+        if (index >= 0 && view.get(index).getSerial() == entry.getSerial()) {
+            return index;
         }
+        return -1;
     }
 
     private void addEntriesToView(Collection<GridInventoryEntry> entries) {
@@ -208,23 +374,7 @@ private void addEntriesToView(Collection<GridInventoryEntry> entries) {
                 continue;
             }
 
-            if (this.partitionList != null && !this.partitionList.isListed(entry.getWhat())) {
-                continue;
-            }
-
-            if (viewMode == ViewItems.CRAFTABLE && !entry.isCraftable()) {
-                continue;
-            }
-
-            if (viewMode == ViewItems.STORED && entry.getStoredAmount() == 0) {
-                continue;
-            }
-
-            if (!typeFilter.matches(entry.getWhat())) {
-                continue;
-            }
-
-            if (search.matches(entry)) {
+            if (isVisible(entry, viewMode, typeFilter)) {
                 this.view.add(entry);
             }
         }
@@ -244,6 +394,26 @@ private void addEntriesToView(Collection<GridInventoryEntry> entries) {
         }
     }
 
+    private boolean isVisible(GridInventoryEntry entry, ViewItems viewMode, AEKeyFilter typeFilter) {
+        if (this.partitionList != null && !this.partitionList.isListed(entry.getWhat())) {
+            return false;
+        }
+
+        if (viewMode == ViewItems.CRAFTABLE && !entry.isCraftable()) {
+            return false;
+        }
+
+        if (viewMode == ViewItems.STORED && entry.getStoredAmount() == 0) {
+            return false;
+        }
+
+        if (!typeFilter.matches(entry.getWhat())) {
+            return false;
+        }
+
+        return search.matches(entry);
+    }
+
     private void updateEntriesWhilePaused(List<GridInventoryEntry> shownEntries, LongSet visibleSerials) {
         for (int i = 0; i < shownEntries.size(); i++) {
             var entry = shownEntries.get(i);
@@ -305,7 +475,7 @@ private static boolean takeOverSlotOccupiedByRemovedItem(GridInventoryEntry serv
         return true;
     }
 
-    private Comparator<? super GridInventoryEntry> getComparator(SortOrder sortOrder, SortDir sortDir) {
+    private Comparator<GridInventoryEntry> getComparator(SortOrder sortOrder, SortDir sortDir) {
         if (sortOrder == SortOrder.AMOUNT) {
             return sortDir == SortDir.ASCENDING ? AMOUNT_ASC : AMOUNT_DESC;
         }
@@ -344,8 +514,11 @@ public final int size() {
 
     public final void clear() {
         this.entries.clear();
+        this.search.clear();
+        this.craftableKeys.clear();
         this.view.clear();
         this.pinnedRow.clear();
+        invalidateView();
     }
 
     public final boolean hasPinnedRow() {
@@ -365,7 +538,33 @@ public final int getRowSize() {
     }
 
     public final void setRowSize(int rowSize) {
-        this.rowSize = rowSize;
+        if (this.rowSize != rowSize) {
+            this.rowSize = rowSize;
+            // The pinned row holds at most one row of entries
+            invalidateView();
+        }
+    }
+
+    /**
+     * Computes some of the tooltips used for searching, and shows the entries that match the search now that their
+     * tooltip is known.
+     */
+    public final void updateSearchIndex() {
+        var newMatches = new LongArrayList();
+        search.computeTooltips(newMatches::add);
+        if (newMatches.isEmpty()) {
+            return;
+        }
+
+        if (viewValid) {
+            for (var it = newMatches.iterator(); it.hasNext();) {
+                var serial = it.nextLong();
+                if (!changedEntries.containsKey(serial)) {
+                    changedEntries.put(serial, entries.get(serial));
+                }
+            }
+        }
+        updateView();
     }
 
     public final String getSearchString() {
@@ -407,11 +606,6 @@ public final void setUpdateViewListener(Runnable updateViewListener) {
      * Checks if the repo knows that the given key can be crafted.
      */
     public boolean isCraftable(AEKey what) {
-        for (var entry : entries.values()) {
-            if (entry.isCraftable() && what.equals(entry.getWhat())) {
-                return true;
-            }
-        }
-        return false;
+        return craftableKeys.containsKey(what);
     }
 }
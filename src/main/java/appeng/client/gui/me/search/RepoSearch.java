@@ -1,15 +1,22 @@
 package appeng.client.gui.me.search;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.WeakHashMap;
+import java.util.function.LongConsumer;
 import java.util.function.Predicate;
 
+import org.jetbrains.annotations.Nullable;
+
 import net.minecraft.ChatFormatting;
+import net.minecraft.client.Minecraft;
 
 import it.unimi.dsi.fastutil.longs.Long2BooleanMap;
 import it.unimi.dsi.fastutil.longs.Long2BooleanOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongSet;
 
 import appeng.api.client.AEKeyRendering;
 import appeng.api.stacks.AEKey;
@@ -19,13 +26,60 @@
 
 public class RepoSearch {
 
+    /**
+     * How long tooltips may be computed for per tick.
+     */
+    private static final long TOOLTIP_BUDGET_NANOS = 2_000_000;
+
+    /**
+     * Characters that make a search string a regular expression rather than plain text.
+     */
+    private static final String PATTERN_CHARACTERS = "\\^$.|?*+()[]{}";
+
+    /**
+     * Tooltips are shared by all terminals, since computing them is expensive.
+     */
+    private static final Map<AEKey, String> tooltipCache = new WeakHashMap<>();
+    @Nullable
+    private static Object tooltipCacheSettings;
+
     private String searchString = "";
 
     // Cached information
     private final Long2BooleanMap cache = new Long2BooleanOpenHashMap();
     private Predicate<GridInventoryEntry> search = (e) -> true;
 
-    private final Map<AEKey, String> tooltipCache = new WeakHashMap<>();
+    private final SearchIndex index = new SearchIndex();
+    /**
+     * The lower-cased search string if it is plain text that is answered by the {@link #index}.
+     */
+    @Nullable
+    private String indexedSearch;
+    private boolean indexedSearchTooltips;
+    /**
+     * The serials of the entries matching {@link #indexedSearch}, computed when they are first needed.
+     */
+    @Nullable
+    private LongSet indexedMatches;
+    /**
+     * Accepts the ids of the mods searched for, if the search string searches for mods.
+     */
+    @Nullable
+    private Predicate<String> modSearch;
+    /**
+     * Whether each mod id matches {@link #modSearch}, so that it is only checked once per mod.
+     */
+    private final Map<String, Boolean> modSearchResults = new HashMap<>();
+    /**
+     * The serials of the entries matching {@link #modSearch}, computed when they are first needed.
+     */
+    @Nullable
+    private LongSet modMatches;
+    /**
+     * The settings the tooltips in the {@link #index} were computed with.
+     */
+    @Nullable
+    private Object indexedTooltipSettings;
 
     public RepoSearch() {
     }
@@ -36,20 +90,152 @@ public String getSearchString() {
 
     public void setSearchString(String searchString) {
         if (!searchString.equals(this.searchString)) {
+            var previousSearch = this.indexedSearch;
+            var previousMatches = this.indexedMatches;
+            var previousSearchTooltips = this.indexedSearchTooltips;
+
             this.search = SearchPredicates.fromString(searchString, this);
             this.searchString = searchString;
             this.cache.clear();
+
+            if (isPlainText(searchString)) {
+                this.indexedSearch = SearchIndex.lowerCase(searchString);
+                this.indexedSearchTooltips = AEConfig.instance().isSearchTooltips();
+                // When the search text is extended, only entries that matched before can still match
+                if (previousSearch != null && previousMatches != null && previousSearchTooltips == indexedSearchTooltips
+                        && indexedSearch.contains(previousSearch)) {
+                    previousMatches.removeIf((long serial) -> !index.matches(serial, indexedSearch,
+                            indexedSearchTooltips));
+                    this.indexedMatches = previousMatches;
+                } else {
+                    this.indexedMatches = null;
+                }
+            } else {
+                this.indexedSearch = null;
+                this.indexedMatches = null;
+            }
+
+            this.modSearchResults.clear();
+            this.modMatches = null;
+            if (searchString.startsWith("@")) {
+                this.modSearch = SearchPredicates.createModPredicate(searchString.substring(1));
+            } else {
+                this.modSearch = null;
+            }
         }
     }
 
     public boolean matches(GridInventoryEntry entry) {
+        if (indexedSearch != null) {
+            if (indexedMatches == null) {
+                indexedMatches = indexedSearchTooltips ? index.findByTooltip(indexedSearch)
+                        : index.findByName(indexedSearch);
+            }
+            return indexedMatches.contains(entry.getSerial());
+        }
+        if (modSearch != null) {
+            if (modMatches == null) {
+                modMatches = index.findByMod(this::isModSearched);
+            }
+            return modMatches.contains(entry.getSerial());
+        }
         return cache.computeIfAbsent(entry.getSerial(), s -> search.test(entry));
     }
 
+    /**
+     * Called when an entry with a new serial is received from the server.
+     */
+    public void addEntry(GridInventoryEntry entry) {
+        index.add(entry);
+        if (indexedMatches != null && index.matches(entry.getSerial(), indexedSearch, indexedSearchTooltips)) {
+            indexedMatches.add(entry.getSerial());
+        }
+        if (modMatches != null && isModSearched(entry.getWhat().getModId())) {
+            modMatches.add(entry.getSerial());
+        }
+    }
+
+    private boolean isModSearched(String modId) {
+        return modSearchResults.computeIfAbsent(modId, modSearch::test);
+    }
+
+    public void removeEntry(long serial) {
+        index.remove(serial);
+        cache.remove(serial);
+        if (indexedMatches != null) {
+            indexedMatches.remove(serial);
+        }
+        if (modMatches != null) {
+            modMatches.remove(serial);
+        }
+    }
+
+    public void clear() {
+        index.clear();
+        cache.clear();
+        indexedMatches = null;
+        modMatches = null;
+    }
+
+    /**
+     * Computes the tooltips of some entries that are missing one, if tooltips are searched.
+     *
+     * @param onResultChanged Receives the serial of each entry that matches the current search now, but didn't before
+     *                        its tooltip was known.
+     */
+    public void computeTooltips(LongConsumer onResultChanged) {
+        if (!AEConfig.instance().isSearchTooltips()) {
+            return;
+        }
+
+        var settings = getTooltipSettings();
+        if (!settings.equals(indexedTooltipSettings)) {
+            if (indexedTooltipSettings != null) {
+                index.clearTooltips();
+            }
+            indexedTooltipSettings = settings;
+        }
+
+        index.computeTooltips(TOOLTIP_BUDGET_NANOS, this::getTooltipText, serial -> {
+            if (indexedMatches != null && indexedSearchTooltips && !indexedMatches.contains(serial)
+                    && index.matches(serial, indexedSearch, true)) {
+                indexedMatches.add(serial);
+                onResultChanged.accept(serial);
+            }
+        });
+    }
+
+    private static boolean isPlainText(String searchString) {
+        if (searchString.isEmpty() || searchString.startsWith("@") || searchString.startsWith("#")) {
+            return false;
+        }
+        for (int i = 0; i < searchString.length(); i++) {
+            if (PATTERN_CHARACTERS.indexOf(searchString.charAt(i)) != -1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The settings that change the text of tooltips.
+     */
+    private static Object getTooltipSettings() {
+        var minecraft = Minecraft.getInstance();
+        return List.of(minecraft.options.advancedItemTooltips, AEConfig.instance().isSearchModNameInTooltips(),
+                minecraft.getLanguageManager().getSelected());
+    }
+
     /**
      * Gets the concatenated text of a keys tooltip for search purposes.
      */
     public String getTooltipText(AEKey what) {
+        var settings = getTooltipSettings();
+        if (!settings.equals(tooltipCacheSettings)) {
+            tooltipCache.clear();
+            tooltipCacheSettings = settings;
+        }
+
         return tooltipCache.computeIfAbsent(what, key -> {
             var lines = AEKeyRendering.getTooltip(key);
 
@@ -0,0 +1,234 @@
+package appeng.client.gui.me.search;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.function.Predicate;
+
+import org.jetbrains.annotations.Nullable;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+
+import appeng.api.stacks.AEKey;
+import appeng.menu.me.common.GridInventoryEntry;
+
+/**
+ * The lower-cased names and tooltips of the entries shown by a terminal, so that plain text searches don't have to
+ * compute them for every entry on every keystroke. Names are additionally indexed by the trigrams they contain, so that
+ * a search for a name only has to look at the entries containing all trigrams of the search text. Entries are also
+ * grouped by mod, so that a search for a mod only has to check each mod once.
+ * <p/>
+ * Names are only computed once the index is first queried, since terminals that aren't searched never need them.
+ * Tooltips are expensive to compute and are therefore only computed a few at a time, see {@link #computeTooltips}.
+ * Until then, the name of an entry is used in place of its tooltip, which includes the name.
+ */
+final class SearchIndex {
+    private static final int TRIGRAM_LENGTH = 3;
+
+    private final Long2ObjectMap<IndexedEntry> entries = new Long2ObjectOpenHashMap<>();
+    private final Long2ObjectMap<LongSet> nameTrigrams = new Long2ObjectOpenHashMap<>();
+    private final Map<String, LongSet> modEntries = new HashMap<>();
+    /**
+     * Serials of the entries whose name hasn't been computed yet.
+     */
+    private final LongArrayFIFOQueue pendingNames = new LongArrayFIFOQueue();
+    /**
+     * Serials of the entries whose tooltip hasn't been computed yet.
+     */
+    private final LongArrayFIFOQueue pendingTooltips = new LongArrayFIFOQueue();
+
+    void add(GridInventoryEntry entry) {
+        var serial = entry.getSerial();
+        remove(serial);
+
+        var what = entry.getWhat();
+        entries.put(serial, new IndexedEntry(what));
+        modEntries.computeIfAbsent(what.getModId(), m -> new LongOpenHashSet()).add(serial);
+        pendingNames.enqueue(serial);
+        pendingTooltips.enqueue(serial);
+    }
+
+    void remove(long serial) {
+        var entry = entries.remove(serial);
+        if (entry != null) {
+            var modId = entry.what.getModId();
+            var serials = modEntries.get(modId);
+            if (serials != null && serials.remove(serial) && serials.isEmpty()) {
+                modEntries.remove(modId);
+            }
+            if (entry.name != null) {
+                forEachTrigram(entry.name, trigram -> {
+                    var trigramSerials = nameTrigrams.get(trigram);
+                    if (trigramSerials != null && trigramSerials.remove(serial) && trigramSerials.isEmpty()) {
+                        nameTrigrams.remove(trigram);
+                    }
+                });
+            }
+        }
+    }
+
+    void clear() {
+        entries.clear();
+        nameTrigrams.clear();
+        modEntries.clear();
+        pendingNames.clear();
+        pendingTooltips.clear();
+    }
+
+    /**
+     * Computes the names of the entries that were added since the index was last queried.
+     */
+    private void computeNames() {
+        while (!pendingNames.isEmpty()) {
+            var serial = pendingNames.dequeueLong();
+            var entry = entries.get(serial);
+            if (entry != null && entry.name == null) {
+                var name = lowerCase(entry.what.getDisplayName().getString());
+                entry.name = name;
+                forEachTrigram(name,
+                        trigram -> nameTrigrams.computeIfAbsent(trigram, t -> new LongOpenHashSet()).add(serial));
+            }
+        }
+    }
+
+    /**
+     * Forgets all computed tooltips, i.e. because the settings they were computed with changed.
+     */
+    void clearTooltips() {
+        pendingTooltips.clear();
+        for (var entry : Long2ObjectMaps.fastIterable(entries)) {
+            entry.getValue().tooltip = null;
+            pendingTooltips.enqueue(entry.getLongKey());
+        }
+    }
+
+    /**
+     * Computes the tooltips of entries that don't have one yet, until the given time has elapsed.
+     *
+     * @param onComputed Receives the serial of each entry whose tooltip was computed.
+     */
+    void computeTooltips(long budgetNanos, Function<AEKey, String> tooltipText, LongConsumer onComputed) {
+        var deadline = System.nanoTime() + budgetNanos;
+        while (!pendingTooltips.isEmpty() && System.nanoTime() < deadline) {
+            var serial = pendingTooltips.dequeueLong();
+            var entry = entries.get(serial);
+            if (entry != null && entry.tooltip == null) {
+                entry.tooltip = lowerCase(tooltipText.apply(entry.what));
+                onComputed.accept(serial);
+            }
+        }
+    }
+
+    /**
+     * @return The serials of all entries whose name contains the given lower-cased text.
+     */
+    LongSet findByName(String text) {
+        computeNames();
+        var result = new LongOpenHashSet();
+        if (text.length() < TRIGRAM_LENGTH) {
+            for (var entry : Long2ObjectMaps.fastIterable(entries)) {
+                if (entry.getValue().name.contains(text)) {
+                    result.add(entry.getLongKey());
+                }
+            }
+            return result;
+        }
+
+        // Only entries that contain the trigram with the fewest entries can match
+        LongSet candidates = null;
+        for (int i = 0; i + TRIGRAM_LENGTH <= text.length(); i++) {
+            var serials = nameTrigrams.get(trigram(text, i));
+            if (serials == null) {
+                return result;
+            }
+            if (candidates == null || serials.size() < candidates.size()) {
+                candidates = serials;
+            }
+        }
+
+        for (var it = candidates.iterator(); it.hasNext();) {
+            var serial = it.nextLong();
+            if (entries.get(serial).name.contains(text)) {
+                result.add(serial);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return The serials of all entries whose tooltip contains the given lower-cased text.
+     */
+    LongSet findByTooltip(String text) {
+        computeNames();
+        var result = new LongOpenHashSet();
+        for (var entry : Long2ObjectMaps.fastIterable(entries)) {
+            if (entry.getValue().getTooltip().contains(text)) {
+                result.add(entry.getLongKey());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return Whether the entry with the given serial matches a search for the given lower-cased text.
+     */
+    boolean matches(long serial, String text, boolean searchTooltips) {
+        computeNames();
+        var entry = entries.get(serial);
+        if (entry == null) {
+            return false;
+        }
+        return (searchTooltips ? entry.getTooltip() : entry.name).contains(text);
+    }
+
+    /**
+     * @param modFilter Tested once for each mod id.
+     * @return The serials of all entries whose mod is accepted by the filter.
+     */
+    LongSet findByMod(Predicate<String> modFilter) {
+        var result = new LongOpenHashSet();
+        for (var entry : modEntries.entrySet()) {
+            if (modFilter.test(entry.getKey())) {
+                result.addAll(entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    static String lowerCase(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    private static void forEachTrigram(String text, LongConsumer consumer) {
+        for (int i = 0; i + TRIGRAM_LENGTH <= text.length(); i++) {
+            consumer.accept(trigram(text, i));
+        }
+    }
+
+    private static long trigram(String text, int start) {
+        return (long) text.charAt(start) << 32 | (long) text.charAt(start + 1) << 16 | text.charAt(start + 2);
+    }
+
+    private static final class IndexedEntry {
+        private final AEKey what;
+        @Nullable
+        private String name;
+        @Nullable
+        private String tooltip;
+
+        private IndexedEntry(AEKey what) {
+            this.what = what;
+        }
+
+        private String getTooltip() {
+            return tooltip != null ? tooltip : name;
+        }
+    }
+}
@@ -13,8 +13,8 @@ final class SearchPredicates {
 
     static Predicate<GridInventoryEntry> fromString(String searchString, RepoSearch repoSearch) {
         if (searchString.startsWith("@")) {
-            return createModIdPredicate(searchString.substring(1))
-                    .or(createModNamePredicate(searchString.substring(1)));
+            var modPredicate = createModPredicate(searchString.substring(1));
+            return entry -> modPredicate.test(Objects.requireNonNull(entry.getWhat()).getModId());
         } else if (searchString.startsWith("*")) {
             return createIdPredicate(searchString.substring(1));
         } else if (searchString.startsWith("#")) {
@@ -32,20 +32,13 @@ static Predicate<GridInventoryEntry> fromString(String searchString, RepoSearch
         }
     }
 
-    private static Predicate<GridInventoryEntry> createModIdPredicate(String searchText) {
+    /**
+     * @return A predicate that accepts the ids of the mods whose id or name matches the search text.
+     */
+    static Predicate<String> createModPredicate(String searchText) {
         var searchPattern = createPattern(searchText);
-        return entry -> {
-            var what = Objects.requireNonNull(entry.getWhat());
-            return searchPattern.matcher(what.getModId()).find();
-        };
-    }
-
-    private static Predicate<GridInventoryEntry> createModNamePredicate(String searchText) {
-        var searchPattern = createPattern(searchText);
-        return entry -> {
-            var what = Objects.requireNonNull(entry.getWhat());
-            return searchPattern.matcher(Platform.getModName(what.getModId())).find();
-        };
+        return modId -> searchPattern.matcher(modId).find()
+                || searchPattern.matcher(Platform.getModName(modId)).find();
     }
 
     private static Predicate<GridInventoryEntry> createIdPredicate(String searchText) {
@@ -362,6 +362,18 @@ public int getCraftingCalculationTimePerTick() {
         return this.craftingCalculationTimePerTick;
     }
 
+    public boolean isParallelCraftingCalculationEnabled() {
+        return COMMON.parallelCraftingCalculation.get();
+    }
+
+    public int getCraftingCalculationThreads() {
+        return COMMON.craftingCalculationThreads.get();
+    }
+
+    public int getCraftingCalculationTimeLimit() {
+        return COMMON.craftingCalculationTimeLimit.get();
+    }
+
     public boolean isCraftingSimulatedExtraction() {
         return this.craftingSimulatedExtraction;
     }
@@ -458,6 +470,78 @@ public int getPathfindingStepsPerTick() {
         return COMMON.pathfindingStepsPerTick.get();
     }
 
+    public boolean isIncrementalPathingEnabled() {
+        return COMMON.incrementalPathing.get();
+    }
+
+    public boolean isIncrementalStorageCacheEnabled() {
+        return COMMON.incrementalStorageCache.get();
+    }
+
+    public int getStorageCacheRebuildInterval() {
+        return COMMON.storageCacheRebuildInterval.get();
+    }
+
+    public boolean isInsertRoutingCacheEnabled() {
+        return COMMON.insertRoutingCache.get();
+    }
+
+    public boolean isExtractionIndexEnabled() {
+        return COMMON.extractionIndex.get();
+    }
+
+    public int getDecodedCellTypeLimit() {
+        return COMMON.decodedCellTypeLimit.get();
+    }
+
+    public int getDecodedCellIdleTicks() {
+        return COMMON.decodedCellIdleTicks.get();
+    }
+
+    public boolean isStorageBusSlotIndexEnabled() {
+        return COMMON.storageBusSlotIndex.get();
+    }
+
+    public int getStorageBusBackoffScans() {
+        return COMMON.storageBusBackoffScans.get();
+    }
+
+    public boolean isStorageBusSlotKeyCacheEnabled() {
+        return COMMON.storageBusSlotKeyCache.get();
+    }
+
+    public int getTerminalKeyDictionarySize() {
+        return COMMON.terminalKeyDictionarySize.get();
+    }
+
+    public boolean isTerminalUpdateCompressionEnabled() {
+        return COMMON.terminalUpdateCompression.get();
+    }
+
+    public int getTerminalMaxEntriesPerTick() {
+        return COMMON.terminalMaxEntriesPerTick.get();
+    }
+
+    public boolean isGridAssemblyBatched() {
+        return COMMON.batchGridAssembly.get();
+    }
+
+    public boolean isSkipIdleGridsEnabled() {
+        return COMMON.skipIdleGrids.get();
+    }
+
+    public int getGridServiceTickBudgetMicros() {
+        return COMMON.gridServiceTickBudget.get();
+    }
+
+    public boolean isBlockEntityUpdateCoalescingEnabled() {
+        return COMMON.coalesceBlockEntityUpdates.get();
+    }
+
+    public boolean isSkipUnchangedBlockEntityUpdates() {
+        return COMMON.skipUnchangedBlockEntityUpdates.get();
+    }
+
     /**
      * @return True if an in-world preview of parts and facade placement should be shown when holding one in hand.
      */
@@ -631,17 +715,46 @@ private static class CommonConfig {
         public final IntegerOption formationPlaneEntityLimit;
         public final IntegerOption craftingCalculationTimePerTick;
         public final BooleanOption craftingSimulatedExtraction;
+        public final BooleanOption parallelCraftingCalculation;
+        public final IntegerOption craftingCalculationThreads;
+        public final IntegerOption craftingCalculationTimeLimit;
         public final BooleanOption allowBlockEntityFacades;
         public final BooleanOption debugTools;
         public final BooleanOption matterCannonBlockDamage;
         public final BooleanOption tinyTntBlockDamage;
         public final EnumOption<ChannelMode> channels;
         public final IntegerOption pathfindingStepsPerTick;
+        public final BooleanOption incrementalPathing;
         public final BooleanOption spatialAnchorEnableRandomTicks;
 
         public final BooleanOption disassemblyCrafting;
         public final IntegerOption growthAcceleratorSpeed;
 
+        // Network storage
+        public final BooleanOption incrementalStorageCache;
+        public final IntegerOption storageCacheRebuildInterval;
+        public final BooleanOption insertRoutingCache;
+        public final BooleanOption extractionIndex;
+        public final IntegerOption decodedCellTypeLimit;
+        public final IntegerOption decodedCellIdleTicks;
+        public final BooleanOption storageBusSlotIndex;
+        public final IntegerOption storageBusBackoffScans;
+        public final BooleanOption storageBusSlotKeyCache;
+
+        // Terminals
+        public final IntegerOption terminalKeyDictionarySize;
+        public final BooleanOption terminalUpdateCompression;
+        public final IntegerOption terminalMaxEntriesPerTick;
+
+        // Grids
+        public final BooleanOption batchGridAssembly;
+        public final IntegerOption gridServiceTickBudget;
+        public final BooleanOption skipIdleGrids;
+
+        // Block entity synchronization
+        public final BooleanOption coalesceBlockEntityUpdates;
+        public final BooleanOption skipUnchangedBlockEntityUpdates;
+
         // Spatial IO/Dimension
         public final DoubleOption spatialPowerExponent;
         public final DoubleOption spatialPowerMultiplier;
@@ -708,6 +821,8 @@ public CommonConfig(ConfigSection root) {
             pathfindingStepsPerTick = general.addInt("pathfindingStepsPerTick", 4,
                     1, 1024,
                     "The number of pathfinding steps that are taken per tick and per grid that is booting. Lower numbers will mean booting takes longer, but less work is done per tick.");
+            incrementalPathing = general.addBoolean("incrementalPathing", false,
+                    "When true: nodes that are added to or removed from the edge of a grid with a controller are assigned or release their channel without rebooting the grid. The grid still reboots for any other change to its structure.");
             spatialAnchorEnableRandomTicks = general.addBoolean("spatialAnchorEnableRandomTicks", true,
                     "Whether Spatial Anchors should force random chunk ticks and entity spawning.");
 
@@ -722,6 +837,12 @@ public CommonConfig(ConfigSection root) {
             this.craftingCalculationTimePerTick = craftingCPU.addInt("craftingCalculationTimePerTick", 5);
             this.craftingSimulatedExtraction = craftingCPU.addBoolean("craftingSimulatedExtraction", false,
                     "When true: simulate extraction of all the network's contents when starting a crafting job calculation. When false: use the cached available content list (same as terminals). Enabling might work a bit better, but it will significantly reduce performance.");
+            this.parallelCraftingCalculation = craftingCPU.addBoolean("parallelCalculation", false,
+                    "When true: crafting job calculations run concurrently with the server on a fixed pool of threads, using a snapshot of the network content and patterns taken when the calculation starts. The result is validated when the job is submitted. When false: calculations only run for craftingCalculationTimePerTick while the server waits for them.");
+            this.craftingCalculationThreads = craftingCPU.addInt("parallelCalculationThreads", 2, 1, 64,
+                    "Number of threads used for parallel crafting calculations. Requires a restart.");
+            this.craftingCalculationTimeLimit = craftingCPU.addInt("parallelCalculationTimeLimit", 60, 1, 3600,
+                    "Number of seconds a parallel crafting calculation may run before it is aborted.");
 
             var crafting = root.subsection("crafting");
             disassemblyCrafting = crafting.addBoolean("disassemblyCrafting", true,
@@ -729,6 +850,50 @@ public CommonConfig(ConfigSection root) {
             growthAcceleratorSpeed = crafting.addInt("growthAccelerator", 10, 1, 100,
                     "Number of ticks between two crystal growth accelerator ticks");
 
+            var networkStorage = root.subsection("networkStorage");
+            incrementalStorageCache = networkStorage.addBoolean("incrementalCacheUpdates", false,
+                    "When true: the cached network inventory (used by level emitters, export buses, etc.) is updated by rescanning only the storage that changed since the last tick. When false: all storage on the network is rescanned every tick while anything watches the network inventory.");
+            storageCacheRebuildInterval = networkStorage.addInt("fullCacheRebuildInterval", 200, 1, 72000,
+                    "Number of ticks after which the cached network inventory is fully rebuilt when incremental cache updates are enabled. This corrects changes that were not reported by the storage itself.");
+            insertRoutingCache = networkStorage.addBoolean("insertRoutingCache", false,
+                    "When true: the network remembers which storage cell each item was last inserted into, and inserts the same item there directly as long as no storage with a higher priority could have gained room for it.");
+            extractionIndex = networkStorage.addBoolean("extractionIndex", false,
+                    "When true: the network keeps track of which storage cells contain each item, and only asks those cells when extracting it. Storage buses are always asked.");
+            decodedCellTypeLimit = networkStorage.addInt("decodedCellTypeLimit", 0, 0, Integer.MAX_VALUE,
+                    "Maximum number of item types kept in memory across all storage cells in drives and chests. The content of the least recently used cells is only kept in its saved form once the limit is exceeded. 0 disables the limit.");
+            decodedCellIdleTicks = networkStorage.addInt("decodedCellIdleTicks", 0, 0, Integer.MAX_VALUE,
+                    "Number of ticks after which the content of an unused storage cell in a drive or chest is only kept in its saved form. 0 keeps the content of cells in memory indefinitely.");
+
+            var storageBus = root.subsection("storageBus");
+            storageBusSlotIndex = storageBus.addBoolean("slotIndex", false,
+                    "When true: storage buses remember which slots of the attached inventory contained each item when it was last scanned, and only look at those slots when extracting. Items added to the inventory by other means can only be extracted after the next scan.");
+            storageBusBackoffScans = storageBus.addInt("unchangedScansBeforeBackoff", 0, 0, 10000,
+                    "Number of scans without changes after which storage buses scan the attached inventory less often, down to every eighth time. 0 disables this.");
+            storageBusSlotKeyCache = storageBus.addBoolean("slotKeyCache", false,
+                    "When true: storage buses only build new item keys for slots of the attached inventory whose stack changed since the last scan. Changes to item capabilities that don't replace the stack may take up to 20 scans to show up.");
+
+            var terminals = root.subsection("terminals");
+            terminalKeyDictionarySize = terminals.addInt("keyDictionarySize", 0, 0, 1000000,
+                    "Maximum number of items per player whose full data is only sent to the client once per connection, and referred to by a number afterwards when terminals are opened or updated. 0 sends the full data every time a terminal is opened.");
+            terminalUpdateCompression = terminals.addBoolean("compressFullUpdates", false,
+                    "When true: large terminal contents are compressed before being sent to the client. This is only useful if compression of the network connection is disabled.");
+            terminalMaxEntriesPerTick = terminals.addInt("maxEntriesPerTick", 0, 0, Integer.MAX_VALUE,
+                    "Maximum number of items sent to an open terminal per tick. Opening a terminal on a large network then shows the first items right away and receives the others over the following ticks. When sorting by amount, the items shown first are sent first. 0 sends all items at once.");
+
+            var grids = root.subsection("grids");
+            batchGridAssembly = grids.addBoolean("batchAssembly", false,
+                    "When true: grids that become connected while the nodes of a tick are readied, i.e. when loading chunks, are only merged once all of them are readied. Every node then moves to its final grid at most once, instead of every time two parts of a grid are connected.");
+            gridServiceTickBudget = grids.addInt("serviceTickBudget", 0, 0, 1000000,
+                    "Time in microseconds that all grids may spend per tick on updating their network inventory and crafting CPUs. Once it is used up, the remaining grids update in the next tick instead, and take turns with the other grids. 0 updates all grids every tick.");
+            skipIdleGrids = grids.addBoolean("skipIdleGrids", false,
+                    "When true: grids are only ticked along with the dimensions in which they have machines that are waiting to be ticked. Grids without such machines, like lone cables, are skipped entirely in the ticks of dimensions.");
+
+            var blockEntitySync = root.subsection("blockEntitySync");
+            coalesceBlockEntityUpdates = blockEntitySync.addBoolean("coalesceUpdates", false,
+                    "When true: changes to AE2 blocks, such as cables and their parts, are sent to clients at most once per tick and block, no matter how often the block changed during the tick. This mostly helps while large networks are booting.");
+            skipUnchangedBlockEntityUpdates = blockEntitySync.addBoolean("skipUnchangedUpdates", false,
+                    "When true and coalesceUpdates is enabled: changes to AE2 blocks are not sent to clients if the data that would be sent is the same as what was sent last. Requires additional memory for every loaded AE2 block.");
+
             ConfigSection spatialio = root.subsection("spatialio");
             this.spatialPowerMultiplier = spatialio.addDouble("spatialPowerMultiplier", 1250.0);
             this.spatialPowerExponent = spatialio.addDouble("spatialPowerExponent", 1.35);
@@ -23,6 +23,7 @@ public enum PlayerMessages implements LocalizationEnum {
     ChestCannotReadStorageCell("ME Chest cannot read storage cell."),
     ChannelModeSet("Channel mode set to %s. Updated %d grids."),
     ChannelModeCurrent("Current channel mode: %s"),
+    CellCacheStats("Decoded cells: %d (%d types). Hits: %d, misses: %d, evictions: %d"),
     ClickToShowDetails("Click to show details"),
     ClickToTeleport("Click to teleport into plot"),
     CommunicationError("Error Communicating with Network."),
@@ -52,6 +52,13 @@ protected final void configureWrite(FriendlyByteBuf data) {
         this.p = data;
     }
 
+    /**
+     * Additional information about the content of this packet that is appended to its entry in the packet log.
+     */
+    protected String getLogDetails() {
+        return "";
+    }
+
     public Packet<?> toPacket(PlayNetworkDirection direction) {
         if (this.p.array().length > 2 * 1024 * 1024) // 2k walking room :)
         {
@@ -60,7 +67,7 @@ public Packet<?> toPacket(PlayNetworkDirection direction) {
         }
 
         if (AEConfig.instance().isPacketLogEnabled()) {
-            AELog.info(this.getClass().getName() + " : " + p.readableBytes());
+            AELog.info(this.getClass().getName() + " : " + p.readableBytes() + getLogDetails());
         }
 
         return direction.buildPacket(new INetworkDirection.PacketData(p, 0), NetworkHandler.instance().getChannel());
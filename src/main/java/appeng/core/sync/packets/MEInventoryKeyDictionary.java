@@ -0,0 +1,96 @@
+package appeng.core.sync.packets;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.jetbrains.annotations.Nullable;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import net.minecraft.server.level.ServerPlayer;
+
+import appeng.api.stacks.AEKey;
+
+/**
+ * Keys that were already sent to a client in full by {@link MEInventoryUpdatePacket}, so that they can be referred to by
+ * their index for the rest of the connection, instead of once per opened terminal.
+ * <p/>
+ * Both sides assign indices in the order in which the keys are written to and read from the packets. The server only
+ * adds keys to its dictionary once the packets containing them were built, and asks the client to clear its dictionary
+ * in the first packet it sends for a connection, or once the dictionary grew too large.
+ */
+final class MEInventoryKeyDictionary {
+    /**
+     * Server-side dictionaries by the connection of the player they were sent to.
+     */
+    private static final Map<Object, MEInventoryKeyDictionary> SERVER_DICTIONARIES = new WeakHashMap<>();
+
+    /**
+     * The dictionary of the connection to the server. It is only accessed while packets are being decoded, which
+     * happens in the order they were sent in.
+     */
+    private static final List<AEKey> CLIENT_KEYS = new ArrayList<>();
+
+    private final Object2IntMap<AEKey> indices = new Object2IntOpenHashMap<>();
+    private boolean needsReset = true;
+
+    private MEInventoryKeyDictionary() {
+        indices.defaultReturnValue(-1);
+    }
+
+    @Nullable
+    static MEInventoryKeyDictionary forPlayer(ServerPlayer player) {
+        if (player.connection == null) {
+            return null;
+        }
+        return SERVER_DICTIONARIES.computeIfAbsent(player.connection, c -> new MEInventoryKeyDictionary());
+    }
+
+    /**
+     * @return True if the next packet has to ask the client to clear its dictionary, either because it wasn't sent
+     *         anything yet, or because the dictionary reached the given size.
+     */
+    boolean needsReset(int maxSize) {
+        return needsReset || indices.size() >= maxSize;
+    }
+
+    int size() {
+        return indices.size();
+    }
+
+    int getIndex(AEKey what) {
+        return indices.getInt(what);
+    }
+
+    /**
+     * Called once the packets of a builder were built, with the keys that were registered in those packets.
+     *
+     * @param reset     Whether the first packet asked the client to clear its dictionary.
+     * @param addedKeys The new keys by their index.
+     */
+    void commit(boolean reset, Object2IntMap<AEKey> addedKeys) {
+        if (reset) {
+            indices.clear();
+            needsReset = false;
+        }
+        indices.putAll(addedKeys);
+    }
+
+    static void clientReset() {
+        CLIENT_KEYS.clear();
+    }
+
+    static void clientRegister(AEKey what) {
+        CLIENT_KEYS.add(what);
+    }
+
+    static AEKey clientGet(int index) {
+        if (index < 0 || index >= CLIENT_KEYS.size()) {
+            throw new IllegalArgumentException("Unknown key index " + index + " (" + CLIENT_KEYS.size() + " known)");
+        }
+        return CLIENT_KEYS.get(index);
+    }
+}
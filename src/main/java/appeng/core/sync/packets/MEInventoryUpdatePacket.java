@@ -18,17 +18,26 @@
 
 package appeng.core.sync.packets;
 
+import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 import org.jetbrains.annotations.Nullable;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 
 import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.player.Player;
 import net.neoforged.api.distmarker.Dist;
 import net.neoforged.api.distmarker.OnlyIn;
@@ -36,6 +45,7 @@
 import appeng.api.stacks.AEKey;
 import appeng.api.stacks.KeyCounter;
 import appeng.api.storage.AEKeyFilter;
+import appeng.core.AEConfig;
 import appeng.core.AELog;
 import appeng.core.sync.BasePacket;
 import appeng.core.sync.BasePacketHandler;
@@ -50,11 +60,33 @@ public class MEInventoryUpdatePacket extends BasePacket {
      */
     private static final int UNCOMPRESSED_PACKET_BYTE_LIMIT = 512 * 1024;
 
+    /**
+     * Maximum size of the decompressed entries of a packet that a client accepts.
+     */
+    private static final int MAX_INFLATED_BYTES = 2 * 1024 * 1024;
+
+    /**
+     * Entries of full updates are only compressed if they are at least this large.
+     */
+    private static final int COMPRESSION_THRESHOLD = 8 * 1024;
+
     /**
      * Initial buffer size for an update packet.
      */
     private static final int INITIAL_BUFFER_CAPACITY = 2 * 1024;
 
+    // Flags of the packet
+    private static final int PACKET_RESET_DICTIONARY = 1;
+    private static final int PACKET_COMPRESSED = 2;
+
+    // Flags of each entry
+    private static final int ENTRY_KEY = 1;
+    private static final int ENTRY_KEY_REFERENCE = 2;
+    private static final int ENTRY_REGISTER_KEY = 4;
+    private static final int ENTRY_STORED = 8;
+    private static final int ENTRY_REQUESTABLE = 16;
+    private static final int ENTRY_CRAFTABLE = 32;
+
     // input.
     private final List<GridInventoryEntry> entries;
 
@@ -62,15 +94,30 @@ public class MEInventoryUpdatePacket extends BasePacket {
 
     private int containerId;
 
+    // Statistics for the packet log
+    private int entryCount;
+    private int fullKeyCount;
+    private int keyReferenceCount;
+    private int uncompressedBytes;
+
     public MEInventoryUpdatePacket(FriendlyByteBuf data) {
         this.containerId = data.readVarInt();
         this.fullUpdate = data.readBoolean();
         var count = data.readShort();
+        var flags = data.readByte();
         this.entries = new ArrayList<>(count);
 
+        // The dictionary has to be updated even if the packet is ignored, since the server assumes the client received
+        // all keys it sent
+        if ((flags & PACKET_RESET_DICTIONARY) != 0) {
+            MEInventoryKeyDictionary.clientReset();
+        }
+
+        var entryData = (flags & PACKET_COMPRESSED) != 0 ? inflate(data) : data;
+
         // We need to access the current screen to know which storage channel was used to serialize this data
         for (int i = 0; i < count; i++) {
-            this.entries.add(readEntry(data));
+            this.entries.add(readEntry(entryData));
         }
     }
 
@@ -84,25 +131,60 @@ public static class Builder {
 
         private final int containerId;
 
+        /**
+         * Whether the entries of the packets should be compressed.
+         */
+        private final boolean compress;
+
+        @Nullable
+        private final MEInventoryKeyDictionary dictionary;
+
+        private final int maxDictionarySize;
+
+        /**
+         * Whether the client has to clear its dictionary before reading the first packet.
+         */
+        private final boolean resetDictionary;
+
+        /**
+         * Keys that were registered in the dictionary by the packets of this builder.
+         */
+        private final Object2IntMap<AEKey> addedKeys = new Object2IntOpenHashMap<>();
+
+        // The entries of the packet currently being written
         @Nullable
         private FriendlyByteBuf data;
 
-        // Offset into data where the 16-bit item-count must be written
-        // to at the end, before sending the packet
-        private int itemCountOffset = -1;
+        private boolean dataIsFullUpdate;
 
         private int itemCount;
 
+        private int fullKeyCount;
+
+        private int keyReferenceCount;
+
         @Nullable
         private AEKeyFilter filter;
 
-        public Builder(int containerId, boolean fullUpdate) {
+        /**
+         * @param player The player receiving the packets. Keys are only sent once per connection if this is a server
+         *               player.
+         */
+        public Builder(int containerId, boolean fullUpdate, @Nullable Player player) {
             this.containerId = containerId;
+            this.compress = fullUpdate && AEConfig.instance().isTerminalUpdateCompressionEnabled();
+            this.maxDictionarySize = AEConfig.instance().getTerminalKeyDictionarySize();
+            this.dictionary = maxDictionarySize > 0 && player instanceof ServerPlayer serverPlayer
+                    ? MEInventoryKeyDictionary.forPlayer(serverPlayer)
+                    : null;
+            this.resetDictionary = dictionary != null && dictionary.needsReset(maxDictionarySize);
+            this.addedKeys.defaultReturnValue(-1);
 
             // If we are to send a full update, initialize the data buffer to ensure it is sent even if no
             // items are ever added (this indicates clearing the inventory client-side)
             if (fullUpdate) {
-                data = createPacketHeader(true);
+                data = createEntryBuffer();
+                dataIsFullUpdate = true;
             } else {
                 data = null;
             }
@@ -140,22 +222,30 @@ public void addChanges(IncrementalUpdateHelper updateHelper,
                 KeyCounter networkStorage,
                 Set<AEKey> craftables,
                 KeyCounter requestables) {
-            for (AEKey key : updateHelper) {
-                if (this.filter != null && !this.filter.matches(key)) {
-                    continue;
-                }
+            addChanges(updateHelper, networkStorage, craftables, requestables, Integer.MAX_VALUE);
+        }
 
-                AEKey sendKey;
-                Long serial = updateHelper.getSerial(key);
+        /**
+         * Adds at most the given number of pending changes. The remaining changes are kept by the helper and should be
+         * sent by a later update.
+         */
+        public void addChanges(IncrementalUpdateHelper updateHelper,
+                KeyCounter networkStorage,
+                Set<AEKey> craftables,
+                KeyCounter requestables,
+                int maxEntries) {
+            int added = 0;
+            var it = updateHelper.iterator();
+            while (it.hasNext()) {
+                if (added >= maxEntries) {
+                    updateHelper.commitSentChanges();
+                    return;
+                }
 
-                // Try to serialize the item into the buffer
-                if (serial == null) {
-                    // This is a new key, not sent to the client
-                    sendKey = key;
-                    serial = updateHelper.getOrAssignSerial(key);
-                } else {
-                    // This is an incremental update referring back to the serial
-                    sendKey = null;
+                var key = it.next();
+                it.remove();
+                if (this.filter != null && !this.filter.matches(key)) {
+                    continue;
                 }
 
                 // The queued changes are actual differences, but we need to send the real stored properties
@@ -163,13 +253,28 @@ public void addChanges(IncrementalUpdateHelper updateHelper,
                 var storedAmount = networkStorage.get(key);
                 var craftable = craftables.contains(key);
                 var requestable = requestables.get(key);
+                Long serial = updateHelper.getSerial(key);
+
                 if (storedAmount <= 0 && requestable <= 0 && !craftable) {
                     // This happens when an update is queued but the item is no longer stored
-                    add(new GridInventoryEntry(serial, sendKey, 0, 0, false));
-                    updateHelper.removeSerial(key);
+                    if (serial != null) {
+                        add(new GridInventoryEntry(serial, null, 0, 0, false));
+                        updateHelper.removeSerial(key);
+                        added++;
+                    }
+                    // Otherwise the client never saw the key, i.e. because it was removed before it was sent
+                    continue;
+                }
+
+                if (serial == null) {
+                    // This is a new key, not sent to the client
+                    add(new GridInventoryEntry(updateHelper.getOrAssignSerial(key), key, storedAmount, requestable,
+                            craftable));
                 } else {
-                    add(new GridInventoryEntry(serial, sendKey, storedAmount, requestable, craftable));
+                    // This is an incremental update referring back to the serial
+                    add(new GridInventoryEntry(serial, null, storedAmount, requestable, craftable));
                 }
+                added++;
             }
 
             updateHelper.commitChanges();
@@ -190,51 +295,147 @@ public void add(GridInventoryEntry entry) {
             }
         }
 
+        /**
+         * Writes this entry to a packet buffer for shipping it to the client.
+         */
+        private void writeEntry(FriendlyByteBuf buffer, GridInventoryEntry entry) {
+            var what = entry.getWhat();
+            int flags = 0;
+            int keyIndex = -1;
+            if (what != null) {
+                keyIndex = getKeyIndex(what);
+                if (keyIndex >= 0) {
+                    flags |= ENTRY_KEY_REFERENCE;
+                    keyReferenceCount++;
+                } else {
+                    flags |= ENTRY_KEY;
+                    if (registerKey(what)) {
+                        flags |= ENTRY_REGISTER_KEY;
+                    }
+                    fullKeyCount++;
+                }
+            }
+            if (entry.getStoredAmount() != 0) {
+                flags |= ENTRY_STORED;
+            }
+            if (entry.getRequestableAmount() != 0) {
+                flags |= ENTRY_REQUESTABLE;
+            }
+            if (entry.isCraftable()) {
+                flags |= ENTRY_CRAFTABLE;
+            }
+
+            buffer.writeVarLong(entry.getSerial());
+            buffer.writeByte(flags);
+            if ((flags & ENTRY_KEY_REFERENCE) != 0) {
+                buffer.writeVarInt(keyIndex);
+            } else if ((flags & ENTRY_KEY) != 0) {
+                AEKey.writeKey(buffer, what);
+            }
+            if ((flags & ENTRY_STORED) != 0) {
+                buffer.writeVarLong(entry.getStoredAmount());
+            }
+            if ((flags & ENTRY_REQUESTABLE) != 0) {
+                buffer.writeVarLong(entry.getRequestableAmount());
+            }
+        }
+
+        /**
+         * @return The index of the key in the dictionary of the client, or -1 if it has to be sent in full.
+         */
+        private int getKeyIndex(AEKey what) {
+            if (dictionary == null) {
+                return -1;
+            }
+            var index = addedKeys.getInt(what);
+            if (index < 0 && !resetDictionary) {
+                index = dictionary.getIndex(what);
+            }
+            return index;
+        }
+
+        /**
+         * @return True if the client should add the key to its dictionary.
+         */
+        private boolean registerKey(AEKey what) {
+            if (dictionary == null) {
+                return false;
+            }
+            var index = (resetDictionary ? 0 : dictionary.size()) + addedKeys.size();
+            if (index >= maxDictionarySize) {
+                return false;
+            }
+            addedKeys.put(what, index);
+            return true;
+        }
+
         private void flushData() {
             if (data != null) {
-                // Jump back and fill in the number of items contained in the packet
-                data.markWriterIndex();
-                data.writerIndex(itemCountOffset);
-                data.writeShort(itemCount);
-                data.resetWriterIndex();
+                var packetData = new FriendlyByteBuf(Unpooled.buffer(INITIAL_BUFFER_CAPACITY));
+                // Since we don't have an instance of a packet we can't get the packet id the normal way now
+                packetData.writeInt(BasePacketHandler.PacketTypes.ME_INVENTORY_UPDATE.getPacketId());
+                packetData.writeVarInt(containerId);
+                packetData.writeBoolean(dataIsFullUpdate);
+                packetData.writeShort(itemCount);
+
+                int flags = 0;
+                if (resetDictionary && packets.isEmpty()) {
+                    flags |= PACKET_RESET_DICTIONARY;
+                }
+                byte[] compressed = null;
+                if (compress && data.readableBytes() >= COMPRESSION_THRESHOLD) {
+                    compressed = deflate(data);
+                    if (compressed.length < data.readableBytes()) {
+                        flags |= PACKET_COMPRESSED;
+                    } else {
+                        compressed = null;
+                    }
+                }
+                packetData.writeByte(flags);
+
+                if (compressed != null) {
+                    packetData.writeVarInt(data.readableBytes());
+                    packetData.writeBytes(compressed);
+                } else {
+                    packetData.writeBytes(data);
+                }
 
                 // Build a packet and queue it
                 var packet = new MEInventoryUpdatePacket();
-                packet.configureWrite(data);
+                packet.entryCount = itemCount;
+                packet.fullKeyCount = fullKeyCount;
+                packet.keyReferenceCount = keyReferenceCount;
+                packet.uncompressedBytes = data.writerIndex();
+                packet.configureWrite(packetData);
                 packets.add(packet);
 
                 // Reset
                 data = null;
-                itemCountOffset = -1;
                 itemCount = 0;
+                fullKeyCount = 0;
+                keyReferenceCount = 0;
             }
         }
 
         private FriendlyByteBuf ensureData() {
             if (data == null) {
-                data = createPacketHeader(false);
+                data = createEntryBuffer();
+                dataIsFullUpdate = false;
             }
             return data;
         }
 
-        private FriendlyByteBuf createPacketHeader(boolean fullUpdate) {
-            final FriendlyByteBuf data;
-            data = new FriendlyByteBuf(Unpooled.buffer(INITIAL_BUFFER_CAPACITY));
-            // Since we don't have an instance of a packet we can't get the packet id the normal way now
-            data.writeInt(BasePacketHandler.PacketTypes.ME_INVENTORY_UPDATE.getPacketId());
-            data.writeVarInt(containerId);
-            data.writeBoolean(fullUpdate);
-
-            // This is a placeholder for the item count and will be added at the end,
-            // so we need to remember where in the stream we have written it
-            itemCountOffset = data.writerIndex();
-            data.writeShort(0);
-
-            return data;
+        private static FriendlyByteBuf createEntryBuffer() {
+            return new FriendlyByteBuf(Unpooled.buffer(INITIAL_BUFFER_CAPACITY));
         }
 
         public List<MEInventoryUpdatePacket> build() {
             flushData();
+            // The client learns about the keys once it receives the packets
+            if (dictionary != null && !packets.isEmpty()) {
+                dictionary.commit(resetDictionary, addedKeys);
+                addedKeys.clear();
+            }
             return packets;
         }
 
@@ -246,33 +447,86 @@ public void buildAndSend(Consumer<MEInventoryUpdatePacket> sender) {
 
     }
 
-    public static Builder builder(int containerId, boolean fullUpdate) {
-        return new Builder(containerId, fullUpdate);
-    }
-
     /**
-     * Writes this entry to a packet buffer for shipping it to the client.
+     * @param player The player receiving the packets.
      */
-    private static void writeEntry(FriendlyByteBuf buffer, GridInventoryEntry entry) {
-        buffer.writeVarLong(entry.getSerial());
-        AEKey.writeOptionalKey(buffer, entry.getWhat());
-        buffer.writeVarLong(entry.getStoredAmount());
-        buffer.writeVarLong(entry.getRequestableAmount());
-        buffer.writeBoolean(entry.isCraftable());
+    public static Builder builder(int containerId, boolean fullUpdate, @Nullable Player player) {
+        return new Builder(containerId, fullUpdate, player);
     }
 
     /**
      * Reads an inventory entry from a packet.
      */
-    public static GridInventoryEntry readEntry(FriendlyByteBuf buffer) {
+    private static GridInventoryEntry readEntry(FriendlyByteBuf buffer) {
         long serial = buffer.readVarLong();
-        AEKey what = AEKey.readOptionalKey(buffer);
-        long storedAmount = buffer.readVarLong();
-        long requestableAmount = buffer.readVarLong();
-        boolean craftable = buffer.readBoolean();
+        int flags = buffer.readByte();
+        AEKey what = null;
+        if ((flags & ENTRY_KEY_REFERENCE) != 0) {
+            what = MEInventoryKeyDictionary.clientGet(buffer.readVarInt());
+        } else if ((flags & ENTRY_KEY) != 0) {
+            what = AEKey.readKey(buffer);
+            if ((flags & ENTRY_REGISTER_KEY) != 0) {
+                MEInventoryKeyDictionary.clientRegister(what);
+            }
+        }
+        long storedAmount = (flags & ENTRY_STORED) != 0 ? buffer.readVarLong() : 0;
+        long requestableAmount = (flags & ENTRY_REQUESTABLE) != 0 ? buffer.readVarLong() : 0;
+        boolean craftable = (flags & ENTRY_CRAFTABLE) != 0;
         return new GridInventoryEntry(serial, what, storedAmount, requestableAmount, craftable);
     }
 
+    private static byte[] deflate(ByteBuf data) {
+        var deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(ByteBufUtil.getBytes(data));
+            deflater.finish();
+            var result = new ByteArrayOutputStream(data.readableBytes() / 4);
+            var buffer = new byte[8192];
+            while (!deflater.finished()) {
+                var length = deflater.deflate(buffer);
+                result.write(buffer, 0, length);
+            }
+            return result.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static FriendlyByteBuf inflate(FriendlyByteBuf data) {
+        var length = data.readVarInt();
+        if (length < 0 || length > MAX_INFLATED_BYTES) {
+            throw new IllegalArgumentException("Invalid size of compressed inventory update: " + length);
+        }
+
+        var inflater = new Inflater();
+        try {
+            inflater.setInput(ByteBufUtil.getBytes(data));
+            var result = new byte[length];
+            var read = 0;
+            while (read < length && !inflater.finished()) {
+                var n = inflater.inflate(result, read, length - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != length) {
+                throw new IllegalArgumentException("Truncated compressed inventory update");
+            }
+            return new FriendlyByteBuf(Unpooled.wrappedBuffer(result));
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupted compressed inventory update", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    @Override
+    protected String getLogDetails() {
+        return " (entries: " + entryCount + ", full keys: " + fullKeyCount + ", key references: "
+                + keyReferenceCount + ", uncompressed bytes: " + uncompressedBytes + ")";
+    }
+
     @Override
     @OnlyIn(Dist.CLIENT)
     public void clientPacketData(Player player) {
@@ -36,11 +36,13 @@
 import appeng.api.stacks.AEKey;
 import appeng.api.stacks.GenericStack;
 import appeng.api.stacks.KeyCounter;
+import appeng.core.AEConfig;
 import appeng.core.AELog;
 import appeng.crafting.inv.ChildCraftingSimulationState;
 import appeng.crafting.inv.CraftingSimulationState;
 import appeng.crafting.inv.NetworkCraftingSimulationState;
 import appeng.hooks.ticking.TickHandler;
+import appeng.me.service.CraftingService;
 
 public class CraftingCalculation {
     private final NetworkCraftingSimulationState networkInv;
@@ -53,6 +55,14 @@ public class CraftingCalculation {
     // The initially requested amount of "output", may be reduced depending on the strategy used
     private final long requestedAmount;
     private final CalculationStrategy strategy;
+    /**
+     * Parallel calculations run concurrently with the server thread instead of pausing until the server gives them
+     * time. They only see a snapshot of the patterns, and are aborted once they exceed their time limit.
+     */
+    private final boolean parallel;
+    @Nullable
+    private final ICraftingPatternLookup patternSnapshot;
+    private long deadline;
     private boolean simulate = false;
     final ICraftingSimulationRequester simRequester;
     private boolean running = false;
@@ -60,20 +70,31 @@ public class CraftingCalculation {
     private int time = 5;
     private int incTime = Integer.MAX_VALUE;
     private final List<CraftAttempt> attempts = AELog.isCraftingLogEnabled() ? new ArrayList<>() : null;
+    private final FailedRequestCache failedRequests = new FailedRequestCache();
+    /**
+     * The network inventory without the requested output. Every attempt reads from a child of this state, so that
+     * requests against the unmodified inventory share the same content version across attempts, and failures can be
+     * reused by later attempts.
+     */
+    @Nullable
+    private ChildCraftingSimulationState attemptBaseInventory;
 
     public CraftingCalculation(Level level, IGrid grid, ICraftingSimulationRequester simRequester,
-            GenericStack output, CalculationStrategy strategy) {
+            GenericStack output, CalculationStrategy strategy, boolean parallel) {
         this.level = level;
         this.output = output.what();
         this.requestedAmount = output.amount();
         this.strategy = strategy;
         this.simRequester = simRequester;
+        this.parallel = parallel;
 
         var storage = grid.getStorageService();
         var craftingService = grid.getCraftingService();
         this.networkInv = new NetworkCraftingSimulationState(storage, simRequester.getActionSource());
+        this.patternSnapshot = parallel ? ((CraftingService) craftingService).getPatternSnapshot() : null;
 
-        this.tree = new CraftingTreeNode(craftingService, this, this.output, 1, null, -1);
+        var patterns = patternSnapshot != null ? patternSnapshot : ICraftingPatternLookup.of(craftingService);
+        this.tree = new CraftingTreeNode(patterns, this, this.output, 1, null, -1);
     }
 
     void addMissing(AEKey what, long amount) {
@@ -82,8 +103,13 @@ void addMissing(AEKey what, long amount) {
 
     public ICraftingPlan run() {
         try {
-            TickHandler.instance().registerCraftingSimulation(this.level, this);
-            this.handlePausing();
+            if (this.parallel) {
+                this.deadline = System.nanoTime()
+                        + TimeUnit.SECONDS.toNanos(AEConfig.instance().getCraftingCalculationTimeLimit());
+            } else {
+                TickHandler.instance().registerCraftingSimulation(this.level, this);
+                this.handlePausing();
+            }
 
             var plan = computePlan();
             this.logCraftingJob(plan);
@@ -139,8 +165,11 @@ private CraftingPlan runCraftAttempt(boolean simulate, long amount) throws Inter
 
         final Stopwatch timer = Stopwatch.createStarted();
 
-        ChildCraftingSimulationState craftingInventory = new ChildCraftingSimulationState(networkInv);
-        craftingInventory.ignore(this.output);
+        if (this.attemptBaseInventory == null) {
+            this.attemptBaseInventory = new ChildCraftingSimulationState(networkInv);
+            this.attemptBaseInventory.ignore(this.output);
+        }
+        ChildCraftingSimulationState craftingInventory = new ChildCraftingSimulationState(attemptBaseInventory);
 
         // Do the crafting. Throws in case of failure.
         try {
@@ -172,22 +201,12 @@ void handlePausing() throws InterruptedException {
         if (this.incTime > 100) {
             this.incTime = 0;
 
-            synchronized (this.monitor) {
-                if (this.watch.elapsed(TimeUnit.MICROSECONDS) > this.time) {
-                    this.running = false;
-                    this.watch.stop();
-                    this.monitor.notify();
-                }
-
-                if (!this.running) {
-                    AELog.craftingDebug("crafting job will now sleep");
-
-                    while (!this.running) {
-                        this.monitor.wait();
-                    }
-
-                    AELog.craftingDebug("crafting job now active");
+            if (this.parallel) {
+                if (System.nanoTime() - this.deadline > 0) {
+                    throw new InterruptedException("Crafting calculation exceeded its time limit");
                 }
+            } else {
+                pauseUntilSimulated();
             }
 
             if (Thread.interrupted()) {
@@ -197,6 +216,26 @@ void handlePausing() throws InterruptedException {
         this.incTime++;
     }
 
+    private void pauseUntilSimulated() throws InterruptedException {
+        synchronized (this.monitor) {
+            if (this.watch.elapsed(TimeUnit.MICROSECONDS) > this.time) {
+                this.running = false;
+                this.watch.stop();
+                this.monitor.notify();
+            }
+
+            if (!this.running) {
+                AELog.craftingDebug("crafting job will now sleep");
+
+                while (!this.running) {
+                    this.monitor.wait();
+                }
+
+                AELog.craftingDebug("crafting job now active");
+            }
+        }
+    }
+
     private void finish() {
         synchronized (this.monitor) {
             this.running = false;
@@ -221,6 +260,23 @@ Level getLevel() {
         return this.level;
     }
 
+    FailedRequestCache getFailedRequests() {
+        return this.failedRequests;
+    }
+
+    /**
+     * @return The patterns to build the crafting tree from, or null if the requester is no longer part of a grid.
+     */
+    @Nullable
+    ICraftingPatternLookup getPatternLookup() {
+        if (this.patternSnapshot != null) {
+            return this.patternSnapshot;
+        }
+
+        var gridNode = this.simRequester.getGridNode();
+        return gridNode != null ? ICraftingPatternLookup.of(gridNode.getGrid().getCraftingService()) : null;
+    }
+
     /**
      * returns true if this needs more simulation.
      *
@@ -280,6 +336,10 @@ private void logCraftingJob(ICraftingPlan plan) {
                 message.append(" - %s in %d ms\n".formatted(
                         attempt.description, attempt.stopwatch.elapsed(TimeUnit.MILLISECONDS)));
             }
+            var lookups = this.failedRequests.getLookups();
+            var hits = this.failedRequests.getHits();
+            message.append(" - failed request cache: %d hits in %d lookups (%.1f%%)\n".formatted(
+                    hits, lookups, lookups > 0 ? 100.0 * hits / lookups : 0.0));
             message.append(" - final plan: %d (%d bytes)".formatted(plan.finalOutput().amount(), plan.bytes()));
 
             AELog.crafting(message.toString());
@@ -19,7 +19,9 @@
 package appeng.crafting;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -29,7 +31,6 @@
 
 import appeng.api.config.Actionable;
 import appeng.api.crafting.IPatternDetails;
-import appeng.api.networking.crafting.ICraftingService;
 import appeng.api.stacks.AEKey;
 import appeng.api.stacks.GenericStack;
 import appeng.api.stacks.KeyCounter;
@@ -66,8 +67,13 @@ public class CraftingTreeNode {
      */
     private ArrayList<CraftingTreeProcess> nodes = null;
     private final boolean canEmit;
+    /**
+     * The keys requested by this node and all of its parents. Null if they haven't been computed yet.
+     */
+    @Nullable
+    private Set<AEKey> pathKeys;
 
-    public CraftingTreeNode(ICraftingService cc, CraftingCalculation job, AEKey what, long amount,
+    public CraftingTreeNode(ICraftingPatternLookup cc, CraftingCalculation job, AEKey what, long amount,
             CraftingTreeProcess par, int slot) {
         this.parent = par;
         this.parentInput = slot == -1 ? null : par.details.getInputs()[slot];
@@ -79,7 +85,7 @@ public CraftingTreeNode(ICraftingService cc, CraftingCalculation job, AEKey what
         this.canEmit = cc.canEmitFor(what);
     }
 
-    private AEKey findCraftedStack(ICraftingService cc, AEKey wat) {
+    private AEKey findCraftedStack(ICraftingPatternLookup cc, AEKey wat) {
         if (cc.canEmitFor(wat)) {
             return wat; // if we can emit for something, use that.
         }
@@ -118,21 +124,31 @@ private void buildChildPatterns() {
         if (this.nodes == null) {
             this.nodes = new ArrayList<>();
 
-            var gridNode = this.job.simRequester.getGridNode();
+            var patterns = this.job.getPatternLookup();
 
-            // If the node is null, we just skip patterns and let the request (likely) fail.
-            if (gridNode != null) {
-                var craftingService = gridNode.getGrid().getCraftingService();
-
-                for (var details : craftingService.getCraftingFor(this.what)) {
+            // If the requester has no grid anymore, we just skip patterns and let the request (likely) fail.
+            if (patterns != null) {
+                for (var details : patterns.getCraftingFor(this.what)) {
                     if (this.parent == null || this.parent.notRecursive(details)) {
-                        this.nodes.add(new CraftingTreeProcess(craftingService, job, details, this));
+                        this.nodes.add(new CraftingTreeProcess(patterns, job, details, this));
                     }
                 }
             }
         }
     }
 
+    /**
+     * The patterns that {@link #notRecursive} allows for this node and all of its children only depend on these keys.
+     */
+    Set<AEKey> getPathKeys() {
+        if (this.pathKeys == null) {
+            var keys = new HashSet<>(this.parent == null ? Set.of() : this.parent.getPathKeys());
+            keys.add(this.what);
+            this.pathKeys = Set.copyOf(keys);
+        }
+        return this.pathKeys;
+    }
+
     /**
      * Return true if adding this pattern as a child would not cause recursion.
      */
@@ -170,6 +186,32 @@ void request(CraftingSimulationState inv, long requestedAmount,
             throws CraftBranchFailure, InterruptedException {
         this.job.handlePausing();
 
+        // Simulations record missing items instead of failing
+        if (this.job.isSimulation()) {
+            requestUncached(inv, requestedAmount, containerItems);
+            return;
+        }
+
+        // A request that failed before will fail again if the available items are still the same
+        var failedRequests = this.job.getFailedRequests();
+        var key = new FailedRequestCache.Key(inv.getContentVersion(), this.what, this.amount, requestedAmount,
+                this.parentInput, this.canEmit, getPathKeys());
+        var previousFailure = failedRequests.get(key);
+        if (previousFailure != null) {
+            throw previousFailure;
+        }
+
+        try {
+            requestUncached(inv, requestedAmount, containerItems);
+        } catch (CraftBranchFailure failure) {
+            failedRequests.put(key, failure);
+            throw failure;
+        }
+    }
+
+    private void requestUncached(CraftingSimulationState inv, long requestedAmount,
+            @Nullable KeyCounter containerItems)
+            throws CraftBranchFailure, InterruptedException {
         inv.addStackBytes(what, amount, requestedAmount);
 
         /*
@@ -20,10 +20,10 @@
 
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 
 import appeng.api.config.Actionable;
 import appeng.api.crafting.IPatternDetails;
-import appeng.api.networking.crafting.ICraftingService;
 import appeng.api.stacks.AEKey;
 import appeng.api.stacks.KeyCounter;
 import appeng.crafting.inv.CraftingSimulationState;
@@ -47,7 +47,7 @@ public class CraftingTreeProcess {
      */
     private boolean limitQty;
 
-    public CraftingTreeProcess(ICraftingService cc, CraftingCalculation job,
+    public CraftingTreeProcess(ICraftingPatternLookup cc, CraftingCalculation job,
             IPatternDetails details,
             CraftingTreeNode craftingTreeNode) {
         this.parent = craftingTreeNode;
@@ -65,6 +65,13 @@ public CraftingTreeProcess(ICraftingService cc, CraftingCalculation job,
         }
     }
 
+    /**
+     * @see CraftingTreeNode#getPathKeys
+     */
+    Set<AEKey> getPathKeys() {
+        return this.parent == null ? Set.of() : this.parent.getPathKeys();
+    }
+
     /**
      * @see CraftingTreeNode#notRecursive
      */
@@ -0,0 +1,74 @@
+package appeng.crafting;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.jetbrains.annotations.Nullable;
+
+import appeng.api.crafting.IPatternDetails;
+import appeng.api.stacks.AEKey;
+import appeng.crafting.inv.CraftingSimulationState;
+
+/**
+ * Remembers which requests of {@link CraftingTreeNode} failed during a {@link CraftingCalculation}.
+ * <p/>
+ * The same intermediate is often requested by several alternative patterns, or by the same pattern in different
+ * branches of the tree. If such a request failed, it will fail again as long as the available items didn't change in
+ * the meantime, and the entire sub-tree doesn't have to be explored again.
+ */
+final class FailedRequestCache {
+    /**
+     * Upper bound for the number of remembered failures, to bound the memory used by a single calculation.
+     */
+    private static final int MAX_ENTRIES = 65536;
+
+    private final Map<Key, CraftBranchFailure> failures = new HashMap<>();
+    private long lookups;
+    private long hits;
+
+    @Nullable
+    CraftBranchFailure get(Key key) {
+        lookups++;
+        var failure = failures.get(key);
+        if (failure != null) {
+            hits++;
+        }
+        return failure;
+    }
+
+    void put(Key key, CraftBranchFailure failure) {
+        if (failures.size() < MAX_ENTRIES) {
+            failures.put(key, failure);
+        }
+    }
+
+    long getLookups() {
+        return lookups;
+    }
+
+    long getHits() {
+        return hits;
+    }
+
+    /**
+     * Everything the outcome of {@link CraftingTreeNode#request} depends on.
+     *
+     * @param content         The items available to the request.
+     * @param what            What is being requested.
+     * @param amount          The amount of the template.
+     * @param requestedAmount How many times the template is requested.
+     * @param parentInput     The pattern input being requested, which determines the valid substitutes.
+     * @param canEmit         Whether the request can be fulfilled by emitting it.
+     * @param pathKeys        The keys requested by the node and all of its parents, which determine the patterns that
+     *                        can be used without recursion.
+     */
+    record Key(CraftingSimulationState.ContentVersion content,
+            AEKey what,
+            long amount,
+            long requestedAmount,
+            @Nullable IPatternDetails.IInput parentInput,
+            boolean canEmit,
+            Set<AEKey> pathKeys) {
+    }
+}
@@ -149,13 +149,67 @@ public static KeyCounter[] extractPatternInputs(
         return inputHolder;
     }
 
+    /**
+     * Extracts up to <code>maxCopies</code> more copies of inputs that were previously returned by
+     * {@link #extractPatternInputs}. Unlike extracting the inputs again, this is guaranteed to use the same substitutes,
+     * which allows pushing all copies to a provider at once.
+     *
+     * @return How many copies were extracted.
+     */
+    public static long extractAdditionalCopies(ICraftingInventory sourceInv, KeyCounter[] inputHolder,
+            long maxCopies) {
+        if (maxCopies <= 0) {
+            return 0;
+        }
+
+        // The same key might be used by multiple slots.
+        var perCopy = new KeyCounter();
+        for (var list : inputHolder) {
+            perCopy.addAll(list);
+        }
+
+        long copies = maxCopies;
+        for (var entry : perCopy) {
+            var amount = entry.getLongValue();
+            if (amount <= 0) {
+                continue;
+            }
+            var available = sourceInv.extract(entry.getKey(), amount * copies, Actionable.SIMULATE);
+            copies = Math.min(copies, available / amount);
+            if (copies == 0) {
+                return 0;
+            }
+        }
+
+        for (var entry : perCopy) {
+            var toExtract = entry.getLongValue() * copies;
+            if (toExtract <= 0) {
+                continue;
+            }
+            var extracted = sourceInv.extract(entry.getKey(), toExtract, Actionable.MODULATE);
+            if (extracted != toExtract) {
+                throw new IllegalStateException("Failed to extract additional copies. Invalid simulation!");
+            }
+        }
+
+        return copies;
+    }
+
     public static void reinjectPatternInputs(ICraftingInventory sourceInv,
             KeyCounter[] inputHolder) {
+        reinjectPatternInputs(sourceInv, inputHolder, 1);
+    }
+
+    /**
+     * Reinjects <code>copies</code> copies of the given inputs.
+     */
+    public static void reinjectPatternInputs(ICraftingInventory sourceInv,
+            KeyCounter[] inputHolder, long copies) {
         for (var list : inputHolder) {
             // List may be null if we failed to extract some of the pattern's inputs.
             if (list != null) {
                 for (var entry : list) {
-                    sourceInv.insert(entry.getKey(), entry.getLongValue(), Actionable.MODULATE);
+                    sourceInv.insert(entry.getKey(), entry.getLongValue() * copies, Actionable.MODULATE);
                 }
             }
         }
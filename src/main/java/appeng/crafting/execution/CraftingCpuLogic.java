@@ -17,7 +17,9 @@
  */
 package appeng.crafting.execution;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import java.util.function.Consumer;
@@ -36,6 +38,7 @@
 import appeng.api.networking.IGrid;
 import appeng.api.networking.crafting.ICraftingLink;
 import appeng.api.networking.crafting.ICraftingPlan;
+import appeng.api.networking.crafting.ICraftingProvider;
 import appeng.api.networking.crafting.ICraftingRequester;
 import appeng.api.networking.crafting.ICraftingSubmitResult;
 import appeng.api.networking.energy.IEnergyService;
@@ -68,6 +71,14 @@ public class CraftingCpuLogic {
      * Used crafting operations over the last 3 ticks.
      */
     private final int[] usedOps = new int[3];
+    /**
+     * Expected outputs of a single craft of the pattern that is currently being pushed, reused between pushes.
+     */
+    private final KeyCounter expectedOutputs = new KeyCounter();
+    /**
+     * Providers of the pattern that is currently being pushed that are not busy, reused between patterns.
+     */
+    private final List<ICraftingProvider> availableProviders = new ArrayList<>();
     private final Set<Consumer<AEKey>> listeners = new HashSet<>();
     /**
      * True if the CPU is currently trying to clear its inventory but is not able to.
@@ -186,37 +197,53 @@ public int executeCrafting(int maxPatterns, CraftingService craftingService, IEn
             }
 
             var details = task.getKey();
-            var expectedOutputs = new KeyCounter();
-            // Contains the inputs for the pattern.
+            expectedOutputs.reset();
+            // Contains the inputs for a single craft of the pattern.
             @Nullable
             var craftingContainer = CraftingCpuHelper.extractPatternInputs(
                     details, inventory, level, expectedOutputs);
-
-            // Try to push to each provider.
+            if (craftingContainer == null)
+                continue;
+            var patternPower = CraftingCpuHelper.calculatePatternPower(craftingContainer);
+            // How many copies of the inputs were extracted, all of them identical to craftingContainer.
+            var copies = 1 + CraftingCpuHelper.extractAdditionalCopies(inventory, craftingContainer,
+                    Math.min(task.getValue().value, maxPatterns - pushedPatterns) - 1);
+
+            // Try to push to each provider. Each provider only gets its share of the remaining copies, so that they are
+            // spread over all providers like individual pushes would be, instead of filling up the first provider.
+            availableProviders.clear();
             for (var provider : craftingService.getProviders(details)) {
-                if (craftingContainer == null)
-                    break;
-                if (provider.isBusy())
-                    continue;
-
-                var patternPower = CraftingCpuHelper.calculatePatternPower(craftingContainer);
-
-                if (energyService.extractAEPower(patternPower, Actionable.SIMULATE,
-                        PowerMultiplier.CONFIG) < patternPower - 0.01)
+                if (!provider.isBusy())
+                    availableProviders.add(provider);
+            }
+            for (int i = 0; i < availableProviders.size(); i++) {
+                var provider = availableProviders.get(i);
+                var remainingProviders = availableProviders.size() - i;
+                var share = (copies + remainingProviders - 1) / remainingProviders;
+
+                var affordable = share;
+                if (patternPower > 0) {
+                    var availablePower = energyService.extractAEPower(patternPower * share, Actionable.SIMULATE,
+                            PowerMultiplier.CONFIG);
+                    affordable = Math.min(share, (long) ((availablePower + 0.01) / patternPower));
+                }
+                if (affordable <= 0)
                     break;
 
-                if (provider.pushPattern(details, craftingContainer)) {
-                    energyService.extractAEPower(patternPower, Actionable.MODULATE, PowerMultiplier.CONFIG);
-                    pushedPatterns++;
+                var pushed = provider.pushPatterns(details, craftingContainer, (int) affordable);
+                if (pushed > 0) {
+                    energyService.extractAEPower(patternPower * pushed, Actionable.MODULATE, PowerMultiplier.CONFIG);
+                    pushedPatterns += pushed;
+                    copies -= pushed;
 
                     for (var expectedOutput : expectedOutputs) {
-                        job.waitingFor.insert(expectedOutput.getKey(), expectedOutput.getLongValue(),
+                        job.waitingFor.insert(expectedOutput.getKey(), expectedOutput.getLongValue() * pushed,
                                 Actionable.MODULATE);
                     }
 
                     cluster.markDirty();
 
-                    task.getValue().value--;
+                    task.getValue().value -= pushed;
                     if (task.getValue().value <= 0) {
                         it.remove();
                         continue taskLoop;
@@ -226,16 +253,23 @@ public int executeCrafting(int maxPatterns, CraftingService craftingService, IEn
                         break taskLoop;
                     }
 
-                    // Prepare next inputs.
-                    expectedOutputs.reset();
-                    craftingContainer = CraftingCpuHelper.extractPatternInputs(details, inventory,
-                            level, expectedOutputs);
+                    if (copies == 0) {
+                        // Prepare next inputs, possibly using other substitutes.
+                        expectedOutputs.reset();
+                        craftingContainer = CraftingCpuHelper.extractPatternInputs(details, inventory,
+                                level, expectedOutputs);
+                        if (craftingContainer == null)
+                            break;
+                        patternPower = CraftingCpuHelper.calculatePatternPower(craftingContainer);
+                        copies = 1 + CraftingCpuHelper.extractAdditionalCopies(inventory, craftingContainer,
+                                Math.min(task.getValue().value, maxPatterns - pushedPatterns) - 1);
+                    }
                 }
             }
 
             // Failed to push this pattern, reinject the inputs.
-            if (craftingContainer != null) {
-                CraftingCpuHelper.reinjectPatternInputs(inventory, craftingContainer);
+            if (craftingContainer != null && copies > 0) {
+                CraftingCpuHelper.reinjectPatternInputs(inventory, craftingContainer, copies);
             }
         }
 
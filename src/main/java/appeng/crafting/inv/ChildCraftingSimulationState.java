@@ -18,6 +18,8 @@
 
 package appeng.crafting.inv;
 
+import org.jetbrains.annotations.Nullable;
+
 import appeng.api.config.Actionable;
 import appeng.api.stacks.AEKey;
 
@@ -37,4 +39,10 @@ protected long simulateExtractParent(AEKey what, long amount) {
     protected Iterable<AEKey> findFuzzyParent(AEKey input) {
         return parent.findFuzzyTemplates(input);
     }
+
+    @Nullable
+    @Override
+    protected CraftingSimulationState getParentState() {
+        return parent instanceof CraftingSimulationState parentState ? parentState : null;
+    }
 }
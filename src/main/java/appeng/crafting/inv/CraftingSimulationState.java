@@ -21,6 +21,7 @@
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.google.common.collect.Iterables;
 
@@ -36,6 +37,16 @@
 import appeng.crafting.CraftingPlan;
 
 public abstract class CraftingSimulationState implements ICraftingSimulationState {
+    private static final AtomicLong nextStateId = new AtomicLong();
+
+    /**
+     * Unique id of this state. Together with {@link #version}, it identifies the current content of this state.
+     */
+    private final long stateId = nextStateId.incrementAndGet();
+    /**
+     * Incremented every time items are inserted into or extracted from this state.
+     */
+    private long version;
     /**
      * Partial cache of the parent's items, never modified.
      */
@@ -71,6 +82,30 @@ protected CraftingSimulationState() {
 
     protected abstract Iterable<AEKey> findFuzzyParent(AEKey input);
 
+    /**
+     * @return The state this state reads its items from, or null if it doesn't read from another crafting simulation
+     *         state.
+     */
+    @Nullable
+    protected CraftingSimulationState getParentState() {
+        return null;
+    }
+
+    /**
+     * Returns a key identifying the items currently available in this state. Two keys are equal only if the available
+     * items are equal, which allows the outcome of requests made against this state to be reused. A state that wasn't
+     * modified yet has the same content as its parent.
+     * <p/>
+     * This relies on the parent not being modified while this state is in use.
+     */
+    public ContentVersion getContentVersion() {
+        var parentState = getParentState();
+        if (version == 0 && parentState != null) {
+            return parentState.getContentVersion();
+        }
+        return new ContentVersion(stateId, version);
+    }
+
     private void cacheFuzzy(AEKey what) {
         if (unmodifiedCache.findFuzzy(what, FuzzyMode.IGNORE_ALL).isEmpty()) {
             boolean insertedAny = false;
@@ -97,6 +132,7 @@ public void insert(AEKey what, long amount, Actionable mode) {
 
         if (mode == Actionable.MODULATE) {
             modifiableCache.add(what, amount);
+            version++;
         }
     }
 
@@ -118,6 +154,7 @@ public long extract(AEKey what, long amount, Actionable mode) {
         long extracted = Math.min(cachedAmount, amount);
         if (mode == Actionable.MODULATE) {
             modifiableCache.remove(what, extracted);
+            version++;
         }
 
         updateRequiredExtract(what, unmodifiedCache.get(what) - modifiableCache.get(what));
@@ -154,6 +191,7 @@ public void ignore(AEKey stack) {
         cacheFuzzy(stack);
         unmodifiedCache.set(stack, 0);
         modifiableCache.set(stack, 0);
+        version++;
     }
 
     public void applyDiff(CraftingSimulationState parent) {
@@ -205,4 +243,7 @@ public static CraftingPlan buildCraftingPlan(CraftingSimulationState state,
                 calculation.getMissingItems(),
                 state.crafts);
     }
+
+    public record ContentVersion(long stateId, long version) {
+    }
 }
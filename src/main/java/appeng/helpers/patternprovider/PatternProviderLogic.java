@@ -292,20 +292,26 @@ private <T> void rearrangeRoundRobin(List<T> list) {
 
     @Override
     public boolean pushPattern(IPatternDetails patternDetails, KeyCounter[] inputHolder) {
-        if (!sendList.isEmpty() || !this.mainNode.isActive() || !this.patterns.contains(patternDetails)) {
-            return false;
+        return pushPatterns(patternDetails, inputHolder, 1) == 1;
+    }
+
+    /**
+     * Pushes the pattern up to <code>times</code> times. The adjacent blocks are only looked up once per batch, and the
+     * crafts are distributed over all of them in the same round-robin order as individual pushes would be.
+     */
+    @Override
+    public int pushPatterns(IPatternDetails patternDetails, KeyCounter[] inputHolder, int times) {
+        if (times <= 0 || !canPushPattern(patternDetails)) {
+            return 0;
         }
 
         var be = host.getBlockEntity();
         var level = be.getLevel();
 
-        if (getCraftingLockedReason() != LockCraftingMode.NONE) {
-            return false;
-        }
-
         record PushTarget(Direction direction, PatternProviderTarget target) {
         }
         var possibleTargets = new ArrayList<PushTarget>();
+        var pushed = 0;
 
         // Push to crafting machines first
         for (var direction : getActiveSides()) {
@@ -315,9 +321,17 @@ record PushTarget(Direction direction, PatternProviderTarget target) {
 
             var craftingMachine = ICraftingMachine.of(level, adjPos, adjBeSide, adjBe);
             if (craftingMachine != null && craftingMachine.acceptsPlans()) {
-                if (craftingMachine.pushPattern(patternDetails, inputHolder, adjBeSide)) {
+                // With a crafting lock, the provider may have to lock after every craft, so only push one at a time
+                var batch = configManager.getSetting(Settings.LOCK_CRAFTING_MODE) == LockCraftingMode.NONE
+                        ? times - pushed
+                        : 1;
+                var accepted = craftingMachine.pushPatterns(patternDetails, inputHolder, batch, adjBeSide);
+                if (accepted > 0) {
                     onPushPatternSuccess(patternDetails);
-                    return true;
+                    pushed += accepted;
+                    if (pushed == times || !canPushPattern(patternDetails)) {
+                        return pushed;
+                    }
                 }
                 continue;
             }
@@ -332,31 +346,48 @@ record PushTarget(Direction direction, PatternProviderTarget target) {
         // Rearrange for round-robin
         rearrangeRoundRobin(possibleTargets);
 
-        // Push to other kinds of blocks
-        for (var target : possibleTargets) {
-            var direction = target.direction();
-            var adapter = target.target();
+        // Push to other kinds of blocks, one craft per target and round
+        boolean pushedThisRound;
+        do {
+            pushedThisRound = false;
+            for (var target : possibleTargets) {
+                var direction = target.direction();
+                var adapter = target.target();
 
-            if (this.isBlocking() && adapter.containsPatternInput(this.patternInputs)) {
-                continue;
-            }
+                if (this.isBlocking() && adapter.containsPatternInput(this.patternInputs)) {
+                    continue;
+                }
 
-            if (this.adapterAcceptsAll(adapter, inputHolder)) {
-                patternDetails.pushInputsToExternalInventory(inputHolder, (what, amount) -> {
-                    var inserted = adapter.insert(what, amount, Actionable.MODULATE);
-                    if (inserted < amount) {
-                        this.addToSendList(what, amount - inserted);
+                if (this.adapterAcceptsAll(adapter, inputHolder)) {
+                    patternDetails.pushInputsToExternalInventory(ICraftingProvider.copyInputs(inputHolder),
+                            (what, amount) -> {
+                                var inserted = adapter.insert(what, amount, Actionable.MODULATE);
+                                if (inserted < amount) {
+                                    this.addToSendList(what, amount - inserted);
+                                }
+                            });
+                    onPushPatternSuccess(patternDetails);
+                    this.sendDirection = direction;
+                    this.sendStacksOut();
+                    ++roundRobinIndex;
+                    pushedThisRound = true;
+
+                    if (++pushed == times || !canPushPattern(patternDetails)) {
+                        return pushed;
                     }
-                });
-                onPushPatternSuccess(patternDetails);
-                this.sendDirection = direction;
-                this.sendStacksOut();
-                ++roundRobinIndex;
-                return true;
+                }
             }
+        } while (pushedThisRound);
+
+        return pushed;
+    }
+
+    private boolean canPushPattern(IPatternDetails patternDetails) {
+        if (!sendList.isEmpty() || !this.mainNode.isActive() || !this.patterns.contains(patternDetails)) {
+            return false;
         }
 
-        return false;
+        return getCraftingLockedReason() == LockCraftingMode.NONE;
     }
 
     public void resetCraftingLock() {
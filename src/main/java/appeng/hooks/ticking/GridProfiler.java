@@ -0,0 +1,222 @@
+package appeng.hooks.ticking;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.ChatFormatting;
+import net.minecraft.network.chat.Component;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+
+import appeng.api.networking.IGrid;
+import appeng.api.networking.IGridNode;
+import appeng.core.AELog;
+import appeng.me.InWorldGridNode;
+import appeng.util.Platform;
+
+/**
+ * Aggregates the time spent ticking grids over a number of server ticks, by the class of the ticked machine or grid
+ * service, by grid and by dimension, to find out which grids and which machines take up the most time of a tick.
+ * <p/>
+ * Profiling is started with the <code>/ae2 profile</code> command. While it isn't running, {@link #current()} returns
+ * null and nothing is measured.
+ */
+public final class GridProfiler {
+    private static final int REPORT_ENTRIES = 10;
+
+    @Nullable
+    private static GridProfiler current;
+
+    private final int durationTicks;
+    private final Consumer<List<Component>> reportConsumer;
+    private int ticks;
+    /**
+     * The total time spent ticking nodes, which is subtracted from the time of the service ticking them.
+     */
+    private long nodeTickNanos;
+    private int ticksOverBudget;
+    private long postponedGrids;
+
+    private final Map<Class<?>, Stats> byClass = new IdentityHashMap<>();
+    private final Map<IGrid, Stats> byGrid = new IdentityHashMap<>();
+    private final Map<ResourceKey<Level>, Stats> byLevel = new HashMap<>();
+
+    private GridProfiler(int durationTicks, Consumer<List<Component>> reportConsumer) {
+        this.durationTicks = durationTicks;
+        this.reportConsumer = reportConsumer;
+    }
+
+    /**
+     * @return The running profiler, or null if no grids are being profiled.
+     */
+    @Nullable
+    public static GridProfiler current() {
+        return current;
+    }
+
+    /**
+     * Starts profiling for the given number of ticks, after which the report is passed to the given consumer.
+     *
+     * @return False if profiling is already running.
+     */
+    public static boolean start(int durationTicks, Consumer<List<Component>> reportConsumer) {
+        Platform.assertServerThread();
+
+        if (current != null) {
+            return false;
+        }
+        current = new GridProfiler(durationTicks, reportConsumer);
+        return true;
+    }
+
+    /**
+     * Stops profiling early and passes the report of the ticks profiled so far to the consumer.
+     *
+     * @return False if profiling wasn't running.
+     */
+    public static boolean stop() {
+        Platform.assertServerThread();
+
+        var profiler = current;
+        if (profiler == null) {
+            return false;
+        }
+        current = null;
+        profiler.reportConsumer.accept(profiler.getReport());
+        return true;
+    }
+
+    /**
+     * Discards the running profiler without a report, i.e. when the server stops.
+     */
+    static void reset() {
+        current = null;
+    }
+
+    /**
+     * Called by the {@link TickHandler} at the end of every server tick.
+     */
+    static void onServerTick() {
+        var profiler = current;
+        if (profiler != null && ++profiler.ticks >= profiler.durationTicks) {
+            stop();
+        }
+    }
+
+    /**
+     * Records the time a node spent ticking through its {@link appeng.api.networking.ticking.IGridTickable}.
+     */
+    public void recordNodeTick(IGrid grid, IGridNode node, Object tickable, long nanos) {
+        nodeTickNanos += nanos;
+        byClass.computeIfAbsent(tickable.getClass(), c -> new Stats()).add(nanos);
+        byGrid.computeIfAbsent(grid, g -> new Stats()).add(nanos);
+        byLevel.computeIfAbsent(node.getLevel().dimension(), l -> new Stats()).add(nanos);
+    }
+
+    /**
+     * Runs and records one tick of a grid service. The time of nodes ticked by the service is only attributed to the
+     * nodes.
+     *
+     * @param level The level being ticked, or null for the start or end of the server tick.
+     */
+    public void profileServiceTick(IGrid grid, Object service, @Nullable Level level, Runnable tick) {
+        var nodeTickNanosBefore = nodeTickNanos;
+        var start = System.nanoTime();
+        tick.run();
+        var nanos = System.nanoTime() - start - (nodeTickNanos - nodeTickNanosBefore);
+
+        byClass.computeIfAbsent(service.getClass(), c -> new Stats()).add(nanos);
+        byGrid.computeIfAbsent(grid, g -> new Stats()).add(nanos);
+        if (level != null) {
+            byLevel.computeIfAbsent(level.dimension(), l -> new Stats()).add(nanos);
+        }
+    }
+
+    /**
+     * Records the time that was spent calculating crafting jobs in a level.
+     */
+    public void recordCraftingSimulation(Object calculation, Level level, long nanos) {
+        byClass.computeIfAbsent(calculation.getClass(), c -> new Stats()).add(nanos);
+        byLevel.computeIfAbsent(level.dimension(), l -> new Stats()).add(nanos);
+    }
+
+    /**
+     * Records that the service work of the given number of grids was postponed because the tick budget was used up.
+     */
+    void recordPostponedGrids(int grids) {
+        if (grids > 0) {
+            ticksOverBudget++;
+            postponedGrids += grids;
+        }
+    }
+
+    private List<Component> getReport() {
+        var ticks = Math.max(1, this.ticks);
+        var lines = new ArrayList<Component>();
+        lines.add(Component.literal("AE2 grid profile over " + ticks + " ticks").withStyle(ChatFormatting.BOLD));
+
+        addSection(lines, "Machines and services", byClass, ticks, Class::getSimpleName);
+        addSection(lines, "Grids", byGrid, ticks, GridProfiler::describeGrid);
+        addSection(lines, "Dimensions", byLevel, ticks, level -> level.location().toString());
+        if (ticksOverBudget > 0) {
+            lines.add(Component.literal("Grid service updates were postponed " + postponedGrids + " times in "
+                    + ticksOverBudget + " ticks over budget").withStyle(ChatFormatting.BOLD));
+        }
+
+        for (var line : lines) {
+            AELog.info(line.getString());
+        }
+        return lines;
+    }
+
+    private static <K> void addSection(List<Component> lines, String title, Map<K, Stats> stats, int ticks,
+            Function<K, String> describe) {
+        lines.add(Component.literal(title + " (" + stats.size() + "):").withStyle(ChatFormatting.BOLD));
+
+        var entries = new ArrayList<>(stats.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<K, Stats> e) -> e.getValue().totalNanos).reversed());
+        for (int i = 0; i < Math.min(REPORT_ENTRIES, entries.size()); i++) {
+            var entry = entries.get(i);
+            var s = entry.getValue();
+            lines.add(Component.literal(String.format(Locale.ROOT, "  %s: %.1f µs/t, %d calls, max %.1f µs",
+                    describe.apply(entry.getKey()), s.totalNanos / 1000.0 / ticks, s.calls, s.maxNanos / 1000.0)));
+        }
+    }
+
+    private static String describeGrid(IGrid grid) {
+        var pivot = grid.getPivot();
+        if (pivot == null) {
+            return "Removed grid";
+        }
+
+        var description = new StringBuilder("Grid with ").append(grid.size()).append(" nodes in ")
+                .append(pivot.getLevel().dimension().location());
+        if (pivot instanceof InWorldGridNode inWorldNode) {
+            var pos = inWorldNode.getLocation();
+            description.append(" at ").append(pos.getX()).append(',').append(pos.getY()).append(',')
+                    .append(pos.getZ());
+        }
+        return description.toString();
+    }
+
+    private static final class Stats {
+        private long calls;
+        private long totalNanos;
+        private long maxNanos;
+
+        private void add(long nanos) {
+            calls++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+    }
+}
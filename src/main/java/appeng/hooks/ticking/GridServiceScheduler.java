@@ -0,0 +1,61 @@
+package appeng.hooks.ticking;
+
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+
+import appeng.me.Grid;
+import appeng.me.service.IDeferrableGridService;
+
+/**
+ * Runs the work of grid services that may be postponed at the end of a server tick, see
+ * {@link IDeferrableGridService}, for as many grids as fit into a time budget. The grids take turns, so that the grids
+ * whose work was postponed are the first to run in the next tick. At least one grid runs per tick, even if it alone
+ * exceeds the budget.
+ */
+class GridServiceScheduler {
+    /**
+     * The grids in the order of their next turn.
+     */
+    private final ArrayDeque<Grid> rotation = new ArrayDeque<>();
+    private final Set<Grid> inRotation = new ReferenceOpenHashSet<>();
+
+    /**
+     * @param tickGrid Runs the postponable work of a grid.
+     * @return The number of grids whose work was postponed to the next tick.
+     */
+    int tick(Iterable<Grid> grids, long budgetNanos, Consumer<Grid> tickGrid) {
+        for (var grid : grids) {
+            if (inRotation.add(grid)) {
+                rotation.addLast(grid);
+            }
+        }
+
+        var deadline = System.nanoTime() + budgetNanos;
+        var ran = 0;
+        // Each grid runs at most once per tick
+        for (int remaining = rotation.size(); remaining > 0; remaining--) {
+            if (ran > 0 && System.nanoTime() >= deadline) {
+                return remaining;
+            }
+
+            var grid = rotation.pollFirst();
+            if (grid.isEmpty()) {
+                // Grids lose their nodes when they are removed
+                inRotation.remove(grid);
+                continue;
+            }
+            rotation.addLast(grid);
+            tickGrid.accept(grid);
+            ran++;
+        }
+        return 0;
+    }
+
+    void clear() {
+        rotation.clear();
+        inRotation.clear();
+    }
+}
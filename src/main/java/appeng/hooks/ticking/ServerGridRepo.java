@@ -18,11 +18,18 @@
 
 package appeng.hooks.ticking;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import it.unimi.dsi.fastutil.objects.ObjectSet;
 
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelAccessor;
+
 import appeng.me.Grid;
 
 /**
@@ -32,6 +39,15 @@ class ServerGridRepo {
     private final ObjectSet<Grid> networks = new ObjectOpenHashSet<>();
     private final ObjectSet<Grid> toAdd = new ObjectOpenHashSet<>();
     private final ObjectSet<Grid> toRemove = new ObjectOpenHashSet<>();
+    /**
+     * The grids that have to be ticked with each level, see {@link Grid#hasLevelTickWork}.
+     */
+    private final Map<LevelAccessor, ObjectSet<Grid>> levelTickedGrids = new HashMap<>();
+    /**
+     * The grids that have to be ticked with every level, see {@link Grid#isTickedWithEveryLevel()}.
+     */
+    private final ObjectSet<Grid> alwaysLevelTickedGrids = new ObjectOpenHashSet<>();
+    private final List<Grid> levelTickBuffer = new ArrayList<>();
 
     /**
      * Resets all internal data
@@ -40,6 +56,8 @@ void clear() {
         this.networks.clear();
         this.toAdd.clear();
         this.toRemove.clear();
+        this.levelTickedGrids.clear();
+        this.alwaysLevelTickedGrids.clear();
     }
 
     /**
@@ -76,13 +94,71 @@ synchronized void removeNetwork(Grid g) {
      * First all removals are handled, then the ones queued to be added.
      */
     synchronized void updateNetworks() {
-        this.networks.removeAll(this.toRemove);
-        this.toRemove.clear();
+        if (!this.toRemove.isEmpty()) {
+            this.networks.removeAll(this.toRemove);
+            this.alwaysLevelTickedGrids.removeAll(this.toRemove);
+            for (var grids : this.levelTickedGrids.values()) {
+                grids.removeAll(this.toRemove);
+            }
+            this.toRemove.clear();
+        }
 
-        this.networks.addAll(this.toAdd);
+        for (var grid : this.toAdd) {
+            if (this.networks.add(grid)) {
+                if (grid.isTickedWithEveryLevel()) {
+                    this.alwaysLevelTickedGrids.add(grid);
+                }
+                for (var level : grid.getTickedLevels()) {
+                    addLevelTickedGrid(level, grid);
+                }
+            }
+        }
         this.toAdd.clear();
     }
 
+    /**
+     * Ticks the grid with the given level from now on, until it has no more work to do in it.
+     */
+    void addLevelTickedGrid(LevelAccessor level, Grid grid) {
+        if (grid.isTickedWithEveryLevel()) {
+            return;
+        }
+        this.levelTickedGrids.computeIfAbsent(level, l -> new ObjectOpenHashSet<>()).add(grid);
+    }
+
+    /**
+     * @return The grids that have to be ticked with the given level. The list is reused by the next call.
+     */
+    List<Grid> getLevelTickedGrids(LevelAccessor level) {
+        levelTickBuffer.clear();
+        levelTickBuffer.addAll(this.alwaysLevelTickedGrids);
+        var grids = this.levelTickedGrids.get(level);
+        if (grids != null) {
+            for (var grid : grids) {
+                // Grids are only ticked once updateNetworks added them
+                if (this.networks.contains(grid)) {
+                    levelTickBuffer.add(grid);
+                }
+            }
+        }
+        return levelTickBuffer;
+    }
+
+    /**
+     * Stops ticking grids with the given level that have no more work to do in it, or that were woken without being
+     * added. Grids that are still queued to be added are woken again by {@link #updateNetworks()}.
+     */
+    void removeIdleGrids(Level level) {
+        var grids = this.levelTickedGrids.get(level);
+        if (grids != null) {
+            grids.removeIf(grid -> !this.networks.contains(grid) || !grid.hasLevelTickWork(level));
+        }
+    }
+
+    void removeLevel(LevelAccessor level) {
+        this.levelTickedGrids.remove(level);
+    }
+
     /**
      * Get all registered {@link Grid}s
      */
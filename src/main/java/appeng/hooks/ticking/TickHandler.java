@@ -27,6 +27,7 @@
 import java.util.Map;
 import java.util.Objects;
 import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
@@ -35,6 +36,9 @@
 import com.google.common.collect.LinkedListMultimap;
 import com.google.common.collect.Multimap;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.objects.ReferenceLinkedOpenHashSet;
+
 import net.minecraft.CrashReport;
 import net.minecraft.ReportedException;
 import net.minecraft.network.chat.Component;
@@ -57,7 +61,9 @@
 import appeng.core.AELog;
 import appeng.crafting.CraftingCalculation;
 import appeng.me.Grid;
+import appeng.me.GridAssembly;
 import appeng.me.GridNode;
+import appeng.me.cells.CellContentCache;
 import appeng.util.ILevelRunnable;
 import appeng.util.Platform;
 
@@ -74,6 +80,8 @@ public class TickHandler {
     private final Map<LevelAccessor, Queue<ILevelRunnable>> callQueue = new HashMap<>();
     private final ServerBlockEntityRepo blockEntities = new ServerBlockEntityRepo();
     private final ServerGridRepo grids = new ServerGridRepo();
+    private final GridServiceScheduler gridServiceScheduler = new GridServiceScheduler();
+    private final Map<LevelAccessor, Set<AEBaseBlockEntity>> blockEntityUpdates = new HashMap<>();
 
     /**
      * A stop watch to limit processing the additional queues to honor
@@ -148,6 +156,18 @@ public <T extends BlockEntity> void addInit(T blockEntity, Consumer<? super T> i
         }
     }
 
+    /**
+     * Queue a {@link AEBaseBlockEntity} to send its update to clients at the end of the current level or server tick.
+     *
+     * @see AEBaseBlockEntity#markForUpdate()
+     */
+    public void addBlockEntityUpdate(AEBaseBlockEntity blockEntity) {
+        Platform.assertServerThread();
+
+        this.blockEntityUpdates.computeIfAbsent(blockEntity.getLevel(), level -> new ReferenceLinkedOpenHashSet<>())
+                .add(blockEntity);
+    }
+
     /**
      * Add a new grid for ticking on the next update.
      * <p>
@@ -174,6 +194,27 @@ public void removeNetwork(Grid grid) {
         this.grids.removeNetwork(grid);
     }
 
+    /**
+     * Ticks the grid with the given level from now on, until it has no more work to do in that level.
+     * <p>
+     * Must only be called on the server.
+     *
+     * @see Grid#hasLevelTickWork
+     */
+    public void wakeGrid(Grid grid, Level level) {
+        this.grids.addLevelTickedGrid(level, grid);
+    }
+
+    /**
+     * @return The grids to tick with the given level, which are all grids unless idle grids are skipped.
+     */
+    private Iterable<Grid> getLevelTickedGrids(ServerLevel level) {
+        if (AEConfig.instance().isSkipIdleGridsEnabled()) {
+            return this.grids.getLevelTickedGrids(level);
+        }
+        return this.grids.getNetworks();
+    }
+
     public Iterable<Grid> getGridList() {
         Platform.assertServerThread();
         return this.grids.getNetworks();
@@ -183,6 +224,10 @@ public void shutdown() {
         Platform.assertServerThread();
         this.blockEntities.clear();
         this.grids.clear();
+        this.gridServiceScheduler.clear();
+        this.blockEntityUpdates.clear();
+        CellContentCache.instance().reset();
+        GridProfiler.reset();
     }
 
     /**
@@ -225,7 +270,9 @@ public void onUnloadLevel(final LevelEvent.Unload ev) {
         }
 
         this.blockEntities.removeLevel(level);
+        this.grids.removeLevel(level);
         this.callQueue.remove(level);
+        this.blockEntityUpdates.remove(level);
     }
 
     /**
@@ -260,7 +307,7 @@ private void onServerLevelTickStart(ServerLevel level) {
 
         // tick networks
         this.grids.updateNetworks();
-        for (var g : this.grids.getNetworks()) {
+        for (var g : this.getLevelTickedGrids(level)) {
             try {
                 g.onLevelStartTick(level);
             } catch (Throwable t) {
@@ -277,7 +324,7 @@ private void onServerLevelTickEnd(ServerLevel level) {
         this.readyBlockEntities(level);
 
         // tick networks
-        for (var g : this.grids.getNetworks()) {
+        for (var g : this.getLevelTickedGrids(level)) {
             try {
                 g.onLevelEndTick(level);
             } catch (Throwable t) {
@@ -287,6 +334,11 @@ private void onServerLevelTickEnd(ServerLevel level) {
                 throw new ReportedException(crashReport);
             }
         }
+        if (AEConfig.instance().isSkipIdleGridsEnabled()) {
+            this.grids.removeIdleGrids(level);
+        }
+
+        this.sendBlockEntityUpdates(level);
     }
 
     /**
@@ -320,19 +372,36 @@ private void onServerTickStart() {
 
     private void onServerTickEnd() {
         // tick networks
-        for (var g : this.grids.getNetworks()) {
-            try {
-                g.onServerEndTick();
-            } catch (Throwable t) {
-                CrashReport crashReport = CrashReport.forThrowable(t, "Ticking grid on end of server tick");
-                g.fillCrashReportCategory(crashReport.addCategory("Grid being ticked"));
-                throw new ReportedException(crashReport);
+        var serviceTickBudget = AEConfig.instance().getGridServiceTickBudgetMicros();
+        if (serviceTickBudget > 0) {
+            // Only the postponable work of grids is limited by the budget
+            for (var g : this.grids.getNetworks()) {
+                tickGridOnServerEnd(g, () -> g.onServerEndTick(false));
+            }
+            var postponed = this.gridServiceScheduler.tick(this.grids.getNetworks(),
+                    TimeUnit.MICROSECONDS.toNanos(serviceTickBudget),
+                    g -> tickGridOnServerEnd(g, g::onDeferrableServerEndTick));
+            var profiler = GridProfiler.current();
+            if (profiler != null) {
+                profiler.recordPostponedGrids(postponed);
+            }
+        } else {
+            for (var g : this.grids.getNetworks()) {
+                tickGridOnServerEnd(g, g::onServerEndTick);
             }
         }
 
         // cross level queue.
         processQueueElementsRemaining += this.processQueue(this.serverQueue, null);
 
+        CellContentCache.instance().onServerTick();
+        GridProfiler.onServerTick();
+
+        // Updates queued after the level ticks, i.e. by grids ticking at the end of the server tick
+        for (var level : new ArrayList<>(this.blockEntityUpdates.keySet())) {
+            this.sendBlockEntityUpdates(level);
+        }
+
         if (this.stopWatch.elapsed(TimeUnit.MILLISECONDS) > TIME_LIMIT_PROCESS_QUEUE_MILLISECONDS) {
             AELog.warn("Exceeded time limit of %d ms after processing %d queued tick callbacks (%d remain)",
                     TIME_LIMIT_PROCESS_QUEUE_MILLISECONDS, processQueueElementsProcessed,
@@ -353,7 +422,7 @@ public void registerCraftingSimulation(Level level, CraftingCalculation crafting
     /**
      * Simulates the current crafting requests before they user can submit them to be processed.
      */
-    private void simulateCraftingJobs(LevelAccessor level) {
+    private void simulateCraftingJobs(ServerLevel level) {
         synchronized (this.craftingJobs) {
             final Collection<CraftingCalculation> jobSet = this.craftingJobs.get(level);
 
@@ -366,7 +435,13 @@ private void simulateCraftingJobs(LevelAccessor level) {
 
                 while (i.hasNext()) {
                     final CraftingCalculation cj = i.next();
-                    if (!cj.simulateFor(simTime)) {
+                    var profiler = GridProfiler.current();
+                    var start = profiler != null ? System.nanoTime() : 0;
+                    var running = cj.simulateFor(simTime);
+                    if (profiler != null) {
+                        profiler.recordCraftingSimulation(cj, level, System.nanoTime() - start);
+                    }
+                    if (!running) {
                         i.remove();
                     }
                 }
@@ -379,10 +454,26 @@ private void simulateCraftingJobs(LevelAccessor level) {
      */
     private void readyBlockEntities(ServerLevel level) {
         var levelQueue = blockEntities.getBlockEntities(level);
-        if (levelQueue == null) {
+        if (levelQueue == null || levelQueue.isEmpty()) {
             return;
         }
 
+        // Grids connected by the block entities readied in this tick are only merged once all of them are ready
+        var batchAssembly = AEConfig.instance().isGridAssemblyBatched();
+        if (batchAssembly) {
+            GridAssembly.begin();
+        }
+        try {
+            readyBlockEntities(level, levelQueue);
+        } finally {
+            if (batchAssembly) {
+                GridAssembly.end();
+            }
+        }
+    }
+
+    private void readyBlockEntities(ServerLevel level,
+            Long2ObjectMap<List<ServerBlockEntityRepo.FirstTickInfo<?>>> levelQueue) {
         // Make a copy because this set may be modified when new chunks are loaded by an onReady call below
         long[] workSet = levelQueue.keySet().toLongArray();
 
@@ -421,6 +512,29 @@ private void readyBlockEntities(ServerLevel level) {
         }
     }
 
+    private static void tickGridOnServerEnd(Grid grid, Runnable tick) {
+        try {
+            tick.run();
+        } catch (Throwable t) {
+            CrashReport crashReport = CrashReport.forThrowable(t, "Ticking grid on end of server tick");
+            grid.fillCrashReportCategory(crashReport.addCategory("Grid being ticked"));
+            throw new ReportedException(crashReport);
+        }
+    }
+
+    /**
+     * Sends the updates queued by block entities in the given level. Updates that are queued while sending, i.e. by
+     * neighbor updates, are sent with the next batch.
+     */
+    private void sendBlockEntityUpdates(LevelAccessor level) {
+        var queue = this.blockEntityUpdates.remove(level);
+        if (queue != null) {
+            for (var blockEntity : queue) {
+                blockEntity.sendQueuedUpdate();
+            }
+        }
+    }
+
     /**
      * Process the {@link ILevelRunnable} queue in this {@link Level}
      * <p>
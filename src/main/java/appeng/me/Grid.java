@@ -44,16 +44,43 @@
 import appeng.api.networking.IGridServiceProvider;
 import appeng.api.networking.events.GridEvent;
 import appeng.core.AELog;
+import appeng.hooks.ticking.GridProfiler;
 import appeng.hooks.ticking.TickHandler;
+import appeng.me.service.IDeferrableGridService;
+import appeng.me.service.TickManagerService;
 
 public class Grid implements IGrid {
     /**
      * We use this to copy the list of grid nodes we'll notify. Avoids a potential ConcurrentModificationException.
      */
     private static final List<IGridNode> ITERATION_BUFFER = new ArrayList<>();
+    /**
+     * Whether a service has work to do in {@link IGridServiceProvider#onLevelStartTick} or
+     * {@link IGridServiceProvider#onLevelEndTick}, regardless of where the nodes of its grid are. The tick manager is
+     * left out since it knows the levels it has to tick nodes in.
+     */
+    private static final ClassValue<Boolean> TICKED_WITH_LEVELS = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            if (type == TickManagerService.class) {
+                return false;
+            }
+            try {
+                return type.getMethod("onLevelStartTick", Level.class).getDeclaringClass() != IGridServiceProvider.class
+                        || type.getMethod("onLevelEndTick", Level.class)
+                                .getDeclaringClass() != IGridServiceProvider.class;
+            } catch (NoSuchMethodException e) {
+                return true;
+            }
+        }
+    };
     private static int nextSerial = 0;
 
     private final SetMultimap<Class<?>, IGridNode> machines = MultimapBuilder.hashKeys().hashSetValues().build();
+    /**
+     * Whether any service of this grid is {@link #TICKED_WITH_LEVELS ticked with levels}.
+     */
+    private final boolean tickedWithEveryLevel;
     private final Map<Class<?>, IGridServiceProvider> services;
     private GridNode pivot;
     private int priority; // how import is this network?
@@ -78,6 +105,8 @@ public static Grid create(GridNode center) {
     private Grid(GridNode center) {
         this.pivot = Objects.requireNonNull(center);
         this.services = GridServicesInternal.createServices(this);
+        this.tickedWithEveryLevel = this.services.values().stream()
+                .anyMatch(service -> TICKED_WITH_LEVELS.get(service.getClass()));
     }
 
     int getPriority() {
@@ -201,33 +230,109 @@ void setPivot(GridNode pivot) {
     }
 
     public void onServerStartTick() {
+        var profiler = GridProfiler.current();
         for (var gc : this.services.values()) {
             if (this.pivot != null) {
-                gc.onServerStartTick();
+                if (profiler != null) {
+                    profiler.profileServiceTick(this, gc, null, () -> gc.onServerStartTick());
+                } else {
+                    gc.onServerStartTick();
+                }
             }
         }
     }
 
+    /**
+     * @return True if the services of this grid have to be ticked with every level, and not only with the levels
+     *         returned by {@link #getTickedLevels()}.
+     */
+    public boolean isTickedWithEveryLevel() {
+        return this.tickedWithEveryLevel;
+    }
+
+    /**
+     * @return The levels in which nodes of this grid are waiting to be ticked.
+     */
+    public Set<Level> getTickedLevels() {
+        return ((TickManagerService) getTickManager()).getTickedLevels();
+    }
+
+    /**
+     * @return True if this grid has work to do in the level ticks of the given level.
+     */
+    public boolean hasLevelTickWork(Level level) {
+        return this.tickedWithEveryLevel || ((TickManagerService) getTickManager()).hasQueuedTicks(level);
+    }
+
     public void onLevelStartTick(Level level) {
+        var profiler = GridProfiler.current();
         for (var gc : this.services.values()) {
             if (this.pivot != null) {
-                gc.onLevelStartTick(level);
+                if (profiler != null) {
+                    profiler.profileServiceTick(this, gc, level, () -> gc.onLevelStartTick(level));
+                } else {
+                    gc.onLevelStartTick(level);
+                }
             }
         }
     }
 
     public void onLevelEndTick(Level level) {
+        var profiler = GridProfiler.current();
         for (var gc : this.services.values()) {
             if (this.pivot != null) {
-                gc.onLevelEndTick(level);
+                if (profiler != null) {
+                    profiler.profileServiceTick(this, gc, level, () -> gc.onLevelEndTick(level));
+                } else {
+                    gc.onLevelEndTick(level);
+                }
             }
         }
     }
 
     public void onServerEndTick() {
+        onServerEndTick(true);
+    }
+
+    /**
+     * @param includeDeferrable Whether to also run the work that services may postpone to a later tick. If false, that
+     *                          work has to be run separately with {@link #onDeferrableServerEndTick()}.
+     * @see IDeferrableGridService
+     */
+    public void onServerEndTick(boolean includeDeferrable) {
+        var profiler = GridProfiler.current();
         for (var gc : this.services.values()) {
             if (this.pivot != null) {
-                gc.onServerEndTick();
+                Runnable tick = gc::onServerEndTick;
+                if (includeDeferrable && gc instanceof IDeferrableGridService deferrableService) {
+                    tick = () -> {
+                        deferrableService.onServerEndTick();
+                        deferrableService.onDeferrableServerEndTick();
+                    };
+                }
+                if (profiler != null) {
+                    profiler.profileServiceTick(this, gc, null, tick);
+                } else {
+                    tick.run();
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the work at the end of a server tick that services may postpone to a later tick.
+     *
+     * @see IDeferrableGridService
+     */
+    public void onDeferrableServerEndTick() {
+        var profiler = GridProfiler.current();
+        for (var gc : this.services.values()) {
+            if (this.pivot != null && gc instanceof IDeferrableGridService deferrableService) {
+                if (profiler != null) {
+                    profiler.profileServiceTick(this, gc, null, deferrableService::onDeferrableServerEndTick);
+                } else {
+                    deferrableService.onDeferrableServerEndTick();
+                }
             }
         }
     }
@@ -0,0 +1,115 @@
+package appeng.me;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import it.unimi.dsi.fastutil.objects.Reference2ReferenceMap;
+import it.unimi.dsi.fastutil.objects.Reference2ReferenceOpenHashMap;
+
+import appeng.core.AELog;
+
+/**
+ * Defers merging the grids of nodes that become connected while many nodes are readied at once, i.e. when the chunks
+ * of a large base are loaded. Otherwise, every connection between two separately assembled parts of a grid moves all
+ * nodes of one part to the grid of the other, and each move removes the node from the services of its old grid and adds
+ * it to those of the new one. Storage cells are remounted each time, for example.
+ * <p/>
+ * While assembling, nodes that are readied next to an existing grid still join it right away, but connections between
+ * two grids are only recorded. Once assembly ends, all grids that became connected are merged into the best one of
+ * them, moving each node at most once.
+ */
+public final class GridAssembly {
+    private static int depth;
+    private static final List<GridNode> pendingMerges = new ArrayList<>();
+
+    private GridAssembly() {
+    }
+
+    /**
+     * Starts deferring grid merges until the matching call to {@link #end()}.
+     */
+    public static void begin() {
+        depth++;
+    }
+
+    /**
+     * Merges all grids that became connected since {@link #begin()}.
+     */
+    public static void end() {
+        if (depth <= 0) {
+            throw new IllegalStateException("Grid assembly was not started");
+        }
+        if (--depth == 0 && !pendingMerges.isEmpty()) {
+            try {
+                mergePendingGrids();
+            } finally {
+                pendingMerges.clear();
+            }
+        }
+    }
+
+    static boolean isAssembling() {
+        return depth > 0;
+    }
+
+    /**
+     * Records that the grids of the given nodes have to be merged.
+     */
+    static void addPendingMerge(GridNode a, GridNode b) {
+        pendingMerges.add(a);
+        pendingMerges.add(b);
+    }
+
+    private static void mergePendingGrids() {
+        // Union-find of all grids that have become connected
+        var parents = new Reference2ReferenceOpenHashMap<Grid, Grid>();
+        for (int i = 0; i < pendingMerges.size(); i += 2) {
+            var gridA = pendingMerges.get(i).getMyGrid();
+            var gridB = pendingMerges.get(i + 1).getMyGrid();
+            // Nodes that were destroyed in the meantime have no grid anymore
+            if (gridA != null && gridB != null) {
+                var rootA = find(parents, gridA);
+                var rootB = find(parents, gridB);
+                if (rootA != rootB) {
+                    parents.put(rootB, rootA);
+                }
+            }
+        }
+
+        // Choose the best grid of each set of connected grids
+        var bestGrids = new Reference2ReferenceOpenHashMap<Grid, Grid>();
+        for (var grid : parents.keySet()) {
+            bestGrids.merge(find(parents, grid), grid,
+                    (best, candidate) -> GridConnection.isGridABetterThanGridB(best, candidate) ? best : candidate);
+        }
+
+        int merged = 0;
+        for (var grid : parents.keySet()) {
+            var bestGrid = bestGrids.get(find(parents, grid));
+            // Grids whose nodes were all moved by an earlier propagation are empty and have no pivot anymore
+            if (grid != bestGrid && grid.getPivot() instanceof GridNode pivot) {
+                pivot.beginVisit(new GridPropagator(bestGrid));
+                merged++;
+            }
+        }
+
+        AELog.grid("Merged %d grids into %d after assembly", merged, bestGrids.size());
+    }
+
+    private static Grid find(Reference2ReferenceMap<Grid, Grid> parents, Grid grid) {
+        var root = grid;
+        Grid parent;
+        while ((parent = parents.get(root)) != null && parent != root) {
+            root = parent;
+        }
+        if (parent == null) {
+            parents.put(root, root);
+        }
+        // Compress the path to the root
+        while (grid != root) {
+            var next = parents.put(grid, root);
+            grid = next;
+        }
+        return root;
+    }
+}
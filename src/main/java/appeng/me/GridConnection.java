@@ -33,6 +33,7 @@
 import appeng.api.networking.IGridNodeListener;
 import appeng.api.networking.pathing.ChannelMode;
 import appeng.me.pathfinding.IPathItem;
+import appeng.me.service.PathingService;
 
 public class GridConnection implements IGridConnection, IPathItem {
 
@@ -214,9 +215,9 @@ public static GridConnection create(IGridNode aNode, IGridNode bNode,
 
         mergeGrids(a, b);
 
-        // a connection was destroyed RE-PATH!!
-        var p = connection.sideA.getInternalGrid().getPathingService();
-        p.repath();
+        // a connection was created RE-PATH!! (unless it only connects newly added nodes)
+        var p = (PathingService) connection.sideA.getInternalGrid().getPathingService();
+        p.connectionAdded(connection);
 
         connection.sideA.addConnection(connection);
         connection.sideB.addConnection(connection);
@@ -248,7 +249,10 @@ private static void mergeGrids(GridNode a, GridNode b) {
             assertNodeIsStandalone(b);
             b.setGrid(gridA);
         } else if (gridA != gridB) {
-            if (isGridABetterThanGridB(gridA, gridB)) {
+            if (GridAssembly.isAssembling()) {
+                // Merged once all nodes readied at the same time are connected
+                GridAssembly.addPendingMerge(a, b);
+            } else if (isGridABetterThanGridB(gridA, gridB)) {
                 // Both A and B have grids, but A's grid is "better" -> propagate it to B and all its connected nodes
                 var gp = new GridPropagator(a.getInternalGrid());
                 b.beginVisit(gp);
@@ -260,7 +264,7 @@ private static void mergeGrids(GridNode a, GridNode b) {
         }
     }
 
-    private static boolean isGridABetterThanGridB(Grid gridA, Grid gridB) {
+    static boolean isGridABetterThanGridB(Grid gridA, Grid gridB) {
         if (gridA.getPriority() != gridB.getPriority()) {
             return gridA.getPriority() > gridB.getPriority();
         }
@@ -61,6 +61,7 @@
 import appeng.api.util.AEColor;
 import appeng.core.AELog;
 import appeng.me.pathfinding.IPathItem;
+import appeng.me.service.PathingService;
 
 public class GridNode implements IGridNode, IPathItem {
     private final ServerLevel level;
@@ -170,14 +171,25 @@ void validateGrid() {
             return;
         }
 
-        var gsd = new GridSplitDetector(this.getInternalGrid().getPivot());
-        this.beginVisit(gsd);
-        if (!gsd.isPivotFound()) {
-            var gp = new GridPropagator(Grid.create(this));
-            this.beginVisit(gp);
+        // Only the smaller of the two components moves to a new grid, which may be the one with the pivot
+        var pivot = (GridNode) this.getInternalGrid().getPivot();
+        var splitComponent = GridSplitDetector.findSplitComponent(this, pivot);
+        if (splitComponent != null) {
+            var grid = Grid.create(splitComponent.get(0));
+            for (var node : splitComponent) {
+                node.setGrid(grid);
+            }
         }
     }
 
+    Object getVisitorIterationNumber() {
+        return this.visitorIterationNumber;
+    }
+
+    void setVisitorIterationNumber(Object visitorIterationNumber) {
+        this.visitorIterationNumber = visitorIterationNumber;
+    }
+
     public Grid getInternalGrid() {
         if (this.myGrid == null) {
             this.myGrid = Grid.create(this);
@@ -307,6 +319,10 @@ public void destroy() {
         // no longer available.
         this.ready = false;
 
+        // Nodes at the edge of the channel tree can release their channels without rebooting the grid
+        var channelsReleased = myGrid != null && connections.size() == 1
+                && ((PathingService) myGrid.getPathingService()).releaseLeafNode(this, connections.get(0));
+
         boolean movedPivot = false;
 
         // First pass: Remove the connection on the other side
@@ -344,7 +360,9 @@ public void destroy() {
             otherSide.validateGrid();
 
             // Cause a repath later. This is not done immediately.
-            otherSide.getInternalGrid().getPathingService().repath();
+            if (!channelsReleased) {
+                otherSide.getInternalGrid().getPathingService().repath();
+            }
         }
 
         connections.clear();
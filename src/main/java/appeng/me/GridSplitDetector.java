@@ -18,32 +18,89 @@
 
 package appeng.me;
 
-import appeng.api.networking.IGridNode;
-import appeng.api.networking.IGridVisitor;
+import java.util.ArrayList;
+import java.util.List;
 
-class GridSplitDetector implements IGridVisitor {
+import org.jetbrains.annotations.Nullable;
 
-    private final IGridNode pivot;
-    private boolean pivotFound;
-
-    public GridSplitDetector(IGridNode pivot) {
-        this.pivot = pivot;
+/**
+ * Detects whether removing a connection split a grid into two components, by searching from a node next to the removed
+ * connection and from the pivot of its grid at the same time. The search ends as soon as both searches meet, or as soon
+ * as one of them runs out of nodes, in which case it found a component the other node isn't part of.
+ * <p/>
+ * Since the search that visited fewer nodes is always continued first, this visits at most about twice as many nodes as
+ * the smaller component has, instead of the entire grid when nothing was split off.
+ */
+final class GridSplitDetector {
+    private GridSplitDetector() {
     }
 
-    @Override
-    public boolean visitNode(IGridNode n) {
-        if (n == this.pivot) {
-            this.setPivotFound(true);
+    /**
+     * @return The nodes of the smaller component, starting with the given node or the pivot, if they are no longer
+     *         connected. Null if they are still connected.
+     */
+    @Nullable
+    static List<GridNode> findSplitComponent(GridNode node, GridNode pivot) {
+        if (node == pivot) {
+            return null;
         }
 
-        return !this.isPivotFound();
-    }
+        var nodeSide = new Search(node);
+        var pivotSide = new Search(pivot);
 
-    public boolean isPivotFound() {
-        return this.pivotFound;
+        while (true) {
+            if (nodeSide.isExhausted()) {
+                return nodeSide.visited;
+            } else if (pivotSide.isExhausted()) {
+                return pivotSide.visited;
+            }
+
+            var found = nodeSide.visited.size() <= pivotSide.visited.size()
+                    ? nodeSide.visitNext(pivotSide)
+                    : pivotSide.visitNext(nodeSide);
+            if (found) {
+                return null;
+            }
+        }
     }
 
-    private void setPivotFound(boolean pivotFound) {
-        this.pivotFound = pivotFound;
+    /**
+     * A breadth-first search, which marks the nodes it visited using {@link GridNode#visitorIterationNumber} just like
+     * {@link GridNode#beginVisit}. The visited nodes double as the queue of nodes whose connections are still to be
+     * followed.
+     */
+    private static final class Search {
+        private final Object tracker = new Object();
+        private final List<GridNode> visited = new ArrayList<>();
+        private int next;
+
+        private Search(GridNode start) {
+            start.setVisitorIterationNumber(tracker);
+            visited.add(start);
+        }
+
+        private boolean isExhausted() {
+            return next >= visited.size();
+        }
+
+        /**
+         * Follows the connections of the next node in the queue.
+         *
+         * @return True if it is connected to a node already visited by the other search.
+         */
+        private boolean visitNext(Search other) {
+            var node = visited.get(next++);
+            for (var connection : node.connections) {
+                var otherSide = (GridNode) connection.getOtherSide(node);
+                var otherTracker = otherSide.getVisitorIterationNumber();
+                if (otherTracker == other.tracker) {
+                    return true;
+                } else if (otherTracker != tracker) {
+                    otherSide.setVisitorIterationNumber(tracker);
+                    visited.add(otherSide);
+                }
+            }
+            return false;
+        }
     }
 }
@@ -18,8 +18,13 @@
 
 package appeng.me.cells;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 
+import org.jetbrains.annotations.Nullable;
+
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
 import net.minecraft.nbt.Tag;
@@ -27,8 +32,11 @@
 import net.minecraft.world.item.ItemStack;
 
 import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import it.unimi.dsi.fastutil.objects.Object2LongMap;
 import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 
 import appeng.api.config.Actionable;
 import appeng.api.config.FuzzyMode;
@@ -70,6 +78,20 @@ public class BasicCellInventory implements StorageCell {
     private final boolean hasVoidUpgrade;
     private boolean isPersisted = true;
 
+    /**
+     * The keys as they were last written to (or read from) the item stack. Each stored key has a slot in this list and
+     * in {@link #persistedAmounts}, which allows persisting only the keys that changed since, rather than serializing
+     * every key again. Null if the next persist has to rewrite everything.
+     */
+    private ListTag persistedKeys;
+    private final List<AEKey> slotKeys = new ArrayList<>();
+    private final Object2IntMap<AEKey> slots = new Object2IntOpenHashMap<>();
+    private long[] persistedAmounts = new long[0];
+    private final ObjectOpenHashSet<AEKey> changedKeys = new ObjectOpenHashSet<>();
+    // Set while the decoded content is tracked by the CellContentCache
+    @Nullable
+    private Object cacheHandle;
+
     private BasicCellInventory(IBasicCellItem cellType, ItemStack o, ISaveProvider container) {
         this.i = o;
         this.cellType = cellType;
@@ -86,6 +108,7 @@ private BasicCellInventory(IBasicCellItem cellType, ItemStack o, ISaveProvider c
         this.storedItems = (short) getTag().getLongArray(STACK_AMOUNTS).length;
         this.storedItemCount = getTag().getLong(ITEM_COUNT_TAG);
         this.storedAmounts = null;
+        this.slots.defaultReturnValue(-1);
         this.keyType = cellType.getKeyType();
 
         // Updates the partition list and mode based on installed upgrades and the configured filter.
@@ -180,53 +203,129 @@ protected Object2LongMap<AEKey> getCellItems() {
         if (this.storedAmounts == null) {
             this.storedAmounts = new Object2LongOpenHashMap<>();
             this.loadCellItems();
+            // Cells without a save provider are only short-lived views of an item
+            if (this.container != null) {
+                this.cacheHandle = CellContentCache.instance().onLoaded(this, this.storedItems);
+            }
+        } else if (this.cacheHandle != null
+                && !CellContentCache.instance().onAccess(this.cacheHandle, this.storedItems)) {
+            this.cacheHandle = null;
         }
 
         return this.storedAmounts;
     }
 
+    /**
+     * Drops the decoded content of this cell, which will be decoded from the item again when it is next needed.
+     *
+     * @return False if the content can't be dropped because it has unsaved changes.
+     */
+    boolean unloadCellItems() {
+        if (!this.isPersisted) {
+            return false;
+        }
+
+        this.storedAmounts = null;
+        this.persistedKeys = null;
+        this.slotKeys.clear();
+        this.slots.clear();
+        this.persistedAmounts = new long[0];
+        this.cacheHandle = null;
+        return true;
+    }
+
     @Override
     public void persist() {
         if (this.isPersisted) {
             return;
         }
 
-        long itemCount = 0;
-
-        // add new pretty stuff...
-        var amounts = new LongArrayList(storedAmounts.size());
-        var keys = new ListTag();
-
-        for (var entry : this.storedAmounts.object2LongEntrySet()) {
-            long amount = entry.getLongValue();
-
-            if (amount > 0) {
-                itemCount += amount;
-                keys.add(entry.getKey().toTagGeneric());
-                amounts.add(amount);
-            }
+        // The tag may have been replaced since we last wrote to it
+        var currentKeys = getTag().get(STACK_KEYS);
+        if (this.persistedKeys != null && currentKeys == (slotKeys.isEmpty() ? null : this.persistedKeys)) {
+            persistChangedKeys();
+        } else {
+            persistAllKeys();
         }
+        this.changedKeys.clear();
 
-        if (keys.isEmpty()) {
+        var slotCount = this.slotKeys.size();
+        if (slotCount == 0) {
             getTag().remove(STACK_KEYS);
             getTag().remove(STACK_AMOUNTS);
         } else {
-            getTag().put(STACK_KEYS, keys);
-            getTag().putLongArray(STACK_AMOUNTS, amounts.toArray(new long[0]));
+            getTag().put(STACK_KEYS, this.persistedKeys);
+            getTag().putLongArray(STACK_AMOUNTS, Arrays.copyOf(this.persistedAmounts, slotCount));
         }
 
-        this.storedItems = (short) this.storedAmounts.size();
-
-        this.storedItemCount = itemCount;
-        if (itemCount == 0) {
+        if (this.storedItemCount == 0) {
             getTag().remove(ITEM_COUNT_TAG);
         } else {
-            getTag().putLong(ITEM_COUNT_TAG, itemCount);
+            getTag().putLong(ITEM_COUNT_TAG, this.storedItemCount);
         }
 
         this.isPersisted = true;
     }
 
+    private void persistAllKeys() {
+        this.persistedKeys = new ListTag();
+        this.slotKeys.clear();
+        this.slots.clear();
+        var amounts = new LongArrayList(storedAmounts.size());
+
+        for (var entry : this.storedAmounts.object2LongEntrySet()) {
+            long amount = entry.getLongValue();
+
+            if (amount > 0) {
+                this.slots.put(entry.getKey(), this.slotKeys.size());
+                this.slotKeys.add(entry.getKey());
+                this.persistedKeys.add(entry.getKey().toTagGeneric());
+                amounts.add(amount);
+            }
+        }
+
+        this.persistedAmounts = amounts.toLongArray();
+    }
+
+    /**
+     * Only serializes keys that were added since the last persist, and moves the last slot into the slots of removed
+     * keys.
+     */
+    private void persistChangedKeys() {
+        for (var what : this.changedKeys) {
+            var amount = this.storedAmounts.getLong(what);
+            var slot = this.slots.getInt(what);
+
+            if (slot >= 0 && amount > 0) {
+                this.persistedAmounts[slot] = amount;
+            } else if (slot >= 0) {
+                var lastSlot = this.slotKeys.size() - 1;
+                if (slot != lastSlot) {
+                    var movedKey = this.slotKeys.get(lastSlot);
+                    this.slotKeys.set(slot, movedKey);
+                    this.slots.put(movedKey, slot);
+                    this.persistedKeys.set(slot, this.persistedKeys.get(lastSlot));
+                    this.persistedAmounts[slot] = this.persistedAmounts[lastSlot];
+                }
+                this.slotKeys.remove(lastSlot);
+                this.persistedKeys.remove(lastSlot);
+                this.slots.removeInt(what);
+            } else if (amount > 0) {
+                var newSlot = this.slotKeys.size();
+                if (newSlot == this.persistedAmounts.length) {
+                    this.persistedAmounts = Arrays.copyOf(this.persistedAmounts, Math.max(4, newSlot * 2));
+                }
+                this.persistedAmounts[newSlot] = amount;
+                this.slots.put(what, newSlot);
+                this.slotKeys.add(what);
+                this.persistedKeys.add(what.toTagGeneric());
+            }
+        }
+    }
+
+    /**
+     * Recalculates the totals from scratch and rewrites the entire cell on the next persist.
+     */
     protected void saveChanges() {
         // recalculate values
         this.storedItems = (short) this.storedAmounts.size();
@@ -235,6 +334,27 @@ protected void saveChanges() {
             this.storedItemCount += storedAmount;
         }
 
+        this.persistedKeys = null;
+        notifyChanged();
+    }
+
+    /**
+     * Changes the stored amount of a single key, updating the totals incrementally.
+     */
+    private void setStoredAmount(AEKey what, long currentAmount, long newAmount) {
+        if (newAmount > 0) {
+            this.storedAmounts.put(what, newAmount);
+        } else {
+            this.storedAmounts.removeLong(what);
+        }
+        this.storedItems = (short) this.storedAmounts.size();
+        this.storedItemCount += newAmount - currentAmount;
+        this.changedKeys.add(what);
+
+        notifyChanged();
+    }
+
+    private void notifyChanged() {
         this.isPersisted = false;
         if (this.container != null) {
             this.container.saveChanges();
@@ -252,6 +372,7 @@ private void loadCellItems() {
         if (amounts.length != tags.size()) {
             AELog.warn("Loading storage cell with mismatched amounts/tags: %d != %d",
                     amounts.length, tags.size());
+            corruptedTag = true;
         }
 
         for (int i = 0; i < amounts.length; i++) {
@@ -261,12 +382,27 @@ private void loadCellItems() {
             if (amount <= 0 || key == null) {
                 corruptedTag = true;
             } else {
-                storedAmounts.put(key, amount);
+                if (storedAmounts.put(key, amount) != storedAmounts.defaultReturnValue()) {
+                    // Duplicate keys can't be mapped to a single slot
+                    corruptedTag = true;
+                }
+                slots.put(key, slotKeys.size());
+                slotKeys.add(key);
             }
         }
 
         if (corruptedTag) {
             this.saveChanges();
+        } else {
+            // Reuse the loaded tags, so that only keys added later have to be serialized
+            this.persistedKeys = tags;
+            this.persistedAmounts = amounts.clone();
+            // The persisted count is only a cached value, now that the amounts are known it can be corrected
+            this.storedItems = (short) this.storedAmounts.size();
+            this.storedItemCount = 0;
+            for (var amount : amounts) {
+                this.storedItemCount += amount;
+            }
         }
     }
 
@@ -420,8 +556,7 @@ private long innerInsert(AEKey what, long amount, Actionable mode) {
         }
 
         if (mode == Actionable.MODULATE) {
-            getCellItems().put(what, currentAmount + amount);
-            this.saveChanges();
+            setStoredAmount(what, currentAmount, currentAmount + amount);
         }
 
         return amount;
@@ -433,15 +568,13 @@ public long extract(AEKey what, long amount, Actionable mode, IActionSource sour
         if (currentAmount > 0) {
             if (amount >= currentAmount) {
                 if (mode == Actionable.MODULATE) {
-                    getCellItems().remove(what, currentAmount);
-                    this.saveChanges();
+                    setStoredAmount(what, currentAmount, 0);
                 }
 
                 return currentAmount;
             } else {
                 if (mode == Actionable.MODULATE) {
-                    getCellItems().put(what, currentAmount - amount);
-                    this.saveChanges();
+                    setStoredAmount(what, currentAmount, currentAmount - amount);
                 }
 
                 return amount;
@@ -0,0 +1,190 @@
+package appeng.me.cells;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import org.jetbrains.annotations.Nullable;
+
+import appeng.core.AEConfig;
+
+/**
+ * Keeps track of the {@link BasicCellInventory basic cells} on the server whose content is currently decoded, and
+ * drops the decoded content of cells that weren't used in a while. Their content remains in the serialized form on the
+ * cell item and is decoded again the next time the cell is used.
+ * <p/>
+ * Cells are weighted by the number of types they store. Only cells that were fully persisted can be dropped, all other
+ * cells are kept until they were saved.
+ */
+public final class CellContentCache {
+    private static final CellContentCache INSTANCE = new CellContentCache();
+
+    /**
+     * All tracked cells, least recently used first.
+     */
+    private final LinkedHashMap<Entry, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    @Nullable
+    private Thread serverThread;
+    private long currentTick;
+    private long totalWeight;
+    private long maxWeight;
+    private int idleTicks;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    private CellContentCache() {
+    }
+
+    public static CellContentCache instance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Called once per server tick to drop the content of cells that have been idle for too long.
+     */
+    public void onServerTick() {
+        this.serverThread = Thread.currentThread();
+        this.currentTick++;
+        this.maxWeight = AEConfig.instance().getDecodedCellTypeLimit();
+        this.idleTicks = AEConfig.instance().getDecodedCellIdleTicks();
+
+        if (!isEnabled()) {
+            if (!entries.isEmpty()) {
+                entries.clear();
+                totalWeight = 0;
+            }
+            return;
+        }
+
+        if (idleTicks > 0) {
+            evict(Long.MAX_VALUE, currentTick - idleTicks, null);
+        }
+    }
+
+    /**
+     * Forgets all tracked cells, i.e. when the server stops.
+     */
+    public void reset() {
+        entries.clear();
+        totalWeight = 0;
+        serverThread = null;
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    private boolean isEnabled() {
+        return maxWeight > 0 || idleTicks > 0;
+    }
+
+    /**
+     * @return The cache entry for a cell that just decoded its content, or null if the cell isn't tracked.
+     */
+    @Nullable
+    Object onLoaded(BasicCellInventory cell, int weight) {
+        if (Thread.currentThread() != serverThread || !isEnabled()) {
+            return null;
+        }
+
+        misses++;
+        var entry = new Entry(cell, Math.max(1, weight), currentTick);
+        entries.put(entry, entry);
+        totalWeight += entry.weight;
+
+        if (maxWeight > 0 && totalWeight > maxWeight) {
+            evict(maxWeight, Long.MIN_VALUE, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Called when a tracked cell accesses its decoded content.
+     *
+     * @return False if the cell is no longer tracked.
+     */
+    boolean onAccess(Object handle, int weight) {
+        if (Thread.currentThread() != serverThread) {
+            return true;
+        }
+
+        var entry = (Entry) handle;
+        if (entries.get(entry) == null) {
+            return false;
+        }
+
+        hits++;
+        entry.lastAccess = currentTick;
+        weight = Math.max(1, weight);
+        totalWeight += weight - entry.weight;
+        entry.weight = weight;
+        return true;
+    }
+
+    /**
+     * Drops the content of the least recently used cells until the total weight is below the given limit, and the
+     * content of all cells that weren't used since the given tick.
+     *
+     * @param keep The cell that is currently being loaded, which is the most recently used one.
+     */
+    private void evict(long targetWeight, long idleSince, @Nullable Entry keep) {
+        List<Entry> deferred = null;
+
+        var it = entries.values().iterator();
+        while (it.hasNext()) {
+            var entry = it.next();
+            if (entry == keep) {
+                break;
+            }
+
+            var cell = entry.cell.get();
+            if (cell != null) {
+                if (totalWeight <= targetWeight && entry.lastAccess > idleSince) {
+                    break;
+                }
+                if (!cell.unloadCellItems()) {
+                    if (deferred == null) {
+                        deferred = new ArrayList<>();
+                    }
+                    deferred.add(entry);
+                    continue;
+                }
+                evictions++;
+            }
+
+            it.remove();
+            totalWeight -= entry.weight;
+        }
+
+        // Cells with unsaved changes are moved to the end of the queue, so they don't block other cells from being
+        // dropped
+        if (deferred != null) {
+            for (var entry : deferred) {
+                entry.lastAccess = currentTick;
+                entries.get(entry);
+            }
+        }
+    }
+
+    public Stats getStats() {
+        return new Stats(entries.size(), totalWeight, hits, misses, evictions);
+    }
+
+    public record Stats(int cells, long types, long hits, long misses, long evictions) {
+    }
+
+    private static final class Entry {
+        // Cells that are removed from their drive are not unregistered, so they must not be kept alive by the cache
+        private final WeakReference<BasicCellInventory> cell;
+        private int weight;
+        private long lastAccess;
+
+        private Entry(BasicCellInventory cell, int weight, long lastAccess) {
+            this.cell = new WeakReference<>(cell);
+            this.weight = weight;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
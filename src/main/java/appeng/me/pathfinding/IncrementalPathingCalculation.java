@@ -0,0 +1,110 @@
+package appeng.me.pathfinding;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import appeng.api.networking.GridFlags;
+import appeng.me.GridConnection;
+import appeng.me.GridNode;
+
+/**
+ * Updates the channels assigned by a completed {@link PathingCalculation} when nodes are attached to or detached from
+ * the edge of the channel tree. Only the path from the changed nodes to the controller is visited, which allows the
+ * rest of the grid to stay online.
+ * <p/>
+ * The caller is responsible for only passing changes that don't alter the route of any other path item.
+ */
+public class IncrementalPathingCalculation {
+
+    /**
+     * Path items whose channel count was changed, and that have to be finalized.
+     */
+    private final Set<IPathItem> changedPathItems = new HashSet<>();
+    /**
+     * Tracks the total number of used channels.
+     */
+    private int channelsInUse;
+    /**
+     * Tracks the total number of channels for each path item is using.
+     */
+    private int channelsByBlocks;
+
+    public IncrementalPathingCalculation(int channelsInUse, int channelsByBlocks) {
+        this.channelsInUse = channelsInUse;
+        this.channelsByBlocks = channelsByBlocks;
+    }
+
+    /**
+     * Attaches a node to the channel tree through the given connection. The other side of the connection must already
+     * be part of the tree.
+     *
+     * @return false if the node requires a channel, but none could be allocated
+     */
+    public boolean attach(GridNode node, GridConnection connection) {
+        connection.setControllerRoute((IPathItem) connection.getOtherSide(node));
+        node.setControllerRoute(connection);
+        changedPathItems.add(connection);
+        changedPathItems.add(node);
+
+        if (!node.hasFlag(GridFlags.REQUIRE_CHANNEL)) {
+            return true;
+        }
+
+        if (!PathingCalculation.canUseChannel(node)) {
+            return false;
+        }
+
+        IPathItem pi = node;
+        while (pi != null) {
+            channelsByBlocks++;
+            pi.incrementChannelCount(1);
+            changedPathItems.add(pi);
+            pi = pi.getControllerRoute();
+        }
+
+        channelsInUse++;
+        return true;
+    }
+
+    /**
+     * Releases the channels used by a node that is about to be removed from the grid. No other path item may route
+     * its channels through this node.
+     */
+    public void detach(GridNode node) {
+        var usedChannels = node.getUsedChannels();
+        if (usedChannels <= 0) {
+            return;
+        }
+
+        IPathItem pi = node;
+        while (pi != null) {
+            channelsByBlocks -= usedChannels;
+            pi.incrementChannelCount(-usedChannels);
+            pi = pi.getControllerRoute();
+            if (pi != null) {
+                changedPathItems.add(pi);
+            }
+        }
+
+        // Since nothing routes through the node, all of its channels are its own
+        channelsInUse -= usedChannels;
+    }
+
+    /**
+     * Notifies all path items whose channel count changed.
+     */
+    public void finalizeChannels() {
+        for (var pathItem : changedPathItems) {
+            pathItem.finalizeChannels();
+        }
+        changedPathItems.clear();
+    }
+
+    public int getChannelsInUse() {
+        return channelsInUse;
+    }
+
+    public int getChannelsByBlocks() {
+        return channelsByBlocks;
+    }
+}
@@ -157,9 +157,28 @@ private void processQueue(List<IPathItem> oldOpen, int queueIndex) {
      * @return true if allocation was successful
      */
     private boolean tryUseChannel(IPathItem start) {
+        if (!canUseChannel(start)) {
+            return false;
+        }
+
+        // Allocate the channel along the path.
+        IPathItem pi = start;
+        while (pi != null) {
+            channelsByBlocks++;
+            pi.incrementChannelCount(1);
+            pi = pi.getControllerRoute();
+        }
+
+        channelsInUse++;
+        return true;
+    }
+
+    /**
+     * Checks that a channel can be allocated along the path from {@code start} to the controller.
+     */
+    static boolean canUseChannel(IPathItem start) {
         boolean isCompressed = start.hasFlag(GridFlags.COMPRESSED_CHANNEL);
 
-        // Check that the allocation is possible.
         IPathItem pi = start;
         while (pi != null) {
             if (!pi.canSupportMoreChannels()) {
@@ -172,16 +191,6 @@ private boolean tryUseChannel(IPathItem start) {
 
             pi = pi.getControllerRoute();
         }
-
-        // Allocate the channel along the path.
-        pi = start;
-        while (pi != null) {
-            channelsByBlocks++;
-            pi.incrementChannelCount(1);
-            pi = pi.getControllerRoute();
-        }
-
-        channelsInUse++;
         return true;
     }
 
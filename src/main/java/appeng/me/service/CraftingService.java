@@ -35,6 +35,7 @@
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import org.apache.commons.lang3.mutable.MutableObject;
 import org.jetbrains.annotations.Nullable;
@@ -47,7 +48,6 @@
 import appeng.api.networking.GridHelper;
 import appeng.api.networking.IGrid;
 import appeng.api.networking.IGridNode;
-import appeng.api.networking.IGridServiceProvider;
 import appeng.api.networking.crafting.CalculationStrategy;
 import appeng.api.networking.crafting.ICraftingCPU;
 import appeng.api.networking.crafting.ICraftingLink;
@@ -67,6 +67,7 @@
 import appeng.api.stacks.GenericStack;
 import appeng.api.storage.AEKeyFilter;
 import appeng.blockentity.crafting.CraftingBlockEntity;
+import appeng.core.AEConfig;
 import appeng.crafting.CraftingCalculation;
 import appeng.crafting.CraftingLink;
 import appeng.crafting.CraftingLinkNexus;
@@ -74,10 +75,11 @@
 import appeng.me.cluster.implementations.CraftingCPUCluster;
 import appeng.me.helpers.InterestManager;
 import appeng.me.helpers.StackWatcher;
+import appeng.me.service.helpers.CraftingPatternSnapshot;
 import appeng.me.service.helpers.CraftingServiceStorage;
 import appeng.me.service.helpers.NetworkCraftingProviders;
 
-public class CraftingService implements ICraftingService, IGridServiceProvider {
+public class CraftingService implements ICraftingService, IDeferrableGridService {
 
     /**
      * Sorts Crafting CPUs by Co-Processors in descending order ("fast first"), and storage in ascending order (to
@@ -96,6 +98,12 @@ public class CraftingService implements ICraftingService, IGridServiceProvider {
             .thenComparingLong(CraftingCPUCluster::getAvailableStorage);
 
     private static final ExecutorService CRAFTING_POOL;
+    /**
+     * Fixed size pool for calculations that run concurrently with the server thread. Only created when it is first
+     * used.
+     */
+    @Nullable
+    private static ExecutorService parallelCraftingPool;
 
     static {
         final ThreadFactory factory = ar -> {
@@ -141,13 +149,20 @@ public void onServerEndTick() {
 
         this.craftingLinks.values().removeIf(nexus -> nexus.isDead(this.grid, this));
 
+        // CPUs are limited to a number of operations per tick, so they can't catch up on skipped ticks
+        for (CraftingCPUCluster cpu : this.craftingCPUClusters) {
+            cpu.craftingLogic.tickCraftingLogic(energyGrid, this);
+        }
+    }
+
+    @Override
+    public void onDeferrableServerEndTick() {
         var previouslyCrafting = new HashSet<>(currentlyCrafting);
         var previouslyCraftable = new HashSet<>(currentlyCraftable);
         this.currentlyCrafting.clear();
         this.currentlyCraftable.clear();
 
         for (CraftingCPUCluster cpu : this.craftingCPUClusters) {
-            cpu.craftingLogic.tickCraftingLogic(energyGrid, this);
             cpu.craftingLogic.getAllWaitingFor(this.currentlyCrafting);
         }
         currentlyCraftable.addAll(getCraftables(k -> true));
@@ -299,12 +314,36 @@ public Future<ICraftingPlan> beginCraftingCalculation(Level level, ICraftingSimu
             throw new IllegalArgumentException("Invalid Crafting Job Request");
         }
 
+        var parallel = AEConfig.instance().isParallelCraftingCalculationEnabled();
         final CraftingCalculation job = new CraftingCalculation(level, grid, simRequester,
-                new GenericStack(what, amount), strategy);
+                new GenericStack(what, amount), strategy, parallel);
 
+        if (parallel) {
+            return getParallelCraftingPool().submit(job::run);
+        }
         return CRAFTING_POOL.submit(job::run);
     }
 
+    private static synchronized ExecutorService getParallelCraftingPool() {
+        if (parallelCraftingPool == null) {
+            var factory = new ThreadFactoryBuilder()
+                    .setNameFormat("AE Parallel Crafting Calculator %d")
+                    .setDaemon(true)
+                    .build();
+            parallelCraftingPool = Executors.newFixedThreadPool(
+                    AEConfig.instance().getCraftingCalculationThreads(), factory);
+        }
+        return parallelCraftingPool;
+    }
+
+    /**
+     * @return An immutable copy of the patterns in this network, for calculations running concurrently with the server
+     *         thread.
+     */
+    public CraftingPatternSnapshot getPatternSnapshot() {
+        return this.craftingProviders.getSnapshot();
+    }
+
     @Override
     public ICraftingSubmitResult submitJob(ICraftingPlan job, ICraftingRequester requestingMachine, ICraftingCPU target,
             boolean prioritizePower, IActionSource src) {
@@ -312,6 +351,14 @@ public ICraftingSubmitResult submitJob(ICraftingPlan job, ICraftingRequester req
             return CraftingSubmitResult.INCOMPLETE_PLAN;
         }
 
+        // The plan may have been calculated while patterns were removed from the network, and a CPU could never
+        // push those patterns.
+        for (var pattern : job.patternTimes().keySet()) {
+            if (!this.craftingProviders.getMediums(pattern).iterator().hasNext()) {
+                return CraftingSubmitResult.INCOMPLETE_PLAN;
+            }
+        }
+
         CraftingCPUCluster cpuCluster;
 
         if (target instanceof CraftingCPUCluster) {
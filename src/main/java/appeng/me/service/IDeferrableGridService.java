@@ -0,0 +1,16 @@
+package appeng.me.service;
+
+import appeng.api.networking.IGridServiceProvider;
+
+/**
+ * Grid services with work at the end of a server tick that may be postponed to a later tick if the grids of the
+ * server already used up their time budget for the tick. Work that has to happen every tick, such as ticking crafting
+ * CPUs, still belongs in {@link #onServerEndTick()}.
+ */
+public interface IDeferrableGridService extends IGridServiceProvider {
+    /**
+     * Called after {@link #onServerEndTick()} at the end of a server tick, or in a later tick if it was postponed. Has
+     * to be able to catch up on the changes of several ticks at once.
+     */
+    void onDeferrableServerEndTick();
+}
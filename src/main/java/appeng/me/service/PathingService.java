@@ -19,6 +19,7 @@
 package appeng.me.service;
 
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 import org.jetbrains.annotations.Nullable;
@@ -46,9 +47,12 @@
 import appeng.core.stats.AdvancementTriggers;
 import appeng.core.stats.IAdvancementTrigger;
 import appeng.me.Grid;
+import appeng.me.GridConnection;
+import appeng.me.GridNode;
 import appeng.me.pathfinding.AdHocChannelUpdater;
 import appeng.me.pathfinding.ChannelFinalizer;
 import appeng.me.pathfinding.ControllerValidator;
+import appeng.me.pathfinding.IncrementalPathingCalculation;
 import appeng.me.pathfinding.PathingCalculation;
 
 public class PathingService implements IPathingService, IGridServiceProvider {
@@ -63,6 +67,25 @@ public class PathingService implements IPathingService, IGridServiceProvider {
     }
 
     private PathingCalculation ongoingCalculation = null;
+    /**
+     * Channel changes that are applied to the online grid at the end of the tick, instead of rebooting it.
+     */
+    @Nullable
+    private IncrementalPathingCalculation incrementalCalculation;
+    /**
+     * Nodes that were added to the online grid, and that will be attached to the existing channel tree at the end of
+     * the tick.
+     */
+    private final Set<GridNode> pendingNodes = new LinkedHashSet<>();
+    /**
+     * Nodes that are being destroyed, and whose channels have already been released.
+     */
+    private final Set<IGridNode> releasedNodes = new HashSet<>();
+    /**
+     * True if every node requiring a channel has one. Only then can a node release its channel without a reboot, since
+     * the channel would otherwise have to be given to a node that is currently missing one.
+     */
+    private boolean allChannelsAssigned;
     private final Set<ControllerBlockEntity> controllers = new HashSet<>();
     private final Set<IGridNode> nodesNeedingChannels = new HashSet<>();
     private final Set<IGridNode> cannotCarryCompressedNodes = new HashSet<>();
@@ -96,6 +119,10 @@ public void onServerEndTick() {
             this.updateControllerState();
         }
 
+        if (!this.pendingNodes.isEmpty() || this.incrementalCalculation != null) {
+            this.applyIncrementalChanges();
+        }
+
         if (this.reboot) {
             this.reboot = false;
 
@@ -156,6 +183,8 @@ public void onServerEndTick() {
                 // Notify of channel changes AFTER we set booting to false, this ensures that any activeness check will
                 // properly return true.
                 this.grid.getPivot().beginVisit(new ChannelFinalizer());
+                this.allChannelsAssigned = this.nodesNeedingChannels.stream()
+                        .allMatch(IGridNode::meetsChannelRequirements);
                 this.postBootingStatusChange();
             } else if (bootingTicks == 2000) {
                 AELog.warn("Booting has still not completed after %d ticks for %s", bootingTicks, grid);
@@ -163,6 +192,123 @@ public void onServerEndTick() {
         }
     }
 
+    /**
+     * Attaches the nodes that were added since the last tick to the channel tree, and finalizes the channels released
+     * by removed nodes. Falls back to rebooting the grid if the added nodes would change the route of existing nodes.
+     */
+    private void applyIncrementalChanges() {
+        if (this.grid.isEmpty() || !this.canUpdateIncrementally()) {
+            this.repath();
+            return;
+        }
+
+        var calculation = this.getIncrementalCalculation();
+
+        // Nodes can be attached once exactly one of their connections leads to the channel tree. The other connections
+        // have to lead to nodes that are attached later through this node. Nodes that connect to the channel tree in
+        // more than one place would close a loop, which can shorten the route of existing nodes.
+        boolean attachedAny = true;
+        while (attachedAny && !this.pendingNodes.isEmpty()) {
+            attachedAny = false;
+            for (var it = this.pendingNodes.iterator(); it.hasNext();) {
+                var node = it.next();
+                GridConnection route = null;
+                for (var connection : node.getConnections()) {
+                    if (!this.pendingNodes.contains(connection.getOtherSide(node))) {
+                        if (route != null) {
+                            this.repath();
+                            return;
+                        }
+                        route = (GridConnection) connection;
+                    }
+                }
+
+                if (route != null) {
+                    if (!calculation.attach(node, route)) {
+                        this.allChannelsAssigned = false;
+                    }
+                    it.remove();
+                    attachedAny = true;
+                }
+            }
+        }
+
+        if (!this.pendingNodes.isEmpty()) {
+            // Some nodes are not connected to the channel tree at all
+            this.repath();
+            return;
+        }
+
+        calculation.finalizeChannels();
+        this.incrementalCalculation = null;
+        this.channelsInUse = calculation.getChannelsInUse();
+        this.channelsByBlocks = calculation.getChannelsByBlocks();
+        this.setChannelPowerUsage(this.channelsByBlocks / 128.0);
+        this.achievementPost();
+    }
+
+    private IncrementalPathingCalculation getIncrementalCalculation() {
+        if (this.incrementalCalculation == null) {
+            this.incrementalCalculation = new IncrementalPathingCalculation(this.channelsInUse, this.channelsByBlocks);
+        }
+        return this.incrementalCalculation;
+    }
+
+    /**
+     * Channels can only be updated incrementally on top of a completed pathing calculation of a grid with a controller.
+     */
+    private boolean canUpdateIncrementally() {
+        return AEConfig.instance().isIncrementalPathingEnabled()
+                && !this.reboot
+                && !this.booting
+                && !this.recalculateControllerNextTick
+                && this.controllerState == ControllerState.CONTROLLER_ONLINE;
+    }
+
+    /**
+     * Nodes that affect the controller state or how channels are counted along their route always cause a reboot.
+     */
+    private static boolean canAttachIncrementally(IGridNode node) {
+        return !(node.getOwner() instanceof ControllerBlockEntity)
+                && !node.hasFlag(GridFlags.CANNOT_CARRY)
+                && !node.hasFlag(GridFlags.MULTIBLOCK)
+                && !node.hasFlag(GridFlags.COMPRESSED_CHANNEL)
+                && !node.hasFlag(GridFlags.CANNOT_CARRY_COMPRESSED);
+    }
+
+    /**
+     * Called when a new connection has been created in this grid. Connections to nodes that were just added are
+     * checked when those nodes are attached to the channel tree, any other connection requires a reboot.
+     */
+    public void connectionAdded(GridConnection connection) {
+        if (!this.pendingNodes.contains(connection.a()) && !this.pendingNodes.contains(connection.b())) {
+            this.repath();
+        }
+    }
+
+    /**
+     * Called before a node with a single connection is destroyed. If no other node routes its channels through the
+     * node, the channels it used are released without rebooting the grid.
+     *
+     * @return True if the grid doesn't have to be rebooted for the removal of the node.
+     */
+    public boolean releaseLeafNode(GridNode node, GridConnection connection) {
+        if (this.pendingNodes.contains(node)) {
+            // The node never got attached to the channel tree
+            this.releasedNodes.add(node);
+            return true;
+        }
+
+        if (!this.canUpdateIncrementally() || !this.allChannelsAssigned || !canAttachIncrementally(node)
+                || node.getControllerRoute() != connection || connection.getControllerRoute() == node) {
+            return false;
+        }
+
+        this.getIncrementalCalculation().detach(node);
+        this.releasedNodes.add(node);
+        return true;
+    }
+
     private void postBootingStatusChange() {
         this.grid.postEvent(new GridBootingStatusChange(this.booting));
         this.grid.notifyAllNodes(IGridNodeListener.State.GRID_BOOT);
@@ -183,11 +329,15 @@ public void removeNode(IGridNode gridNode) {
             this.cannotCarryCompressedNodes.remove(gridNode);
         }
 
-        this.repath();
+        this.pendingNodes.remove(gridNode);
+        if (!this.releasedNodes.remove(gridNode)) {
+            this.repath();
+        }
     }
 
     @Override
     public void addNode(IGridNode gridNode, @Nullable CompoundTag savedData) {
+        var previousChannelMode = this.channelMode;
         if (savedData != null) {
             restoreChannelMode(savedData);
         }
@@ -205,7 +355,15 @@ public void addNode(IGridNode gridNode, @Nullable CompoundTag savedData) {
             this.cannotCarryCompressedNodes.add(gridNode);
         }
 
-        this.repath();
+        if (this.channelMode == previousChannelMode && this.canUpdateIncrementally()
+                && canAttachIncrementally(gridNode)) {
+            var node = (GridNode) gridNode;
+            // Drop any channels the node still has from its previous grid until it is attached
+            node.setControllerRoute(null);
+            this.pendingNodes.add(node);
+        } else {
+            this.repath();
+        }
     }
 
     private void restoreChannelMode(CompoundTag savedData) {
@@ -347,6 +505,9 @@ public void repath() {
 
         // clean up...
         this.ongoingCalculation = null;
+        this.incrementalCalculation = null;
+        this.pendingNodes.clear();
+        this.releasedNodes.clear();
 
         this.channelsByBlocks = 0;
         this.reboot = true;
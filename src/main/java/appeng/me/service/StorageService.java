@@ -37,7 +37,6 @@
 import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
 
 import appeng.api.networking.IGridNode;
-import appeng.api.networking.IGridServiceProvider;
 import appeng.api.networking.storage.IStorageService;
 import appeng.api.networking.storage.IStorageWatcherNode;
 import appeng.api.stacks.AEKey;
@@ -45,11 +44,16 @@
 import appeng.api.storage.IStorageMounts;
 import appeng.api.storage.IStorageProvider;
 import appeng.api.storage.MEStorage;
+import appeng.core.AEConfig;
 import appeng.me.helpers.InterestManager;
 import appeng.me.helpers.StackWatcher;
+import appeng.me.service.helpers.InventoryChangeLog;
 import appeng.me.storage.NetworkStorage;
+import appeng.me.storage.StorageChangeJournal;
 
-public class StorageService implements IStorageService, IGridServiceProvider {
+public class StorageService implements IStorageService, IDeferrableGridService {
+
+    private static final int MAX_ZEROED_CACHE_ENTRIES = 1024;
 
     /**
      * Tracks the storage service's state for each grid node that provides storage to the network.
@@ -74,6 +78,23 @@ public class StorageService implements IStorageService, IGridServiceProvider {
      */
     private final Object2LongMap<AEKey> cachedAvailableAmounts = new Object2LongOpenHashMap<>();
     private boolean cachedStacksNeedUpdate = true;
+    /**
+     * Receives the changes collected from the {@link StorageChangeJournal} when the cache is updated incrementally.
+     */
+    private final KeyCounter cachedStacksDeltas = new KeyCounter();
+    /**
+     * Number of entries in {@link #cachedAvailableStacks} that were set to zero by incremental updates.
+     */
+    private int zeroedCacheEntries;
+    private int ticksSinceFullUpdate;
+    /**
+     * Versions the updates of {@link #cachedAvailableStacks}, so terminals can share them.
+     */
+    private final InventoryChangeLog cachedStacksChangeLog = new InventoryChangeLog();
+    /**
+     * Set when anyone requested {@link #getCachedInventoryChanges()} since the last tick.
+     */
+    private boolean cachedStacksChangesRequested;
     /**
      * Tracks the stack watcher associated with a given grid node. Needed to clean up watchers when the node leaves the
      * grid.
@@ -85,18 +106,31 @@ public StorageService() {
     }
 
     @Override
-    public void onServerEndTick() {
-        if (interestManager.isEmpty()) {
+    public void onDeferrableServerEndTick() {
+        var journal = storage.getChangeJournal();
+        journal.setEnabled(AEConfig.instance().isIncrementalStorageCacheEnabled());
+        storage.setInsertRoutingEnabled(AEConfig.instance().isInsertRoutingCacheEnabled());
+        storage.setExtractionIndexEnabled(AEConfig.instance().isExtractionIndexEnabled());
+
+        if (journal.isEnabled() && !cachedStacksNeedUpdate && !journal.isFullRescanRequired()
+                && ++ticksSinceFullUpdate < AEConfig.instance().getStorageCacheRebuildInterval()) {
+            // only rescan what changed since the last tick
+            applyCachedStacksChanges();
+        } else if (interestManager.isEmpty() && !cachedStacksChangesRequested) {
             // lazily rebuild cache list
             cachedStacksNeedUpdate = true;
         } else {
             // we need to rebuild the cache every tick to notify listeners
             updateCachedStacks();
         }
+
+        cachedStacksChangesRequested = false;
     }
 
     private void updateCachedStacks() {
         cachedStacksNeedUpdate = false;
+        ticksSinceFullUpdate = 0;
+        zeroedCacheEntries = 0;
 
         // Update cache
         var previousStacks = cachedAvailableStacks;
@@ -105,7 +139,7 @@ private void updateCachedStacks() {
         cachedAvailableStacksBackBuffer = previousStacks;
 
         currentStacks.clear();
-        storage.getAvailableStacks(currentStacks);
+        storage.rescanAvailableStacks(currentStacks);
 
         // Post watcher update for currently available stacks
         for (var entry : currentStacks) {
@@ -129,9 +163,50 @@ private void updateCachedStacks() {
         for (var entry : currentStacks) {
             cachedAvailableAmounts.put(entry.getKey(), entry.getLongValue());
         }
+
+        cachedStacksChangeLog.commit();
+    }
+
+    /**
+     * Updates the cached stacks using only the changes recorded in the storage's change journal.
+     */
+    private void applyCachedStacksChanges() {
+        cachedStacksDeltas.clear();
+        if (!storage.collectChanges(cachedStacksDeltas)) {
+            // The journal lost track of some changes
+            updateCachedStacks();
+            return;
+        }
+
+        for (var entry : cachedStacksDeltas) {
+            var delta = entry.getLongValue();
+            if (delta == 0) {
+                continue;
+            }
+
+            var what = entry.getKey();
+            var newAmount = Math.max(0, cachedAvailableAmounts.getLong(what) + delta);
+            if (newAmount == 0) {
+                cachedAvailableAmounts.removeLong(what);
+                zeroedCacheEntries++;
+            } else {
+                cachedAvailableAmounts.put(what, newAmount);
+            }
+            cachedAvailableStacks.set(what, newAmount);
+            postWatcherUpdate(what, newAmount);
+        }
+
+        // Amortize the cost of removing the entries that dropped to zero
+        if (zeroedCacheEntries > MAX_ZEROED_CACHE_ENTRIES) {
+            zeroedCacheEntries = 0;
+            cachedAvailableStacks.removeZeros();
+        }
+
+        cachedStacksChangeLog.commit();
     }
 
     private void postWatcherUpdate(AEKey what, long newAmount) {
+        cachedStacksChangeLog.recordChange(what);
         for (var watcher : interestManager.get(what)) {
             watcher.getHost().onStackChange(what, newAmount);
         }
@@ -191,6 +266,19 @@ public KeyCounter getCachedInventory() {
         return cachedAvailableStacks;
     }
 
+    /**
+     * Returns the versioned changes of the {@link #getCachedInventory() cached inventory}. Calling this method
+     * ensures that the cached inventory is updated at the end of the current tick, so that anyone calling it every
+     * tick will see every change.
+     * <p/>
+     * This allows terminals to share the cached inventory, instead of each of them scanning and diffing the network
+     * inventory on their own.
+     */
+    public InventoryChangeLog getCachedInventoryChanges() {
+        cachedStacksChangesRequested = true;
+        return cachedStacksChangeLog;
+    }
+
     @Override
     public void addGlobalStorageProvider(IStorageProvider provider) {
         var state = new ProviderState(provider);
@@ -234,6 +322,7 @@ public void refreshGlobalStorageProvider(IStorageProvider provider) {
     @Override
     public void invalidateCache() {
         cachedStacksNeedUpdate = true;
+        storage.getChangeJournal().invalidate();
     }
 
     /**
@@ -19,14 +19,14 @@
 package appeng.me.service;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LongSummaryStatistics;
 import java.util.Map;
 import java.util.Objects;
-import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import com.google.common.base.Stopwatch;
-import com.google.common.collect.Iterators;
 
 import org.jetbrains.annotations.Nullable;
 
@@ -35,12 +35,17 @@
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.world.level.Level;
 
+import appeng.api.networking.IGrid;
 import appeng.api.networking.IGridNode;
 import appeng.api.networking.IGridServiceProvider;
 import appeng.api.networking.ticking.IGridTickable;
 import appeng.api.networking.ticking.ITickManager;
 import appeng.api.networking.ticking.TickRateModulation;
+import appeng.hooks.ticking.GridProfiler;
+import appeng.hooks.ticking.TickHandler;
+import appeng.me.Grid;
 import appeng.me.GridNode;
+import appeng.me.service.helpers.TickQueue;
 import appeng.me.service.helpers.TickTracker;
 
 public class TickManagerService implements ITickManager, IGridServiceProvider {
@@ -50,19 +55,21 @@ public class TickManagerService implements ITickManager, IGridServiceProvider {
     private static final int TICK_RATE_SPEED_UP_FACTOR = 2;
     private static final int TICK_RATE_SLOW_DOWN_FACTOR = 1;
 
+    private final IGrid grid;
     private final Map<IGridNode, TickTracker> alertable = new HashMap<>();
     private final Map<IGridNode, TickTracker> sleeping = new HashMap<>();
     private final Map<IGridNode, TickTracker> awake = new HashMap<>();
-    private final Map<Level, PriorityQueue<TickTracker>> upcomingTicks = new HashMap<>();
+    private final Map<Level, TickQueue> upcomingTicks = new HashMap<>();
 
-    private PriorityQueue<TickTracker> currentlyTickingQueue = null;
+    private TickQueue currentlyTickingQueue = null;
 
     private long currentTick = 0;
     private final Stopwatch stopWatch = Stopwatch.createUnstarted();
     @Nullable
     private IGridNode currentlyTicking;
 
-    public TickManagerService() {
+    public TickManagerService(IGrid grid) {
+        this.grid = grid;
     }
 
     @Override
@@ -102,7 +109,7 @@ private void tickLevelQueue(@Nullable Level level) {
         }
     }
 
-    private void tickQueue(PriorityQueue<TickTracker> queue) {
+    private void tickQueue(TickQueue queue) {
         TickTracker tt;
 
         while (!queue.isEmpty()) {
@@ -321,8 +328,30 @@ private LongSummaryStatistics getStatistics(IGridNode node) {
     /**
      * null as level could be used for virtual nodes.
      */
-    private PriorityQueue<TickTracker> getQueue(@Nullable Level level) {
-        return this.upcomingTicks.computeIfAbsent(level, (key) -> new PriorityQueue<>());
+    private TickQueue getQueue(@Nullable Level level) {
+        var queue = this.upcomingTicks.get(level);
+        if (queue == null) {
+            queue = new TickQueue();
+            this.upcomingTicks.put(level, queue);
+            // Grids are only ticked with the levels they have nodes to tick in
+            if (level != null && this.grid instanceof Grid g) {
+                TickHandler.instance().wakeGrid(g, level);
+            }
+        }
+        return queue;
+    }
+
+    /**
+     * @return The levels in which nodes are queued to be ticked.
+     */
+    public Set<Level> getTickedLevels() {
+        var levels = new HashSet<>(this.upcomingTicks.keySet());
+        levels.remove(null);
+        return levels;
+    }
+
+    public boolean hasQueuedTicks(Level level) {
+        return this.upcomingTicks.containsKey(level);
     }
 
     private void addToQueue(IGridNode node, TickTracker tt) {
@@ -331,9 +360,15 @@ private void addToQueue(IGridNode node, TickTracker tt) {
     }
 
     private void removeFromQueue(IGridNode node, TickTracker tt) {
+        if (tt == null) {
+            return;
+        }
+
         var level = node.getLevel();
-        var queue = getQueue(level);
-        queue.remove(tt);
+        var queue = this.upcomingTicks.get(level);
+        if (queue == null || !queue.remove(tt)) {
+            return;
+        }
 
         // Make sure we don't cleanup a queue we are iterating over,
         // as something might be added to it later even if it's empty now.
@@ -343,7 +378,7 @@ private void removeFromQueue(IGridNode node, TickTracker tt) {
     }
 
     private void updateQueuePosition(IGridNode node, TickTracker tt) {
-        this.removeFromQueue(node, tt);
+        // Adding a tracker that is already queued will just update its position
         this.addToQueue(node, tt);
     }
 
@@ -354,8 +389,9 @@ private void updateQueuePosition(IGridNode node, TickTracker tt) {
      */
     private TickRateModulation unsafeTickingRequest(TickTracker tt, int diff) {
         try {
-            // Shortcut to immediately return when monitoring is disabled.
-            if (!MONITORING_ENABLED) {
+            // Shortcut to immediately return when monitoring and profiling are disabled.
+            var profiler = GridProfiler.current();
+            if (!MONITORING_ENABLED && profiler == null) {
                 return tt.getGridTickable().tickingRequest(tt.getNode(), diff);
             }
 
@@ -365,7 +401,12 @@ private TickRateModulation unsafeTickingRequest(TickTracker tt, int diff) {
 
             stopWatch.stop();
             var elapsedTime = stopWatch.elapsed(TimeUnit.NANOSECONDS);
-            tt.getStatistics().accept(elapsedTime);
+            if (MONITORING_ENABLED) {
+                tt.getStatistics().accept(elapsedTime);
+            }
+            if (profiler != null) {
+                profiler.recordNodeTick(grid, tt.getNode(), tt.getGridTickable(), elapsedTime);
+            }
 
             return mod;
         } catch (Throwable t) {
@@ -390,7 +431,7 @@ public NodeStatus getStatus(IGridNode node) {
         boolean isQueued = false;
         var tickQueue = upcomingTicks.get(node.getLevel());
         if (awakeTracker != null && tickQueue != null) {
-            isQueued = Iterators.contains(tickQueue.iterator(), awakeTracker);
+            isQueued = tickQueue.contains(awakeTracker);
         }
 
         // Get the tick-request stats
@@ -0,0 +1,59 @@
+package appeng.me.service.helpers;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jetbrains.annotations.Nullable;
+
+import appeng.api.config.FuzzyMode;
+import appeng.api.crafting.IPatternDetails;
+import appeng.api.stacks.AEKey;
+import appeng.api.stacks.KeyCounter;
+import appeng.api.storage.AEKeyFilter;
+import appeng.crafting.ICraftingPatternLookup;
+
+/**
+ * An immutable copy of the patterns and emitable items of a network. Crafting calculations that run concurrently with
+ * the server thread use this instead of the live {@link NetworkCraftingProviders}, which may only be accessed from the
+ * server thread.
+ */
+public final class CraftingPatternSnapshot implements ICraftingPatternLookup {
+    private final Map<AEKey, List<IPatternDetails>> patterns;
+    private final Set<AEKey> emitableItems;
+    /**
+     * Used for looking up craftable alternatives using fuzzy search (i.e. ignore NBT). Never modified after
+     * construction.
+     */
+    private final KeyCounter craftableItemsList = new KeyCounter();
+
+    CraftingPatternSnapshot(Map<AEKey, List<IPatternDetails>> patterns, Set<AEKey> emitableItems) {
+        this.patterns = Map.copyOf(patterns);
+        this.emitableItems = Set.copyOf(emitableItems);
+        for (var what : this.patterns.keySet()) {
+            this.craftableItemsList.add(what, 1);
+        }
+    }
+
+    @Override
+    public Collection<IPatternDetails> getCraftingFor(AEKey whatToCraft) {
+        return patterns.getOrDefault(whatToCraft, List.of());
+    }
+
+    @Nullable
+    @Override
+    public AEKey getFuzzyCraftable(AEKey whatToCraft, AEKeyFilter filter) {
+        for (var fuzzy : craftableItemsList.findFuzzy(whatToCraft, FuzzyMode.IGNORE_ALL)) {
+            if (filter.matches(fuzzy.getKey())) {
+                return fuzzy.getKey();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean canEmitFor(AEKey what) {
+        return emitableItems.contains(what);
+    }
+}
@@ -0,0 +1,77 @@
+package appeng.me.service.helpers;
+
+import java.util.ArrayDeque;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import appeng.api.stacks.AEKey;
+
+/**
+ * Assigns a version number to each update of the cached network inventory, and remembers which keys changed in the
+ * most recent versions. This allows any number of terminals to share a single scan of the network inventory per tick,
+ * and only process the keys that changed since the version they've last seen.
+ */
+public final class InventoryChangeLog {
+    /**
+     * Number of versions for which the changed keys are retained. Consumers that fall further behind than this have to
+     * do a full update instead.
+     */
+    private static final int MAX_RETAINED_VERSIONS = 40;
+
+    private final ArrayDeque<ChangeSet> changeSets = new ArrayDeque<>();
+    private final Set<AEKey> pendingChanges = new LinkedHashSet<>();
+    private long version;
+
+    public void recordChange(AEKey what) {
+        pendingChanges.add(what);
+    }
+
+    /**
+     * Creates a new version from the changes recorded since the last commit, if there are any.
+     */
+    public void commit() {
+        if (pendingChanges.isEmpty()) {
+            return;
+        }
+
+        version++;
+        changeSets.addLast(new ChangeSet(version, pendingChanges.toArray(AEKey[]::new)));
+        pendingChanges.clear();
+
+        while (changeSets.size() > MAX_RETAINED_VERSIONS) {
+            changeSets.removeFirst();
+        }
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Reports every key that changed after the given version. A key may be reported more than once.
+     *
+     * @return False if the changes since the given version are no longer known, in which case the caller has to
+     *         perform a full update.
+     */
+    public boolean getChangesSince(long sinceVersion, Consumer<AEKey> consumer) {
+        if (sinceVersion == version) {
+            return true;
+        }
+        if (sinceVersion > version || changeSets.isEmpty() || changeSets.getFirst().version() > sinceVersion + 1) {
+            return false;
+        }
+
+        for (var changeSet : changeSets) {
+            if (changeSet.version() > sinceVersion) {
+                for (var what : changeSet.keys()) {
+                    consumer.accept(what);
+                }
+            }
+        }
+        return true;
+    }
+
+    private record ChangeSet(long version, AEKey[] keys) {
+    }
+}
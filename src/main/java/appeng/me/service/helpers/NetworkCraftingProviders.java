@@ -36,6 +36,11 @@ public class NetworkCraftingProviders {
      */
     private final KeyCounter craftableItemsList = new KeyCounter();
     private final Map<AEKey, Integer> emitableItems = new HashMap<>();
+    /**
+     * Snapshot of the current patterns, shared by all crafting calculations until the patterns change.
+     */
+    @Nullable
+    private CraftingPatternSnapshot snapshot;
 
     public void addProvider(IGridNode node) {
         var provider = node.getService(ICraftingProvider.class);
@@ -46,6 +51,7 @@ public void addProvider(IGridNode node) {
             var state = new ProviderState(provider);
             state.mount(this);
             craftingProviders.put(node, state);
+            snapshot = null;
         }
     }
 
@@ -55,6 +61,7 @@ public void removeProvider(IGridNode node) {
             var state = craftingProviders.remove(node);
             if (state != null) {
                 state.unmount(this);
+                snapshot = null;
             }
         }
     }
@@ -100,6 +107,20 @@ public boolean canEmitFor(AEKey someItem) {
         return this.emitableItems.containsKey(someItem);
     }
 
+    /**
+     * @return An immutable copy of the current patterns and emitable items that can be used from other threads.
+     */
+    public CraftingPatternSnapshot getSnapshot() {
+        if (snapshot == null) {
+            var patterns = new HashMap<AEKey, List<IPatternDetails>>(craftableItems.size());
+            for (var entry : craftableItems.entrySet()) {
+                patterns.put(entry.getKey(), entry.getValue().getSortedPatterns());
+            }
+            snapshot = new CraftingPatternSnapshot(patterns, emitableItems.keySet());
+        }
+        return snapshot;
+    }
+
     public Iterable<ICraftingProvider> getMediums(IPatternDetails key) {
         var mediumList = this.craftingMethods.get(key);
         return Objects.requireNonNullElse(mediumList, Collections.emptyList());
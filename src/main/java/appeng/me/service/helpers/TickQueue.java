@@ -0,0 +1,183 @@
+package appeng.me.service.helpers;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An indexed 4-ary min-heap of {@link TickTracker}, ordered by the tick they should be ticked next.
+ * <p/>
+ * Every tracker remembers its position in the heap, which makes removing a tracker or restoring the heap order after
+ * its next tick changed an O(log n) operation instead of the linear search required by {@link java.util.PriorityQueue}.
+ * This matters for grids with thousands of devices that are constantly put to sleep and woken up again.
+ * <p/>
+ * A tracker can only be part of a single queue at a time.
+ */
+public final class TickQueue implements Iterable<TickTracker> {
+    private static final int ARITY = 4;
+
+    private TickTracker[] heap = new TickTracker[16];
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(TickTracker tracker) {
+        var index = tracker.queueIndex;
+        return index >= 0 && index < size && heap[index] == tracker;
+    }
+
+    /**
+     * Adds a tracker to the queue. If the tracker is already queued, its position is updated instead.
+     */
+    public void add(TickTracker tracker) {
+        if (contains(tracker)) {
+            update(tracker);
+            return;
+        }
+
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        heap[size] = tracker;
+        tracker.queueIndex = size;
+        size++;
+        siftUp(tracker.queueIndex);
+    }
+
+    /**
+     * Restores the order of the queue after the next tick of the given tracker changed.
+     */
+    public void update(TickTracker tracker) {
+        if (!contains(tracker)) {
+            throw new IllegalArgumentException("Tracker is not part of this queue");
+        }
+        var index = tracker.queueIndex;
+        siftUp(index);
+        if (heap[index] == tracker) {
+            siftDown(index);
+        }
+    }
+
+    /**
+     * @return True if the tracker was part of this queue.
+     */
+    public boolean remove(TickTracker tracker) {
+        if (!contains(tracker)) {
+            return false;
+        }
+        removeAt(tracker.queueIndex);
+        return true;
+    }
+
+    @Nullable
+    public TickTracker peek() {
+        return size > 0 ? heap[0] : null;
+    }
+
+    @Nullable
+    public TickTracker poll() {
+        if (size == 0) {
+            return null;
+        }
+        var result = heap[0];
+        removeAt(0);
+        return result;
+    }
+
+    private void removeAt(int index) {
+        var removed = heap[index];
+        removed.queueIndex = -1;
+
+        size--;
+        if (index == size) {
+            heap[size] = null;
+            return;
+        }
+
+        // Move the last element into the hole and restore the heap order from there
+        var moved = heap[size];
+        heap[size] = null;
+        heap[index] = moved;
+        moved.queueIndex = index;
+        siftUp(index);
+        if (heap[index] == moved) {
+            siftDown(index);
+        }
+    }
+
+    private void siftUp(int index) {
+        var tracker = heap[index];
+        while (index > 0) {
+            var parentIndex = (index - 1) / ARITY;
+            var parent = heap[parentIndex];
+            if (tracker.compareTo(parent) >= 0) {
+                break;
+            }
+            heap[index] = parent;
+            parent.queueIndex = index;
+            index = parentIndex;
+        }
+        heap[index] = tracker;
+        tracker.queueIndex = index;
+    }
+
+    private void siftDown(int index) {
+        var tracker = heap[index];
+        while (true) {
+            var firstChild = index * ARITY + 1;
+            if (firstChild >= size) {
+                break;
+            }
+
+            // Find the smallest child
+            var smallestIndex = firstChild;
+            var lastChild = Math.min(firstChild + ARITY, size);
+            for (var i = firstChild + 1; i < lastChild; i++) {
+                if (heap[i].compareTo(heap[smallestIndex]) < 0) {
+                    smallestIndex = i;
+                }
+            }
+
+            var smallest = heap[smallestIndex];
+            if (smallest.compareTo(tracker) >= 0) {
+                break;
+            }
+            heap[index] = smallest;
+            smallest.queueIndex = index;
+            index = smallestIndex;
+        }
+        heap[index] = tracker;
+        tracker.queueIndex = index;
+    }
+
+    /**
+     * Iterates the queued trackers in no particular order.
+     */
+    @Override
+    public Iterator<TickTracker> iterator() {
+        return new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public TickTracker next() {
+                if (index >= size) {
+                    throw new NoSuchElementException();
+                }
+                return heap[index++];
+            }
+        };
+    }
+}
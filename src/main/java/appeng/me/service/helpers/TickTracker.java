@@ -36,6 +36,10 @@ public class TickTracker implements Comparable<TickTracker> {
 
     private long lastTick;
     private int currentRate;
+    /**
+     * Position of this tracker in the {@link TickQueue} it is part of, or -1.
+     */
+    int queueIndex = -1;
 
     public TickTracker(TickingRequest req, IGridNode node, IGridTickable gt, long currentTick) {
         this.request = req;
@@ -18,12 +18,24 @@
  * Combines several ME storages that each handle only a given key-space.
  */
 public class CompositeStorage implements MEStorage, ITickingMonitor {
+    /**
+     * Limits backing off to scanning every eighth tick.
+     */
+    private static final int MAX_BACKOFF_STEPS = 3;
+
     private final InventoryCache cache;
 
     private Map<AEKeyType, MEStorage> storages;
 
     private boolean forceCacheRebuild = true;
 
+    /**
+     * Scans without changes after which the external inventory is scanned less often. 0 disables backing off.
+     */
+    private int backoffThreshold;
+    private int unchangedScans;
+    private int skippedTicks;
+
     public CompositeStorage(Map<AEKeyType, MEStorage> storages) {
         this.storages = storages;
         this.cache = new InventoryCache();
@@ -31,6 +43,15 @@ public CompositeStorage(Map<AEKeyType, MEStorage> storages) {
 
     public void setStorages(Map<AEKeyType, MEStorage> storages) {
         this.storages = Objects.requireNonNull(storages);
+        this.unchangedScans = 0;
+    }
+
+    /**
+     * Once the external inventory didn't change for the given number of scans, only scan it every second tick. After
+     * twice as many scans every fourth tick, and so on. Changes made through this storage reset this.
+     */
+    public void setBackoffThreshold(int backoffThreshold) {
+        this.backoffThreshold = Math.max(0, backoffThreshold);
     }
 
     @Override
@@ -84,11 +105,27 @@ public Component getDescription() {
 
     @Override
     public TickRateModulation onTick() {
+        if (forceCacheRebuild) {
+            unchangedScans = 0;
+        } else if (backoffThreshold > 0 && unchangedScans >= backoffThreshold) {
+            // The longer the inventory stays unchanged, the more ticks are skipped between scans
+            var ticksToSkip = (1 << Math.min(MAX_BACKOFF_STEPS, unchangedScans / backoffThreshold)) - 1;
+            if (skippedTicks < ticksToSkip) {
+                skippedTicks++;
+                return TickRateModulation.SLOWER;
+            }
+        }
+        skippedTicks = 0;
+
         forceCacheRebuild = false;
         boolean changed = this.cache.update();
         if (changed) {
+            unchangedScans = 0;
             return TickRateModulation.URGENT;
         } else {
+            if (unchangedScans < Integer.MAX_VALUE) {
+                unchangedScans++;
+            }
             return TickRateModulation.SLOWER;
         }
     }
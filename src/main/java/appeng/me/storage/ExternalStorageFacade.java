@@ -1,5 +1,6 @@
 package appeng.me.storage;
 
+import java.util.Objects;
 import java.util.Set;
 
 import javax.annotation.Nullable;
@@ -12,6 +13,10 @@
 import net.neoforged.neoforge.fluids.capability.IFluidHandler;
 import net.neoforged.neoforge.items.IItemHandler;
 
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+
 import appeng.api.config.Actionable;
 import appeng.api.networking.security.IActionSource;
 import appeng.api.stacks.AEFluidKey;
@@ -38,10 +43,32 @@ public abstract class ExternalStorageFacade implements MEStorage {
 
     protected boolean extractableOnly;
 
+    protected boolean slotIndexEnabled;
+
+    protected boolean slotKeyCacheEnabled;
+
     public void setChangeListener(@Nullable Runnable listener) {
         this.changeListener = listener;
     }
 
+    /**
+     * Enables remembering which slots contained each key when the inventory was last scanned through
+     * {@link #getAvailableStacks}, so that extraction only has to look at those slots. Keys that were added to the
+     * external inventory since the last scan can't be extracted until the next scan, just like they aren't reported to
+     * the network until then.
+     */
+    public void setSlotIndexEnabled(boolean slotIndexEnabled) {
+        this.slotIndexEnabled = slotIndexEnabled;
+    }
+
+    /**
+     * Enables reusing the key found in a slot during the previous scan, as long as the slot still contains the same stack
+     * object with the same tag, instead of building a new key for every slot on every scan.
+     */
+    public void setSlotKeyCacheEnabled(boolean slotKeyCacheEnabled) {
+        this.slotKeyCacheEnabled = slotKeyCacheEnabled;
+    }
+
     public abstract int getSlots();
 
     @Nullable
@@ -95,7 +122,23 @@ public void setExtractableOnly(boolean extractableOnly) {
     }
 
     private static class ItemHandlerFacade extends ExternalStorageFacade {
+        private static final int SLOT_KEY_REBUILD_INTERVAL = 20;
+
         private final IItemHandler handler;
+        /**
+         * The slots that contained each key during the last scan, in ascending order.
+         */
+        private final Object2ObjectOpenHashMap<AEItemKey, IntArrayList> slotsByKey = new Object2ObjectOpenHashMap<>();
+        /**
+         * The number of slots the inventory had during the last scan, or -1 if the index hasn't been built.
+         */
+        private int indexedSlotCount = -1;
+        /**
+         * The stack object found in each slot during the last scan, and the key that was built for it.
+         */
+        private ItemStack[] scannedStacks = new ItemStack[0];
+        private AEItemKey[] scannedKeys = new AEItemKey[0];
+        private int scansSinceKeyRebuild;
 
         public ItemHandlerFacade(IItemHandler handler) {
             this.handler = handler;
@@ -131,7 +174,11 @@ public int insertExternal(AEKey what, int amount, Actionable mode) {
 
             // This uses a brute force approach and tries to jam it in every slot the inventory exposes.
             for (int i = 0; i < slotCount && !remaining.isEmpty(); i++) {
+                var before = remaining.getCount();
                 remaining = handler.insertItem(i, remaining, simulate);
+                if (!simulate && indexedSlotCount >= 0 && remaining.getCount() < before) {
+                    addToSlotIndex(itemKey, i);
+                }
             }
 
             // At this point, we still have some items left...
@@ -156,7 +203,19 @@ public int extractExternal(AEKey what, int amount, Actionable mode) {
 
             final boolean simulate = mode == Actionable.SIMULATE;
 
-            for (int i = 0; i < handler.getSlots(); i++) {
+            // Only look at the slots that contained the key during the last scan
+            IntArrayList indexedSlots = null;
+            int slotCount = handler.getSlots();
+            if (indexedSlotCount >= 0 && indexedSlotCount == slotCount) {
+                indexedSlots = slotsByKey.get(itemKey);
+                if (indexedSlots == null) {
+                    return 0;
+                }
+                slotCount = indexedSlots.size();
+            }
+
+            for (int n = 0; n < slotCount; n++) {
+                int i = indexedSlots != null ? indexedSlots.getInt(n) : n;
                 ItemStack stackInInventorySlot = handler.getStackInSlot(i);
 
                 if (!itemKey.matches(stackInInventorySlot)) {
@@ -227,6 +286,15 @@ public int extractExternal(AEKey what, int amount, Actionable mode) {
 
         @Override
         public boolean containsAnyFuzzy(Set<AEKey> keys) {
+            if (indexedSlotCount >= 0 && indexedSlotCount == handler.getSlots()) {
+                for (var what : slotsByKey.keySet()) {
+                    if (keys.contains(what.dropSecondary())) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
             for (int i = 0; i < handler.getSlots(); i++) {
                 var what = AEItemKey.of(handler.getStackInSlot(i));
                 if (what != null) {
@@ -240,10 +308,23 @@ public boolean containsAnyFuzzy(Set<AEKey> keys) {
 
         @Override
         public void getAvailableStacks(KeyCounter out) {
-            for (int i = 0; i < handler.getSlots(); i++) {
+            if (slotIndexEnabled) {
+                // Keep the lists around, the same keys are usually found again
+                for (var slots : slotsByKey.values()) {
+                    slots.clear();
+                }
+            }
+
+            int slotCount = handler.getSlots();
+            var reuseKeys = prepareSlotKeyCache(slotCount);
+            for (int i = 0; i < slotCount; i++) {
                 // Skip resources that cannot be extracted if that filter was enabled
                 var stack = handler.getStackInSlot(i);
                 if (stack.isEmpty()) {
+                    if (slotKeyCacheEnabled) {
+                        scannedStacks[i] = null;
+                        scannedKeys[i] = null;
+                    }
                     continue;
                 }
 
@@ -255,7 +336,65 @@ public void getAvailableStacks(KeyCounter out) {
                     }
                 }
 
-                out.add(AEItemKey.of(stack), stack.getCount());
+                var what = slotKeyCacheEnabled ? getSlotKey(i, stack, reuseKeys) : AEItemKey.of(stack);
+                out.add(what, stack.getCount());
+                if (slotIndexEnabled) {
+                    slotsByKey.computeIfAbsent(what, k -> new IntArrayList(1)).add(i);
+                }
+            }
+
+            if (slotIndexEnabled) {
+                slotsByKey.values().removeIf(IntArrayList::isEmpty);
+                indexedSlotCount = slotCount;
+            } else if (indexedSlotCount >= 0) {
+                slotsByKey.clear();
+                indexedSlotCount = -1;
+            }
+        }
+
+        /**
+         * @return False if the keys of all slots have to be rebuilt during this scan.
+         */
+        private boolean prepareSlotKeyCache(int slotCount) {
+            if (!slotKeyCacheEnabled) {
+                if (scannedStacks.length > 0) {
+                    scannedStacks = new ItemStack[0];
+                    scannedKeys = new AEItemKey[0];
+                }
+                return false;
+            }
+
+            if (scannedStacks.length != slotCount) {
+                scannedStacks = new ItemStack[slotCount];
+                scannedKeys = new AEItemKey[slotCount];
+            }
+
+            // Capability data can change without the stack object or its tag changing, so every so often all keys
+            // are rebuilt
+            if (++scansSinceKeyRebuild >= SLOT_KEY_REBUILD_INTERVAL) {
+                scansSinceKeyRebuild = 0;
+                return false;
+            }
+            return true;
+        }
+
+        private AEItemKey getSlotKey(int slot, ItemStack stack, boolean reuse) {
+            var key = scannedKeys[slot];
+            // The item of a stack object never changes, but its tag can
+            if (!reuse || key == null || scannedStacks[slot] != stack
+                    || !Objects.equals(stack.getTag(), key.getTag())) {
+                key = AEItemKey.of(stack);
+                scannedStacks[slot] = stack;
+                scannedKeys[slot] = key;
+            }
+            return key;
+        }
+
+        private void addToSlotIndex(AEItemKey what, int slot) {
+            var slots = slotsByKey.computeIfAbsent(what, k -> new IntArrayList(1));
+            var pos = IntArrays.binarySearch(slots.elements(), 0, slots.size(), slot);
+            if (pos < 0) {
+                slots.add(-pos - 1, slot);
             }
         }
     }
@@ -0,0 +1,184 @@
+package appeng.me.storage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import appeng.api.stacks.AEKey;
+import appeng.api.stacks.KeyCounter;
+import appeng.api.storage.MEStorage;
+
+/**
+ * Remembers which mounted inventories of a {@link NetworkStorage} may contain each key, so that extracting a key only
+ * asks those inventories instead of every inventory on the network.
+ * <p/>
+ * Only storage cells, whose content only changes through the network storage or is reported to the
+ * {@link StorageChangeJournal}, are indexed. An indexed inventory is added for a key when the key is inserted into it,
+ * and removed again once it no longer supplies any of it. Inventories that report changes without saying which keys
+ * changed are rescanned before the next extraction. All other inventories, such as storage buses, are asked every
+ * time, just like without the index.
+ */
+final class ExtractionIndex {
+    /**
+     * The order in which {@link NetworkStorage#extract} visits its inventories.
+     */
+    private static final Comparator<Mount> EXTRACTION_ORDER = Comparator.<Mount>comparingInt(m -> m.priority)
+            .thenComparingLong(m -> m.sequence);
+
+    private final Map<AEKey, List<Mount>> index = new HashMap<>();
+    private final Map<MEStorage, Mount> mounts = new IdentityHashMap<>();
+    private final List<Mount> unindexedMounts = new ArrayList<>();
+    private final Set<Mount> changedMounts = Collections.newSetFromMap(new IdentityHashMap<>());
+    private long nextSequence;
+
+    // Reused to avoid allocating on every extraction
+    private final List<MEStorage> candidates = new ArrayList<>();
+    private final KeyCounter contentBuffer = new KeyCounter();
+
+    void onMount(MEStorage inventory, int priority) {
+        var mount = new Mount(inventory, priority, nextSequence++, InsertRoutingCache.isStable(inventory));
+        mounts.put(inventory, mount);
+        if (mount.indexed) {
+            addContent(mount);
+        } else {
+            unindexedMounts.add(mount);
+            unindexedMounts.sort(EXTRACTION_ORDER);
+        }
+    }
+
+    void onUnmount(MEStorage inventory) {
+        var mount = mounts.remove(inventory);
+        if (mount == null) {
+            return;
+        }
+        if (mount.indexed) {
+            changedMounts.remove(mount);
+            for (var what : mount.keys) {
+                var entries = index.get(what);
+                if (entries != null && entries.remove(mount) && entries.isEmpty()) {
+                    index.remove(what);
+                }
+            }
+            mount.keys.clear();
+        } else {
+            unindexedMounts.remove(mount);
+        }
+    }
+
+    /**
+     * Called when the content of a mounted inventory changed for any reason other than the network storage inserting
+     * into or extracting from it.
+     */
+    void onChanged(MEStorage inventory) {
+        var mount = mounts.get(inventory);
+        if (mount != null && mount.indexed) {
+            changedMounts.add(mount);
+        }
+    }
+
+    void onInserted(MEStorage inventory, AEKey what) {
+        var mount = mounts.get(inventory);
+        if (mount != null && mount.indexed) {
+            addEntry(what, mount);
+        }
+    }
+
+    /**
+     * Called for every inventory that was asked for a key while extracting it.
+     */
+    void onExtracted(MEStorage inventory, AEKey what, long extracted) {
+        if (extracted <= 0) {
+            var mount = mounts.get(inventory);
+            if (mount != null && mount.indexed) {
+                removeEntry(what, mount);
+            }
+        }
+    }
+
+    /**
+     * @return The inventories that may supply the given key, in the order they should be asked for it. The list is
+     *         reused by the next call.
+     */
+    List<MEStorage> getCandidates(AEKey what) {
+        if (!changedMounts.isEmpty()) {
+            for (var mount : changedMounts) {
+                addContent(mount);
+            }
+            changedMounts.clear();
+        }
+
+        candidates.clear();
+        var entries = index.getOrDefault(what, List.of());
+
+        // Both lists are already in extraction order
+        int i = 0;
+        int j = 0;
+        while (i < entries.size() && j < unindexedMounts.size()) {
+            if (EXTRACTION_ORDER.compare(entries.get(i), unindexedMounts.get(j)) < 0) {
+                candidates.add(entries.get(i++).inventory);
+            } else {
+                candidates.add(unindexedMounts.get(j++).inventory);
+            }
+        }
+        while (i < entries.size()) {
+            candidates.add(entries.get(i++).inventory);
+        }
+        while (j < unindexedMounts.size()) {
+            candidates.add(unindexedMounts.get(j++).inventory);
+        }
+        return candidates;
+    }
+
+    private void addContent(Mount mount) {
+        contentBuffer.clear();
+        mount.inventory.getAvailableStacks(contentBuffer);
+        for (var what : contentBuffer.keySet()) {
+            addEntry(what, mount);
+        }
+    }
+
+    private void addEntry(AEKey what, Mount mount) {
+        if (mount.keys.add(what)) {
+            var entries = index.computeIfAbsent(what, k -> new ArrayList<>(2));
+            // Keep the entries in extraction order
+            var insertionPoint = Collections.binarySearch(entries, mount, EXTRACTION_ORDER);
+            entries.add(-insertionPoint - 1, mount);
+        }
+    }
+
+    private void removeEntry(AEKey what, Mount mount) {
+        if (mount.keys.remove(what)) {
+            var entries = index.get(what);
+            if (entries != null && entries.remove(mount) && entries.isEmpty()) {
+                index.remove(what);
+            }
+        }
+    }
+
+    private static final class Mount {
+        private final MEStorage inventory;
+        private final int priority;
+        /**
+         * Inventories with the same priority are asked in the order they were mounted in.
+         */
+        private final long sequence;
+        private final boolean indexed;
+        /**
+         * The keys this inventory is indexed for.
+         */
+        private final Set<AEKey> keys = new HashSet<>();
+
+        private Mount(MEStorage inventory, int priority, long sequence, boolean indexed) {
+            this.inventory = inventory;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.indexed = indexed;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package appeng.me.storage;
+
+import org.jetbrains.annotations.Nullable;
+
+import appeng.api.storage.MEStorage;
+
+/**
+ * Implemented by {@link MEStorage} whose content can change without going through the {@link NetworkStorage} they are
+ * mounted into. Such inventories have to report these changes to the {@link StorageChangeJournal} of the network, or
+ * mark themselves as {@link StorageChangeJournal#setVolatile volatile} if they cannot detect them.
+ */
+public interface IJournaledStorage {
+
+    /**
+     * Called when this inventory is mounted into a network storage, and with null when it is unmounted again.
+     */
+    void setChangeJournal(@Nullable StorageChangeJournal journal);
+
+    /**
+     * @return True if every change to the content of this inventory is either made through the network storage or
+     *         reported to the journal, which allows the network storage to cache which keys this inventory rejects.
+     */
+    default boolean reportsAllChanges() {
+        return false;
+    }
+
+}
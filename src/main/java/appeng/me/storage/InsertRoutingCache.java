@@ -0,0 +1,183 @@
+package appeng.me.storage;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+
+import org.jetbrains.annotations.Nullable;
+
+import appeng.api.config.Actionable;
+import appeng.api.networking.security.IActionSource;
+import appeng.api.stacks.AEKey;
+import appeng.api.storage.MEStorage;
+
+/**
+ * Remembers which mounted inventory {@link NetworkStorage#insert} put each key into the last time, so that repeated
+ * inserts of the same key can go straight to that inventory. Otherwise, every insert asks all inventories with a higher
+ * rank whether they are the preferred storage for the key, and tries to insert into those that are full or don't
+ * accept the key.
+ * <p/>
+ * A route is only used while the inventories ranked before its target would still not take the key. For storage
+ * cells, whose content only changes through the network storage or is reported to the {@link StorageChangeJournal},
+ * this is the case until their content changes in any way other than inserting other keys. All other inventories are
+ * asked with a simulated insert every time a route is used.
+ */
+final class InsertRoutingCache {
+    /**
+     * Upper bound for the number of remembered routes. The least recently used route is dropped first.
+     */
+    private static final int MAX_ROUTES = 4096;
+
+    private final Map<AEKey, Route> routes = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<AEKey, Route> eldest) {
+            return size() > MAX_ROUTES;
+        }
+    };
+    private final Map<MEStorage, Mount> mounts = new IdentityHashMap<>();
+    private final List<Mount> unstableMounts = new ArrayList<>();
+    /**
+     * Incremented for every change to a stable inventory that may cause it to accept keys it previously rejected.
+     */
+    private long version;
+
+    void onMount(MEStorage inventory, int priority) {
+        var mount = new Mount(inventory, priority, isStable(inventory));
+        mounts.put(inventory, mount);
+        if (!mount.stable) {
+            unstableMounts.add(mount);
+        }
+        routes.clear();
+    }
+
+    void onUnmount(MEStorage inventory) {
+        var mount = mounts.remove(inventory);
+        if (mount != null && !mount.stable) {
+            unstableMounts.remove(mount);
+        }
+        routes.clear();
+    }
+
+    /**
+     * Called when the content of a mounted inventory changed for any reason other than the network storage inserting
+     * into it.
+     */
+    void onChanged(MEStorage inventory) {
+        var mount = mounts.get(inventory);
+        if (mount != null && mount.stable) {
+            mount.changedAt = ++version;
+        }
+    }
+
+    /**
+     * Called when a key was extracted from the network storage. This may cause the target of its route to no longer be
+     * the preferred storage for the key.
+     */
+    void onExtracted(AEKey what) {
+        routes.remove(what);
+    }
+
+    void setRoute(AEKey what, @Nullable MEStorage target, int priority) {
+        if (target == null) {
+            routes.put(what, new Route(null, Integer.MIN_VALUE, version));
+        } else {
+            var mount = mounts.get(target);
+            if (mount != null && mount.stable) {
+                routes.put(what, new Route(target, priority, version));
+            } else {
+                routes.remove(what);
+            }
+        }
+    }
+
+    void removeRoute(AEKey what) {
+        routes.remove(what);
+    }
+
+    /**
+     * Finds the route for the given key, if the inventories ranked before its target would not take any of it.
+     *
+     * @param priorityInventory The mounted inventories of the network storage.
+     */
+    @Nullable
+    Route findRoute(AEKey what, long amount, IActionSource src,
+            NavigableMap<Integer, List<MEStorage>> priorityInventory) {
+        var route = routes.get(what);
+        if (route == null) {
+            return null;
+        }
+
+        if (version > route.validatedAt) {
+            // The map is sorted by descending priority, so this includes all inventories ranked before the target
+            for (var inventories : priorityInventory.headMap(route.priority, true).values()) {
+                for (var inventory : inventories) {
+                    if (inventory == route.target) {
+                        continue;
+                    }
+                    var mount = mounts.get(inventory);
+                    if (mount != null && mount.stable && mount.changedAt > route.validatedAt) {
+                        routes.remove(what);
+                        return null;
+                    }
+                }
+            }
+            route.validatedAt = version;
+        }
+
+        for (var mount : unstableMounts) {
+            if (mount.priority >= route.priority
+                    && mount.inventory.insert(what, amount, Actionable.SIMULATE, src) > 0) {
+                // Not removing the route since this is likely temporary, i.e. a crafting CPU waiting for the key
+                return null;
+            }
+        }
+
+        return route;
+    }
+
+    /**
+     * Storage cells in drives only change through the network storage, and other inventories can opt in by reporting
+     * all of their changes.
+     */
+    static boolean isStable(MEStorage inventory) {
+        return inventory instanceof DriveWatcher
+                || inventory instanceof IJournaledStorage journaledStorage && journaledStorage.reportsAllChanges();
+    }
+
+    static final class Route {
+        /**
+         * The inventory that took all of the key, or null if no inventory accepted any of it.
+         */
+        @Nullable
+        private final MEStorage target;
+        private final int priority;
+        private long validatedAt;
+
+        private Route(@Nullable MEStorage target, int priority, long validatedAt) {
+            this.target = target;
+            this.priority = priority;
+            this.validatedAt = validatedAt;
+        }
+
+        @Nullable
+        MEStorage getTarget() {
+            return target;
+        }
+    }
+
+    private static final class Mount {
+        private final MEStorage inventory;
+        private final int priority;
+        private final boolean stable;
+        private long changedAt;
+
+        private Mount(MEStorage inventory, int priority, boolean stable) {
+            this.inventory = inventory;
+            this.priority = priority;
+            this.stable = stable;
+        }
+    }
+}
@@ -58,11 +58,48 @@ public class NetworkStorage implements MEStorage {
     // Is only non-null if something is queued
     @Nullable
     private List<QueuedOperation> queuedOperations;
+    private final StorageChangeJournal changeJournal = new StorageChangeJournal(this::onInventoryChanged);
+    @Nullable
+    private InsertRoutingCache routingCache;
+    @Nullable
+    private ExtractionIndex extractionIndex;
 
     public NetworkStorage() {
         this.priorityInventory = new TreeMap<>(PRIORITY_SORTER);
     }
 
+    /**
+     * Enables remembering which inventory each key was inserted into, see {@link InsertRoutingCache}.
+     */
+    public void setInsertRoutingEnabled(boolean enabled) {
+        if (enabled && routingCache == null) {
+            routingCache = new InsertRoutingCache();
+            for (var entry : priorityInventory.entrySet()) {
+                for (var inventory : entry.getValue()) {
+                    routingCache.onMount(inventory, entry.getKey());
+                }
+            }
+        } else if (!enabled) {
+            routingCache = null;
+        }
+    }
+
+    /**
+     * Enables remembering which inventories may contain each key, see {@link ExtractionIndex}.
+     */
+    public void setExtractionIndexEnabled(boolean enabled) {
+        if (enabled && extractionIndex == null) {
+            extractionIndex = new ExtractionIndex();
+            for (var entry : priorityInventory.entrySet()) {
+                for (var inventory : entry.getValue()) {
+                    extractionIndex.onMount(inventory, entry.getKey());
+                }
+            }
+        } else if (!enabled) {
+            extractionIndex = null;
+        }
+    }
+
     public void mount(int priority, MEStorage inventory) {
         if (mountsInUse) {
             if (queuedOperations == null) {
@@ -72,6 +109,13 @@ public void mount(int priority, MEStorage inventory) {
         } else {
             this.priorityInventory.computeIfAbsent(priority, k -> new ArrayList<>())
                     .add(inventory);
+            this.changeJournal.onMount(inventory);
+            if (this.routingCache != null) {
+                this.routingCache.onMount(inventory, priority);
+            }
+            if (this.extractionIndex != null) {
+                this.extractionIndex.onMount(inventory, priority);
+            }
         }
     }
 
@@ -91,6 +135,13 @@ public void unmount(MEStorage inventory) {
                     prioIt.remove();
                 }
             }
+            this.changeJournal.onUnmount(inventory);
+            if (this.routingCache != null) {
+                this.routingCache.onUnmount(inventory);
+            }
+            if (this.extractionIndex != null) {
+                this.extractionIndex.onUnmount(inventory);
+            }
         }
     }
 
@@ -101,51 +152,133 @@ public long insert(AEKey what, long amount, Actionable type, IActionSource src)
 
         var remaining = amount;
 
+        // Checking a route simulates inserts even while modulating, which may lead back into this network storage
+        var wasInUse = this.mountsInUse;
         this.mountsInUse = true;
         try {
-            for (var invList : this.priorityInventory.values()) {
-                secondPassInventories.clear();
+            var routingCache = this.queuedOperations == null ? this.routingCache : null;
+            var route = routingCache != null ? routingCache.findRoute(what, amount, src, priorityInventory) : null;
+            if (route == null) {
+                remaining = insertIntoMounts(what, remaining, type, src, null);
+            } else if (route.getTarget() != null) {
+                var target = route.getTarget();
+                remaining -= insertInto(target, what, remaining, type, src);
+                if (remaining > 0) {
+                    // The target no longer takes everything, continue as if it was the first inventory we tried
+                    routingCache.removeRoute(what);
+                    remaining = insertIntoMounts(what, remaining, type, src, target);
+                }
+            }
+        } finally {
+            this.mountsInUse = wasInUse;
+        }
 
-                // First give every inventory a chance to accept the item if it's preferential storage for the given
-                // stack
-                var ii = invList.iterator();
-                while (ii.hasNext() && remaining > 0) {
-                    var inv = ii.next();
+        this.surface(type);
 
-                    if (isQueuedForRemoval(inv)) {
-                        continue;
-                    }
+        if (!wasInUse) {
+            flushQueuedOperations();
+        }
 
-                    if (inv.isPreferredStorageFor(what, src)) {
-                        remaining -= inv.insert(what, remaining, type, src);
-                    } else {
-                        secondPassInventories.add(inv);
-                    }
+        return amount - remaining;
+    }
+
+    /**
+     * Offers the key to all mounted inventories, by descending priority. Inventories that are the preferred storage for
+     * the key are offered the key first, before all other inventories of the same priority.
+     *
+     * @param skip An inventory that was already offered the key.
+     * @return The amount that was not inserted.
+     */
+    private long insertIntoMounts(AEKey what, long remaining, Actionable type, IActionSource src,
+            @Nullable MEStorage skip) {
+        var amount = remaining;
+        // The first inventory that accepted the key, and whether it accepted all of it
+        MEStorage firstTarget = null;
+        var firstTargetPriority = 0;
+        var firstTargetTookAll = false;
+
+        for (var entry : this.priorityInventory.entrySet()) {
+            var invList = entry.getValue();
+            secondPassInventories.clear();
+
+            // First give every inventory a chance to accept the item if it's preferential storage for the given
+            // stack
+            var ii = invList.iterator();
+            while (ii.hasNext() && remaining > 0) {
+                var inv = ii.next();
+
+                if (inv == skip || isQueuedForRemoval(inv)) {
+                    continue;
                 }
 
-                // Then give every remaining inventory a chance
-                for (var inv : secondPassInventories) {
-                    if (remaining <= 0) {
-                        break;
+                if (inv.isPreferredStorageFor(what, src)) {
+                    var inserted = insertInto(inv, what, remaining, type, src);
+                    if (inserted > 0 && firstTarget == null) {
+                        firstTarget = inv;
+                        firstTargetPriority = entry.getKey();
+                        firstTargetTookAll = inserted >= remaining;
                     }
+                    remaining -= inserted;
+                } else {
+                    secondPassInventories.add(inv);
+                }
+            }
 
-                    if (isQueuedForRemoval(inv)) {
-                        continue;
-                    }
+            // Then give every remaining inventory a chance
+            for (var inv : secondPassInventories) {
+                if (remaining <= 0) {
+                    break;
+                }
 
-                    remaining -= inv.insert(what, remaining, type, src);
+                if (isQueuedForRemoval(inv)) {
+                    continue;
                 }
+
+                var inserted = insertInto(inv, what, remaining, type, src);
+                if (inserted > 0 && firstTarget == null) {
+                    firstTarget = inv;
+                    firstTargetPriority = entry.getKey();
+                    firstTargetTookAll = inserted >= remaining;
+                }
+                remaining -= inserted;
             }
+        }
 
-        } finally {
-            this.mountsInUse = false;
+        var routingCache = this.routingCache;
+        if (routingCache != null && skip == null && this.queuedOperations == null) {
+            if (remaining == amount) {
+                routingCache.setRoute(what, null, 0);
+            } else if (firstTargetTookAll) {
+                routingCache.setRoute(what, firstTarget, firstTargetPriority);
+            } else {
+                routingCache.removeRoute(what);
+            }
         }
 
-        this.surface(type);
+        return remaining;
+    }
 
-        flushQueuedOperations();
+    private long insertInto(MEStorage inv, AEKey what, long amount, Actionable type, IActionSource src) {
+        var inserted = inv.insert(what, amount, type, src);
+        if (inserted > 0 && type == Actionable.MODULATE) {
+            changeJournal.recordChange(inv);
+            if (extractionIndex != null) {
+                extractionIndex.onInserted(inv, what);
+            }
+        }
+        return inserted;
+    }
 
-        return amount - remaining;
+    /**
+     * Called when a mounted inventory reports a change to its content that did not go through this network storage.
+     */
+    private void onInventoryChanged(MEStorage inventory) {
+        if (this.routingCache != null) {
+            this.routingCache.onChanged(inventory);
+        }
+        if (this.extractionIndex != null) {
+            this.extractionIndex.onChanged(inventory);
+        }
     }
 
     private void flushQueuedOperations() {
@@ -211,31 +344,68 @@ public long extract(AEKey what, long amount, Actionable mode, IActionSource sour
 
         var extracted = 0L;
 
+        var wasInUse = this.mountsInUse;
         this.mountsInUse = true;
         try {
-            for (var invList : this.priorityInventory.descendingMap().values()) {
-                var ii = invList.iterator();
-                while (ii.hasNext() && extracted < amount) {
-                    var inv = ii.next();
+            var extractionIndex = this.queuedOperations == null ? this.extractionIndex : null;
+            if (extractionIndex != null) {
+                for (var inv : extractionIndex.getCandidates(what)) {
+                    if (extracted >= amount) {
+                        break;
+                    }
 
                     if (isQueuedForRemoval(inv)) {
                         continue;
                     }
 
-                    extracted += inv.extract(what, amount - extracted, mode, source);
+                    extracted += extractFrom(inv, what, amount - extracted, mode, source);
+                }
+            } else {
+                for (var invList : this.priorityInventory.descendingMap().values()) {
+                    var ii = invList.iterator();
+                    while (ii.hasNext() && extracted < amount) {
+                        var inv = ii.next();
+
+                        if (isQueuedForRemoval(inv)) {
+                            continue;
+                        }
+
+                        extracted += extractFrom(inv, what, amount - extracted, mode, source);
+                    }
                 }
             }
         } finally {
-            this.mountsInUse = false;
+            this.mountsInUse = wasInUse;
+        }
+
+        if (extracted > 0 && mode == Actionable.MODULATE && routingCache != null) {
+            routingCache.onExtracted(what);
         }
 
         this.surface(mode);
 
-        flushQueuedOperations();
+        if (!wasInUse) {
+            flushQueuedOperations();
+        }
 
         return extracted;
     }
 
+    private long extractFrom(MEStorage inv, AEKey what, long amount, Actionable mode, IActionSource source) {
+        var extracted = inv.extract(what, amount, mode, source);
+        if (extracted > 0 && mode == Actionable.MODULATE) {
+            changeJournal.recordChange(inv);
+            if (routingCache != null) {
+                // The inventory may now have room for keys it previously rejected
+                routingCache.onChanged(inv);
+            }
+        }
+        if (extractionIndex != null) {
+            extractionIndex.onExtracted(inv, what, extracted);
+        }
+        return extracted;
+    }
+
     @Override
     public void getAvailableStacks(KeyCounter out) {
         if (diveIteration(Actionable.SIMULATE)) {
@@ -251,6 +421,81 @@ public void getAvailableStacks(KeyCounter out) {
         this.surface(Actionable.SIMULATE);
     }
 
+    public StorageChangeJournal getChangeJournal() {
+        return changeJournal;
+    }
+
+    /**
+     * Same as {@link #getAvailableStacks(KeyCounter)}, but also records the content of each mounted inventory in the
+     * {@link #getChangeJournal() change journal}, so that subsequent changes can be {@link #collectChanges collected}
+     * incrementally.
+     */
+    public void rescanAvailableStacks(KeyCounter out) {
+        if (!changeJournal.isEnabled()) {
+            getAvailableStacks(out);
+            return;
+        }
+
+        if (diveIteration(Actionable.SIMULATE)) {
+            return;
+        }
+
+        for (var i : this.priorityInventory.values()) {
+            for (var j : i) {
+                var content = new KeyCounter();
+                j.getAvailableStacks(content);
+                changeJournal.setContent(j, content);
+                out.addAll(content);
+            }
+        }
+
+        this.surface(Actionable.SIMULATE);
+
+        changeJournal.onFullRescan();
+    }
+
+    /**
+     * Collects the changes to the available stacks since the last call to this method or to
+     * {@link #rescanAvailableStacks}, by rescanning only the inventories that changed in the meantime.
+     *
+     * @param deltas Receives the change in amount for every key that may have changed. Amounts can be negative or
+     *               zero.
+     * @return False if the changes could not be collected and a full rescan is required instead.
+     */
+    public boolean collectChanges(KeyCounter deltas) {
+        if (changeJournal.isFullRescanRequired()) {
+            return false;
+        }
+
+        var inventories = changeJournal.drainInventoriesToRescan();
+        if (inventories.isEmpty()) {
+            return true;
+        }
+
+        if (diveIteration(Actionable.SIMULATE)) {
+            return false;
+        }
+
+        for (var inventory : inventories) {
+            var content = changeJournal.getContent(inventory);
+            if (content == null) {
+                // The inventory was never scanned, so we don't know how much it contributes to the total
+                changeJournal.invalidate();
+                break;
+            }
+
+            // Swap out the previous content for the current content, and record the difference
+            deltas.removeAll(content);
+            content.clear();
+            inventory.getAvailableStacks(content);
+            deltas.addAll(content);
+        }
+
+        this.surface(Actionable.SIMULATE);
+
+        return !changeJournal.isFullRescanRequired();
+    }
+
     private boolean diveIteration(Actionable type) {
         var cDepth = this.getDepth(type);
         if (cDepth.isEmpty()) {
@@ -0,0 +1,164 @@
+package appeng.me.storage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.jetbrains.annotations.Nullable;
+
+import appeng.api.stacks.KeyCounter;
+import appeng.api.storage.MEStorage;
+
+/**
+ * Keeps track of which inventories mounted into a {@link NetworkStorage} changed since the cached inventory of the
+ * grid was last updated. This allows the cached inventory to be updated by rescanning only the inventories that
+ * actually changed, instead of every inventory on the network.
+ * <p/>
+ * Changes made through the network storage are recorded automatically. Inventories that can also change without going
+ * through the network storage have to report those changes themselves, see {@link IJournaledStorage}.
+ */
+public final class StorageChangeJournal {
+    /**
+     * The content of each mounted inventory, as it is currently reflected by the cached inventory of the grid.
+     */
+    private final Map<MEStorage, KeyCounter> mountedContent = new IdentityHashMap<>();
+    private final Set<MEStorage> changedInventories = Collections.newSetFromMap(new IdentityHashMap<>());
+    /**
+     * Inventories that can change without the journal being notified, and that have to be rescanned whenever changes
+     * are collected.
+     */
+    private final Set<MEStorage> volatileInventories = Collections.newSetFromMap(new IdentityHashMap<>());
+    /**
+     * Notified about changes that inventories report themselves, as opposed to those made through the network storage.
+     */
+    private final Consumer<MEStorage> externalChangeListener;
+    private boolean enabled;
+    private boolean fullRescanRequired = true;
+
+    public StorageChangeJournal() {
+        this(inventory -> {
+        });
+    }
+
+    StorageChangeJournal(Consumer<MEStorage> externalChangeListener) {
+        this.externalChangeListener = externalChangeListener;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        if (this.enabled != enabled) {
+            this.enabled = enabled;
+            invalidate();
+            if (!enabled) {
+                mountedContent.clear();
+            }
+        }
+    }
+
+    /**
+     * @return True if changes can't be collected incrementally and the entire network storage has to be rescanned.
+     */
+    public boolean isFullRescanRequired() {
+        return !enabled || fullRescanRequired;
+    }
+
+    /**
+     * Discards all recorded changes and requests a full rescan of the network storage.
+     */
+    public void invalidate() {
+        fullRescanRequired = true;
+        changedInventories.clear();
+    }
+
+    /**
+     * Notifies the journal that the content of a mounted inventory changed.
+     */
+    public void inventoryChanged(MEStorage inventory) {
+        recordChange(inventory);
+        externalChangeListener.accept(inventory);
+    }
+
+    /**
+     * Records a change that was made through the network storage.
+     */
+    void recordChange(MEStorage inventory) {
+        if (enabled && !fullRescanRequired) {
+            changedInventories.add(inventory);
+        }
+    }
+
+    /**
+     * Marks a mounted inventory as volatile, meaning that its content can change without the journal being notified.
+     * Volatile inventories are rescanned every time changes are collected.
+     */
+    public void setVolatile(MEStorage inventory, boolean isVolatile) {
+        if (isVolatile) {
+            volatileInventories.add(inventory);
+        } else {
+            volatileInventories.remove(inventory);
+        }
+    }
+
+    void onMount(MEStorage inventory) {
+        invalidate();
+        if (inventory instanceof IJournaledStorage journaledStorage) {
+            journaledStorage.setChangeJournal(this);
+        }
+    }
+
+    void onUnmount(MEStorage inventory) {
+        invalidate();
+        mountedContent.remove(inventory);
+        volatileInventories.remove(inventory);
+        if (inventory instanceof IJournaledStorage journaledStorage) {
+            journaledStorage.setChangeJournal(null);
+        }
+    }
+
+    /**
+     * Called for each mounted inventory during a full rescan.
+     */
+    void setContent(MEStorage inventory, KeyCounter content) {
+        mountedContent.put(inventory, content);
+    }
+
+    /**
+     * Called after a full rescan of the network storage has completed.
+     */
+    void onFullRescan() {
+        fullRescanRequired = !enabled;
+        changedInventories.clear();
+    }
+
+    @Nullable
+    KeyCounter getContent(MEStorage inventory) {
+        return mountedContent.get(inventory);
+    }
+
+    /**
+     * @return The inventories that need to be rescanned to collect all changes. Resets the list of changed
+     *         inventories.
+     */
+    List<MEStorage> drainInventoriesToRescan() {
+        if (changedInventories.isEmpty() && volatileInventories.isEmpty()) {
+            return List.of();
+        }
+
+        var result = new ArrayList<MEStorage>(changedInventories.size() + volatileInventories.size());
+        result.addAll(changedInventories);
+        for (var inventory : volatileInventories) {
+            if (!changedInventories.contains(inventory)) {
+                result.add(inventory);
+            }
+        }
+        changedInventories.clear();
+        return result;
+    }
+}
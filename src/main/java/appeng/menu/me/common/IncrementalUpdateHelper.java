@@ -18,8 +18,10 @@
 
 package appeng.menu.me.common;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.Spliterator;
 import java.util.function.Consumer;
@@ -48,7 +50,10 @@ public class IncrementalUpdateHelper implements Iterable<AEKey> {
      */
     private final BiMap<AEKey, Long> mapping;
 
-    private final Set<AEKey> changes = new HashSet<>();
+    /**
+     * The keys that need to be sent to the client, in the order they should be sent in.
+     */
+    private final Set<AEKey> changes = new LinkedHashSet<>();
 
     private long serial;
 
@@ -77,11 +82,13 @@ public AEKey getBySerial(long serial) {
     /**
      * Clear pending changes and prepare for a full update.
      * <p/>
-     * Mappings are kept because even in case of a full update, many items are usually still present and should keep
-     * their serial.
+     * The client discards everything it knows when it receives a full update, so all keys have to be sent again and
+     * are assigned new serials. The serial counter is not reset, so that requests from the client referring to a serial
+     * from before the full update can't be mistaken for a different key.
      */
     public void clear() {
         this.changes.clear();
+        this.mapping.clear();
         fullUpdate = true;
     }
 
@@ -114,6 +121,24 @@ public void commitChanges() {
         fullUpdate = false;
     }
 
+    /**
+     * Marks the changes that were removed through {@link #iterator()} as sent, and keeps the remaining changes for the
+     * next update.
+     */
+    public void commitSentChanges() {
+        fullUpdate = false;
+    }
+
+    /**
+     * Changes the order in which the pending changes will be sent.
+     */
+    public void sortChanges(Comparator<AEKey> comparator) {
+        var sorted = new ArrayList<>(changes);
+        sorted.sort(comparator);
+        changes.clear();
+        changes.addAll(sorted);
+    }
+
     public boolean hasChanges() {
         return fullUpdate || !changes.isEmpty();
     }
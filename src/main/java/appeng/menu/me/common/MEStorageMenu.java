@@ -20,6 +20,7 @@
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Predicate;
@@ -67,6 +68,7 @@
 import appeng.api.util.IConfigManager;
 import appeng.api.util.IConfigurableObject;
 import appeng.client.gui.me.common.MEStorageScreen;
+import appeng.core.AEConfig;
 import appeng.core.AELog;
 import appeng.core.sync.network.NetworkHandler;
 import appeng.core.sync.packets.ConfigValuePacket;
@@ -74,6 +76,7 @@
 import appeng.core.sync.packets.MEInventoryUpdatePacket;
 import appeng.helpers.InventoryAction;
 import appeng.me.helpers.ChannelPowerSrc;
+import appeng.me.service.StorageService;
 import appeng.menu.AEBaseMenu;
 import appeng.menu.SlotSemantics;
 import appeng.menu.ToolboxMenu;
@@ -149,7 +152,17 @@ public class MEStorageMenu extends AEBaseMenu
      * The last set of craftables sent to the client.
      */
     private Set<AEKey> previousCraftables = Collections.emptySet();
+    /**
+     * The stacks last sent to the client. Not used if the menu shows the grid inventory, in which case the changes are
+     * tracked by the {@link #sharedStorageService}.
+     */
     private KeyCounter previousAvailableStacks = new KeyCounter();
+    @Nullable
+    private StorageService sharedStorageService;
+    /**
+     * The version of the {@link StorageService#getCachedInventoryChanges() shared inventory} last sent to the client.
+     */
+    private long lastSeenInventoryVersion = -1;
 
     public MEStorageMenu(MenuType<?> menuType, int id, Inventory ip, ITerminalHost host) {
         this(menuType, id, ip, host, true);
@@ -262,30 +275,67 @@ public void broadcastChanges() {
             }
 
             var craftables = getCraftablesFromGrid();
-            var availableStacks = storage == null ? new KeyCounter() : storage.getAvailableStacks();
+
+            // Terminals showing the grid inventory share the grid's cached inventory
+            var sharedStorageService = getSharedStorageService();
+            if (sharedStorageService != this.sharedStorageService) {
+                this.sharedStorageService = sharedStorageService;
+                this.previousAvailableStacks = new KeyCounter();
+                this.previousCraftables = Collections.emptySet();
+                this.updateHelper.clear();
+            }
+
+            KeyCounter availableStacks;
+            if (sharedStorageService != null) {
+                availableStacks = sharedStorageService.getCachedInventory();
+            } else {
+                availableStacks = storage == null ? new KeyCounter() : storage.getAvailableStacks();
+            }
 
             // This is currently not supported/backed by any network service
             var requestables = new KeyCounter();
 
             try {
+                // Available changes
+                if (sharedStorageService != null) {
+                    var changeLog = sharedStorageService.getCachedInventoryChanges();
+                    if (updateHelper.isFullUpdate()
+                            || !changeLog.getChangesSince(lastSeenInventoryVersion, updateHelper::addChange)) {
+                        // A full update clears the client-side repo, so all craftables need to be resent too
+                        updateHelper.clear();
+                        previousCraftables = Collections.emptySet();
+                        for (var entry : availableStacks) {
+                            if (entry.getLongValue() > 0) {
+                                updateHelper.addChange(entry.getKey());
+                            }
+                        }
+                    }
+                    lastSeenInventoryVersion = changeLog.getVersion();
+                } else {
+                    previousAvailableStacks.removeAll(availableStacks);
+                    previousAvailableStacks.removeZeros();
+                    previousAvailableStacks.keySet().forEach(updateHelper::addChange);
+                }
+
                 // Craftables
                 // Newly craftable
                 Sets.difference(previousCraftables, craftables).forEach(updateHelper::addChange);
                 // No longer craftable
                 Sets.difference(craftables, previousCraftables).forEach(updateHelper::addChange);
 
-                // Available changes
-                previousAvailableStacks.removeAll(availableStacks);
-                previousAvailableStacks.removeZeros();
-                previousAvailableStacks.keySet().forEach(updateHelper::addChange);
-
                 if (updateHelper.hasChanges()) {
+                    var maxEntries = AEConfig.instance().getTerminalMaxEntriesPerTick();
+                    if (maxEntries <= 0) {
+                        maxEntries = Integer.MAX_VALUE;
+                    } else if (updateHelper.isFullUpdate()) {
+                        prioritizeInitialEntries(availableStacks);
+                    }
+
                     var builder = MEInventoryUpdatePacket
-                            .builder(containerId, updateHelper.isFullUpdate());
+                            .builder(containerId, updateHelper.isFullUpdate(), getPlayer());
                     builder.setFilter(this::isKeyVisible);
-                    builder.addChanges(updateHelper, availableStacks, craftables, requestables);
+                    builder.addChanges(updateHelper, availableStacks, craftables, requestables, maxEntries);
                     builder.buildAndSend(this::sendPacketToClient);
-                    updateHelper.commitChanges();
                 }
 
             } catch (Exception e) {
@@ -293,7 +343,9 @@ public void broadcastChanges() {
             }
 
             previousCraftables = ImmutableSet.copyOf(craftables);
-            previousAvailableStacks = availableStacks;
+            if (sharedStorageService == null) {
+                previousAvailableStacks = availableStacks;
+            }
 
             this.updatePowerStatus();
 
@@ -306,6 +358,42 @@ protected boolean showsCraftables() {
         return true;
     }
 
+    /**
+     * When a full update is sent over several ticks, this sends the entries that the terminal shows first before the
+     * others, if the server can tell which ones those are. Names are only known to the client, so this is only possible
+     * when sorting by amount.
+     */
+    private void prioritizeInitialEntries(KeyCounter availableStacks) {
+        if (serverCM.getSetting(Settings.SORT_BY) != SortOrder.AMOUNT) {
+            return;
+        }
+
+        Comparator<AEKey> comparator = Comparator.comparingLong(availableStacks::get);
+        if (serverCM.getSetting(Settings.SORT_DIRECTION) != SortDir.ASCENDING) {
+            comparator = comparator.reversed();
+        }
+        updateHelper.sortChanges(comparator);
+    }
+
+    /**
+     * @return The storage service of the grid, if this menu shows the content of the entire grid inventory.
+     */
+    @Nullable
+    private StorageService getSharedStorageService() {
+        IGridNode hostNode = networkNode;
+        // Wireless terminals do not directly expose the target grid (even though they have one)
+        if (hostNode == null && host instanceof IActionHost actionHost) {
+            hostNode = actionHost.getActionableNode();
+        }
+
+        if (storage != null && hostNode != null && hostNode.isActive()
+                && hostNode.getGrid().getStorageService() instanceof StorageService storageService
+                && storageService.getInventory() == storage) {
+            return storageService;
+        }
+        return null;
+    }
+
     private Set<AEKey> getCraftablesFromGrid() {
         IGridNode hostNode = networkNode;
         // Wireless terminals do not directly expose the target grid (even though they have one)
@@ -741,6 +829,9 @@ public boolean hasIngredient(Predicate<ItemStack> ingredient, int amount) {
      */
     protected final KeyCounter getPreviousAvailableStacks() {
         Preconditions.checkState(isServerSide());
+        if (sharedStorageService != null) {
+            return sharedStorageService.getCachedInventory();
+        }
         return previousAvailableStacks;
     }
 
@@ -10,6 +10,7 @@
 
 import appeng.api.behaviors.ExternalStorageStrategy;
 import appeng.api.storage.MEStorage;
+import appeng.core.AEConfig;
 import appeng.util.BlockApiCache;
 
 public class ForgeExternalStorageStrategy<C, S> implements ExternalStorageStrategy {
@@ -38,6 +39,8 @@ public MEStorage createWrapper(boolean extractableOnly, Runnable injectOrExtract
         var result = conversion.getFacade(storage);
         result.setChangeListener(injectOrExtractCallback);
         result.setExtractableOnly(extractableOnly);
+        result.setSlotIndexEnabled(AEConfig.instance().isStorageBusSlotIndexEnabled());
+        result.setSlotKeyCacheEnabled(AEConfig.instance().isStorageBusSlotKeyCacheEnabled());
         return result;
     }
 
@@ -62,6 +62,7 @@
 import appeng.api.util.AECableType;
 import appeng.api.util.IConfigManager;
 import appeng.capabilities.Capabilities;
+import appeng.core.AEConfig;
 import appeng.core.AppEng;
 import appeng.core.definitions.AEItems;
 import appeng.core.settings.TickRates;
@@ -72,9 +73,11 @@
 import appeng.items.parts.PartModels;
 import appeng.me.helpers.MachineSource;
 import appeng.me.storage.CompositeStorage;
+import appeng.me.storage.IJournaledStorage;
 import appeng.me.storage.ITickingMonitor;
 import appeng.me.storage.MEInventoryHandler;
 import appeng.me.storage.NullInventory;
+import appeng.me.storage.StorageChangeJournal;
 import appeng.menu.ISubMenu;
 import appeng.menu.MenuOpener;
 import appeng.menu.implementations.StorageBusMenu;
@@ -260,7 +263,12 @@ public final TickRateModulation tickingRequest(IGridNode node, int ticksSinceLas
         }
 
         if (this.monitor != null) {
-            return this.monitor.onTick();
+            var result = this.monitor.onTick();
+            if (result == TickRateModulation.URGENT) {
+                // The monitor detected a change in the external inventory
+                this.handler.onContentChanged();
+            }
+            return result;
         }
 
         return this.updateStatus == PendingUpdateStatus.SLOW_UPDATE ? TickRateModulation.IDLE
@@ -336,7 +344,9 @@ private void updateTarget(boolean forceFullUpdate) {
             this.checkStorageBusOnInterface();
             handlerDescription = newInventory.getDescription();
         } else if (!foundExternalApi.isEmpty()) {
-            newInventory = new CompositeStorage(foundExternalApi);
+            var externalStorage = new CompositeStorage(foundExternalApi);
+            externalStorage.setBackoffThreshold(AEConfig.instance().getStorageBusBackoffScans());
+            newInventory = externalStorage;
             handlerDescription = newInventory.getDescription();
         } else {
             newInventory = NullInventory.of();
@@ -377,6 +387,9 @@ private void updateTarget(boolean forceFullUpdate) {
 
         if (wasRegistered != this.hasRegisteredCellToNetwork()) {
             remountStorage();
+        } else {
+            // The inventory or its filters changed without being remounted
+            this.handler.onContentChanged();
         }
     }
 
@@ -456,7 +469,10 @@ public final void setPriority(int newValue) {
     /**
      * This inventory forwards to the actual external inventory and allows the inventory to be swapped out underneath.
      */
-    private static class StorageBusInventory extends MEInventoryHandler {
+    private static class StorageBusInventory extends MEInventoryHandler implements IJournaledStorage {
+        @Nullable
+        private StorageChangeJournal changeJournal;
+
         public StorageBusInventory(MEStorage inventory) {
             super(inventory);
         }
@@ -469,6 +485,28 @@ protected MEStorage getDelegate() {
         @Override
         protected void setDelegate(MEStorage delegate) {
             super.setDelegate(delegate);
+            updateVolatile();
+        }
+
+        @Override
+        public void setChangeJournal(@Nullable StorageChangeJournal journal) {
+            this.changeJournal = journal;
+            updateVolatile();
+        }
+
+        public void onContentChanged() {
+            if (changeJournal != null) {
+                changeJournal.inventoryChanged(this);
+            }
+        }
+
+        private void updateVolatile() {
+            if (changeJournal != null) {
+                // Only external inventories are monitored by the storage bus, other ME networks don't report changes
+                var delegate = getDelegate();
+                changeJournal.setVolatile(this,
+                        !(delegate instanceof ITickingMonitor) && !(delegate instanceof NullInventory));
+            }
         }
 
         public void setAccessRestriction(AccessRestriction setting) {
@@ -21,8 +21,10 @@
 import java.util.Locale;
 
 import appeng.server.services.compass.TestCompassCommand;
+import appeng.server.subcommands.CellCacheCommand;
 import appeng.server.subcommands.ChannelModeCommand;
 import appeng.server.subcommands.ChunkLogger;
+import appeng.server.subcommands.ProfileCommand;
 import appeng.server.subcommands.ReloadConfigCommand;
 import appeng.server.subcommands.SetupTestWorldCommand;
 import appeng.server.subcommands.SpatialStorageCommand;
@@ -37,6 +39,8 @@ public enum Commands {
     SPATIAL(4, "spatial", new SpatialStorageCommand()),
     CHANNEL_MODE(4, "channelmode", new ChannelModeCommand()),
     TICK_MONITORING(4, "tickmonitor", new TickMonitoring()),
+    CELL_CACHE(4, "cellcache", new CellCacheCommand()),
+    PROFILE(4, "profile", new ProfileCommand()),
 
     // Testing
     COMPASS(4, "compass", new TestCompassCommand(), true),
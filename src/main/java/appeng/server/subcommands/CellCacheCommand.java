@@ -0,0 +1,22 @@
+package appeng.server.subcommands;
+
+import com.mojang.brigadier.context.CommandContext;
+
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.server.MinecraftServer;
+
+import appeng.core.localization.PlayerMessages;
+import appeng.me.cells.CellContentCache;
+import appeng.server.ISubCommand;
+
+/**
+ * Shows how many storage cells currently have their content decoded, see {@link CellContentCache}.
+ */
+public class CellCacheCommand implements ISubCommand {
+    @Override
+    public void call(MinecraftServer srv, CommandContext<CommandSourceStack> ctx, CommandSourceStack sender) {
+        var stats = CellContentCache.instance().getStats();
+        sender.sendSuccess(() -> PlayerMessages.CellCacheStats.text(stats.cells(), stats.types(), stats.hits(),
+                stats.misses(), stats.evictions()), false);
+    }
+}
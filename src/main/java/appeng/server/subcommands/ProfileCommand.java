@@ -0,0 +1,49 @@
+package appeng.server.subcommands;
+
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
+
+import appeng.hooks.ticking.GridProfiler;
+import appeng.server.ISubCommand;
+
+/**
+ * Profiles the time spent ticking grids for a number of seconds, see {@link GridProfiler}. Running it again while
+ * profiling stops early and shows the report right away.
+ */
+public class ProfileCommand implements ISubCommand {
+    private static final int DEFAULT_SECONDS = 10;
+
+    @Override
+    public void addArguments(LiteralArgumentBuilder<CommandSourceStack> builder) {
+        builder.then(Commands.argument("seconds", IntegerArgumentType.integer(1, 3600)).executes(ctx -> {
+            start(ctx.getSource(), IntegerArgumentType.getInteger(ctx, "seconds"));
+            return 1;
+        }));
+    }
+
+    @Override
+    public void call(MinecraftServer srv, CommandContext<CommandSourceStack> ctx, CommandSourceStack sender) {
+        if (!GridProfiler.stop()) {
+            start(sender, DEFAULT_SECONDS);
+        }
+    }
+
+    private static void start(CommandSourceStack sender, int seconds) {
+        var started = GridProfiler.start(seconds * 20, report -> {
+            for (var line : report) {
+                sender.sendSuccess(() -> line, false);
+            }
+        });
+        if (started) {
+            sender.sendSuccess(() -> Component.literal("Profiling AE2 grids for " + seconds + " seconds"), false);
+        } else {
+            sender.sendFailure(Component.literal("AE2 grids are already being profiled"));
+        }
+    }
+}
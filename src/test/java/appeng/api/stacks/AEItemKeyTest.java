@@ -173,6 +173,28 @@ void testIsDamaged() {
         assertTrue(AEItemKey.of(stack).isDamaged());
     }
 
+    /**
+     * Converting the same stack object again must not return a stale key after its tag was modified in place.
+     */
+    @Test
+    void testStackModifiedInPlace() {
+        var stack = new ItemStack(Items.DIAMOND_SWORD);
+        var plain = AEItemKey.of(stack);
+        assertThat(plain).isSameAs(AEItemKey.of(Items.DIAMOND_SWORD));
+
+        stack.setDamageValue(1);
+        var damaged = AEItemKey.of(stack);
+        assertThat(damaged).isNotEqualTo(plain);
+        assertTrue(damaged.matches(stack));
+        assertFalse(plain.matches(stack));
+
+        stack.setDamageValue(2);
+        var moreDamaged = AEItemKey.of(stack);
+        assertThat(moreDamaged).isNotEqualTo(damaged);
+        assertEquals(2, moreDamaged.getFuzzySearchValue());
+        assertFalse(damaged.matches(stack));
+    }
+
     /**
      * Regression test for {@link FuzzySearch#COMPARATOR} wrongly using AEKey identity comparison as a last resort.
      */
@@ -189,7 +211,8 @@ void testDifferentInstances() {
                 var stack = new ItemStack(Items.DIAMOND_SWORD);
                 stack.enchant(Enchantments.SHARPNESS, i + 1);
                 keys[i] = AEItemKey.of(stack);
-                keyCopies[i] = AEItemKey.of(stack);
+                // Converting the same stack object twice in a row reuses the key, so use a copy of the stack
+                keyCopies[i] = AEItemKey.of(stack.copy());
 
                 // If we ever intern AEKeys, remember to update this test...
                 assertThat(keys[i]).isNotSameAs(keyCopies[i]);
@@ -0,0 +1,211 @@
+package appeng.client.gui.me.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.item.Items;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import appeng.api.config.SortDir;
+import appeng.api.config.SortOrder;
+import appeng.api.config.TypeFilter;
+import appeng.api.config.ViewItems;
+import appeng.api.stacks.AEItemKey;
+import appeng.client.gui.widgets.ISortSource;
+import appeng.core.AEConfig;
+import appeng.menu.me.common.GridInventoryEntry;
+import appeng.util.BootstrapMinecraft;
+
+/**
+ * Tests that updating the view of the repo with only the entries that changed results in the same view as rebuilding
+ * it from scratch.
+ */
+@BootstrapMinecraft
+class RepoTest {
+    private final Random random = new Random(1234);
+    private final List<AEItemKey> keys = BuiltInRegistries.ITEM.stream()
+            .filter(item -> item != Items.AIR)
+            .limit(100)
+            .map(AEItemKey::of)
+            .toList();
+    private final SortSource sortSource = new SortSource();
+    private final Repo repo = new Repo(() -> 0, sortSource);
+
+    /**
+     * The entries the server has sent, by serial.
+     */
+    private final Long2ObjectOpenHashMap<GridInventoryEntry> serverEntries = new Long2ObjectOpenHashMap<>();
+    private long nextSerial = 1;
+
+    @BeforeEach
+    void setUp() {
+        AEConfig.instance().CLIENT.searchTooltips.set(false);
+        PinnedKeys.clearPinnedKeys();
+        repo.handleUpdate(true, randomAdditions(200));
+    }
+
+    @AfterEach
+    void resetSearchTooltips() {
+        AEConfig.instance().CLIENT.searchTooltips.set(true);
+    }
+
+    @ParameterizedTest
+    @EnumSource(SortOrder.class)
+    void testRandomChangesMatchRebuild(SortOrder sortOrder) {
+        for (var sortDir : SortDir.values()) {
+            for (var viewMode : ViewItems.values()) {
+                sortSource.sortBy = sortOrder;
+                sortSource.sortDir = sortDir;
+                sortSource.viewMode = viewMode;
+                repo.updateView();
+
+                for (int i = 0; i < 20; i++) {
+                    repo.handleUpdate(false, randomChanges());
+                    assertViewMatchesRebuild();
+                }
+            }
+        }
+    }
+
+    /**
+     * Sorting by amount moves the entries whose amount changed, even if nothing else about them changed.
+     */
+    @Test
+    void testAmountChangesMoveEntriesWhenSortingByAmount() {
+        sortSource.sortBy = SortOrder.AMOUNT;
+        sortSource.sortDir = SortDir.DESCENDING;
+        repo.updateView();
+
+        var smallest = repo.get(repo.size() - 1);
+        repo.handleUpdate(false, List.of(
+                new GridInventoryEntry(smallest.getSerial(), null, Long.MAX_VALUE / 2, 0, false)));
+
+        assertThat(repo.get(0).getSerial()).isEqualTo(smallest.getSerial());
+        assertViewMatchesRebuild();
+    }
+
+    @Test
+    void testRandomChangesWithSearchMatchRebuild() {
+        repo.setSearchString("a");
+        repo.updateView();
+
+        for (int i = 0; i < 20; i++) {
+            repo.handleUpdate(false, randomChanges());
+            assertViewMatchesRebuild();
+        }
+    }
+
+    @Test
+    void testToggleSearchTooltips() {
+        repo.setSearchString("a");
+        repo.updateView();
+
+        AEConfig.instance().CLIENT.searchTooltips.set(true);
+        repo.handleUpdate(false, randomChanges());
+
+        assertViewMatchesRebuild();
+    }
+
+    /**
+     * Sends random additions, removals and amount changes to the repo.
+     */
+    private List<GridInventoryEntry> randomChanges() {
+        var changes = new ArrayList<GridInventoryEntry>();
+        var count = 1 + random.nextInt(20);
+        for (int i = 0; i < count; i++) {
+            var serials = serverEntries.keySet().toLongArray();
+            var op = serials.length == 0 ? 0 : random.nextInt(3);
+            if (op == 0) {
+                changes.addAll(randomAdditions(1));
+            } else {
+                var serial = serials[random.nextInt(serials.length)];
+                if (op == 1) {
+                    serverEntries.remove(serial);
+                    changes.add(new GridInventoryEntry(serial, null, 0, 0, false));
+                } else {
+                    // Amount changes don't send the key again
+                    var changed = randomEntry(serial, null);
+                    serverEntries.put(serial, changed);
+                    changes.add(changed);
+                }
+            }
+        }
+        return changes;
+    }
+
+    private List<GridInventoryEntry> randomAdditions(int count) {
+        var additions = new ArrayList<GridInventoryEntry>();
+        for (int i = 0; i < count; i++) {
+            var entry = randomEntry(nextSerial++, keys.get(random.nextInt(keys.size())));
+            serverEntries.put(entry.getSerial(), entry);
+            additions.add(entry);
+        }
+        return additions;
+    }
+
+    private GridInventoryEntry randomEntry(long serial, AEItemKey what) {
+        // Use few different amounts, so that entries with equal amounts are common
+        var craftable = random.nextInt(4) == 0;
+        var storedAmount = craftable ? random.nextInt(5) : 1 + random.nextInt(5);
+        return new GridInventoryEntry(serial, what, storedAmount, 0, craftable);
+    }
+
+    private void assertViewMatchesRebuild() {
+        var incrementalView = getView();
+        assertThat(incrementalView).extracting(GridInventoryEntry::getSerial)
+                .doesNotHaveDuplicates()
+                .allMatch(serverEntries::containsKey);
+
+        // Changing the row size invalidates the view
+        repo.setRowSize(repo.getRowSize() + 1);
+        repo.setRowSize(repo.getRowSize() - 1);
+        repo.updateView();
+
+        assertThat(incrementalView).containsExactlyElementsOf(getView());
+    }
+
+    private List<GridInventoryEntry> getView() {
+        var view = new ArrayList<GridInventoryEntry>(repo.size());
+        for (int i = 0; i < repo.size(); i++) {
+            view.add(repo.get(i));
+        }
+        return view;
+    }
+
+    private static class SortSource implements ISortSource {
+        private SortOrder sortBy = SortOrder.NAME;
+        private SortDir sortDir = SortDir.ASCENDING;
+        private ViewItems viewMode = ViewItems.ALL;
+
+        @Override
+        public SortOrder getSortBy() {
+            return sortBy;
+        }
+
+        @Override
+        public SortDir getSortDir() {
+            return sortDir;
+        }
+
+        @Override
+        public ViewItems getSortDisplay() {
+            return viewMode;
+        }
+
+        @Override
+        public TypeFilter getTypeFilter() {
+            return TypeFilter.ALL;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package appeng.core.sync.packets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.server.network.ServerGamePacketListenerImpl;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.Items;
+
+import appeng.api.stacks.AEItemKey;
+import appeng.core.AEConfig;
+import appeng.core.sync.BasePacket;
+import appeng.menu.me.common.GridInventoryEntry;
+import appeng.menu.me.common.IClientRepo;
+import appeng.menu.me.common.MEStorageMenu;
+import appeng.util.BootstrapMinecraft;
+
+/**
+ * Tests that the entries of inventory updates built on the server are decoded unchanged by the client, while keys are
+ * only sent in full once per connection.
+ */
+@BootstrapMinecraft
+class MEInventoryUpdatePacketTest {
+    private final List<AEItemKey> keys = BuiltInRegistries.ITEM.stream()
+            .filter(item -> item != Items.AIR)
+            .limit(100)
+            .map(AEItemKey::of)
+            .toList();
+
+    private final ServerPlayer serverPlayer = mock(ServerPlayer.class);
+    /**
+     * The client player with an open terminal, receiving the decoded entries.
+     */
+    private final Player clientPlayer = mock(Player.class);
+    private final List<GridInventoryEntry> received = new ArrayList<>();
+
+    private long nextSerial = 1;
+
+    @BeforeEach
+    void setUp() {
+        AEConfig.instance().COMMON.terminalKeyDictionarySize.set(1000);
+        AEConfig.instance().COMMON.terminalUpdateCompression.set(true);
+
+        // Every test uses a new connection, and therefore a new dictionary
+        serverPlayer.connection = mock(ServerGamePacketListenerImpl.class);
+        MEInventoryKeyDictionary.clientReset();
+
+        var menu = mock(MEStorageMenu.class);
+        when(menu.getClientRepo()).thenReturn(new RecordingRepo());
+        clientPlayer.containerMenu = menu;
+    }
+
+    @AfterEach
+    void resetConfig() {
+        AEConfig.instance().COMMON.terminalKeyDictionarySize.set(0);
+        AEConfig.instance().COMMON.terminalUpdateCompression.set(false);
+    }
+
+    @Test
+    void testKeysAreOnlySentOnce() throws Exception {
+        var first = entries(keys);
+        var firstPackets = send(true, first);
+        assertReceived(first);
+        assertThat(firstPackets).singleElement()
+                .satisfies(packet -> assertThat(packet.getLogDetails()).contains("full keys: 100,"));
+
+        // The same keys under new serials, i.e. after reopening the terminal
+        received.clear();
+        var second = entries(keys);
+        var secondPackets = send(false, second);
+        assertReceived(second);
+        assertThat(secondPackets).singleElement()
+                .satisfies(packet -> assertThat(packet.getLogDetails())
+                        .contains("full keys: 0,", "key references: 100)"));
+    }
+
+    @Test
+    void testEntriesSpanningSeveralPackets() throws Exception {
+        var sent = new ArrayList<GridInventoryEntry>();
+        while (sent.size() <= Short.MAX_VALUE) {
+            sent.addAll(entries(keys));
+        }
+
+        var packets = send(true, sent);
+
+        assertThat(packets).hasSizeGreaterThan(1);
+        assertReceived(sent);
+
+        // Keys registered by the first packets are known when decoding later packets of the same update
+        received.clear();
+        var next = entries(keys);
+        send(false, next);
+        assertReceived(next);
+    }
+
+    /**
+     * Once the dictionary is full, the next update asks the client to clear it and registers the keys again.
+     */
+    @Test
+    void testDictionaryReset() throws Exception {
+        AEConfig.instance().COMMON.terminalKeyDictionarySize.set(10);
+
+        // Only the first 10 keys fit, the rest is sent in full without being registered
+        var first = entries(keys.subList(0, 20));
+        assertThat(send(false, first)).singleElement()
+                .satisfies(packet -> assertThat(packet.getLogDetails()).contains("full keys: 20,"));
+        assertReceived(first);
+
+        received.clear();
+        var second = entries(keys.subList(5, 13));
+        assertThat(send(false, second)).singleElement()
+                .satisfies(packet -> assertThat(packet.getLogDetails())
+                        .contains("full keys: 8,", "key references: 0)"));
+        assertReceived(second);
+
+        // The keys registered after the reset are referenced from now on
+        received.clear();
+        var third = entries(keys.subList(5, 13));
+        assertThat(send(false, third)).singleElement()
+                .satisfies(packet -> assertThat(packet.getLogDetails())
+                        .contains("full keys: 0,", "key references: 8)"));
+        assertReceived(third);
+    }
+
+    @Test
+    void testCompressedFullUpdate() throws Exception {
+        var sent = new ArrayList<GridInventoryEntry>();
+        for (int i = 0; i < 20; i++) {
+            sent.addAll(entries(keys));
+        }
+
+        var packets = send(true, sent);
+
+        assertThat(packets).hasSize(1);
+        var uncompressedBytes = (int) getField(packets.get(0), MEInventoryUpdatePacket.class, "uncompressedBytes");
+        assertThat(getPayload(packets.get(0)).readableBytes()).isLessThan(uncompressedBytes);
+        assertReceived(sent);
+    }
+
+    @Test
+    void testWithoutDictionary() throws Exception {
+        AEConfig.instance().COMMON.terminalKeyDictionarySize.set(0);
+
+        send(true, entries(keys));
+        received.clear();
+        var second = entries(keys);
+        assertThat(send(false, second)).singleElement()
+                .satisfies(packet -> assertThat(packet.getLogDetails()).contains("full keys: 100,"));
+        assertReceived(second);
+    }
+
+    /**
+     * Creates an entry for each key with a new serial, and some without a key, which refer to earlier serials.
+     */
+    private List<GridInventoryEntry> entries(List<AEItemKey> keys) {
+        var entries = new ArrayList<GridInventoryEntry>();
+        for (int i = 0; i < keys.size(); i++) {
+            var serial = nextSerial++;
+            entries.add(new GridInventoryEntry(serial, keys.get(i), i * 1000L, i % 3, i % 2 == 0));
+            if (i % 10 == 0) {
+                entries.add(new GridInventoryEntry(serial, null, i, 0, false));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Builds the packets for the given entries on the server and decodes them on the client, in order.
+     */
+    private List<MEInventoryUpdatePacket> send(boolean fullUpdate, List<GridInventoryEntry> entries)
+            throws Exception {
+        var builder = MEInventoryUpdatePacket.builder(0, fullUpdate, serverPlayer);
+        for (var entry : entries) {
+            builder.add(entry);
+        }
+        var packets = builder.build();
+
+        for (var packet : packets) {
+            var data = new FriendlyByteBuf(getPayload(packet).copy());
+            data.readInt(); // Packet id
+            new MEInventoryUpdatePacket(data).clientPacketData(clientPlayer);
+            assertThat(data.readableBytes()).isZero();
+        }
+        return packets;
+    }
+
+    /**
+     * Entries don't implement equals, so their properties are compared instead.
+     */
+    private void assertReceived(List<GridInventoryEntry> sent) {
+        assertThat(received).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(sent);
+    }
+
+    private static FriendlyByteBuf getPayload(BasePacket packet) throws Exception {
+        return (FriendlyByteBuf) getField(packet, BasePacket.class, "p");
+    }
+
+    private static Object getField(Object packet, Class<?> declaringClass, String name) throws Exception {
+        var field = declaringClass.getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(packet);
+    }
+
+    private class RecordingRepo implements IClientRepo {
+        @Override
+        public void handleUpdate(boolean fullUpdate, List<GridInventoryEntry> entries) {
+            received.addAll(entries);
+        }
+
+        @Override
+        public Set<GridInventoryEntry> getAllEntries() {
+            return Set.of();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package appeng.crafting.execution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.world.item.Items;
+import net.minecraft.world.level.Level;
+
+import appeng.api.crafting.IPatternDetails;
+import appeng.api.networking.IGrid;
+import appeng.api.networking.crafting.ICraftingPlan;
+import appeng.api.networking.crafting.ICraftingProvider;
+import appeng.api.networking.energy.IEnergyService;
+import appeng.api.networking.storage.IStorageService;
+import appeng.api.stacks.AEItemKey;
+import appeng.api.stacks.GenericStack;
+import appeng.api.stacks.KeyCounter;
+import appeng.api.storage.MEStorage;
+import appeng.crafting.simulation.helpers.ProcessingPatternBuilder;
+import appeng.me.cluster.implementations.CraftingCPUCluster;
+import appeng.me.helpers.BaseActionSource;
+import appeng.me.service.CraftingService;
+import appeng.util.BootstrapMinecraft;
+
+@BootstrapMinecraft
+class CraftingCpuLogicTest {
+    private static final AEItemKey INPUT = AEItemKey.of(Items.COBBLESTONE);
+    private static final AEItemKey OUTPUT = AEItemKey.of(Items.STONE);
+
+    private final IPatternDetails pattern = new ProcessingPatternBuilder(new GenericStack(OUTPUT, 1))
+            .addPreciseInput(1, new GenericStack(INPUT, 1))
+            .build();
+    private final CraftingCPUCluster cluster = mock(CraftingCPUCluster.class);
+    private final CraftingService craftingService = mock(CraftingService.class);
+    private final IEnergyService energyService = mock(IEnergyService.class);
+    private final CraftingCpuLogic logic = new CraftingCpuLogic(cluster);
+
+    @BeforeEach
+    void setUp() {
+        when(cluster.isActive()).thenReturn(true);
+        when(cluster.getAvailableStorage()).thenReturn(Long.MAX_VALUE);
+        // Unlimited power
+        when(energyService.extractAEPower(anyDouble(), any(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    /**
+     * The crafts that are pushed in one pass have to be spread over all providers of the pattern, instead of all being
+     * pushed to the first one that accepts them.
+     */
+    @Test
+    void testCraftsAreSpreadOverProviders() {
+        submitJob(10);
+
+        var first = new CountingProvider();
+        var second = new CountingProvider();
+        when(craftingService.getProviders(pattern)).thenReturn(List.of(first, second));
+
+        var pushed = logic.executeCrafting(10, craftingService, energyService, mock(Level.class));
+
+        assertThat(pushed).isEqualTo(10);
+        assertThat(first.crafts).isEqualTo(5);
+        assertThat(second.crafts).isEqualTo(5);
+    }
+
+    /**
+     * The share of a busy provider goes to the other providers.
+     */
+    @Test
+    void testBusyProvidersAreSkipped() {
+        submitJob(10);
+
+        var busy = new CountingProvider();
+        busy.busy = true;
+        var first = new CountingProvider();
+        var second = new CountingProvider();
+        when(craftingService.getProviders(pattern)).thenReturn(List.of(busy, first, second));
+
+        var pushed = logic.executeCrafting(10, craftingService, energyService, mock(Level.class));
+
+        assertThat(pushed).isEqualTo(10);
+        assertThat(busy.crafts).isZero();
+        assertThat(first.crafts).isEqualTo(5);
+        assertThat(second.crafts).isEqualTo(5);
+    }
+
+    /**
+     * Crafts that a provider refuses are pushed to the next providers.
+     */
+    @Test
+    void testRefusedCraftsGoToOtherProviders() {
+        submitJob(10);
+
+        var full = new CountingProvider();
+        full.capacity = 2;
+        var first = new CountingProvider();
+        var second = new CountingProvider();
+        when(craftingService.getProviders(pattern)).thenReturn(List.of(full, first, second));
+
+        var pushed = logic.executeCrafting(10, craftingService, energyService, mock(Level.class));
+
+        assertThat(pushed).isEqualTo(10);
+        assertThat(full.crafts).isEqualTo(2);
+        assertThat(first.crafts).isEqualTo(4);
+        assertThat(second.crafts).isEqualTo(4);
+    }
+
+    private void submitJob(long crafts) {
+        var storage = mock(MEStorage.class);
+        when(storage.extract(any(), anyLong(), any(), any())).thenAnswer(invocation -> invocation.getArgument(1));
+        var storageService = mock(IStorageService.class);
+        when(storageService.getInventory()).thenReturn(storage);
+        var grid = mock(IGrid.class);
+        when(grid.getStorageService()).thenReturn(storageService);
+
+        var usedItems = new KeyCounter();
+        usedItems.add(INPUT, crafts);
+        var plan = mock(ICraftingPlan.class);
+        when(plan.finalOutput()).thenReturn(new GenericStack(OUTPUT, crafts));
+        when(plan.usedItems()).thenReturn(usedItems);
+        when(plan.emittedItems()).thenReturn(new KeyCounter());
+        when(plan.patternTimes()).thenReturn(Map.of(pattern, crafts));
+
+        var result = logic.trySubmitJob(grid, plan, new BaseActionSource(), null);
+        assertThat(result.successful()).isTrue();
+    }
+
+    private static class CountingProvider implements ICraftingProvider {
+        private int capacity = Integer.MAX_VALUE;
+        private boolean busy;
+        private int crafts;
+
+        @Override
+        public List<IPatternDetails> getAvailablePatterns() {
+            return List.of();
+        }
+
+        @Override
+        public boolean pushPattern(IPatternDetails patternDetails, KeyCounter[] inputHolder) {
+            if (crafts >= capacity) {
+                return false;
+            }
+            crafts++;
+            return true;
+        }
+
+        @Override
+        public boolean isBusy() {
+            return busy;
+        }
+    }
+}
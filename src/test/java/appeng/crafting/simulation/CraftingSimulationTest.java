@@ -2,6 +2,7 @@
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.ArrayList;
 import java.util.Map;
 import java.util.Objects;
 
@@ -47,7 +48,7 @@ public void testLazyPatternExploration() {
         var bToC = env.addPattern(new ProcessingPatternBuilder(c).addPreciseInput(1, b).build());
 
         // First plan should go through all the patterns because some items are missing.
-        var firstPlan = env.runSimulation(c, CalculationStrategy.REPORT_MISSING_ITEMS);
+        var firstPlan = runSimulation(env, c, CalculationStrategy.REPORT_MISSING_ITEMS);
         assertThatPlan(firstPlan)
                 .failed()
                 .patternsMatch(aToB, 1, bToC, 1)
@@ -59,7 +60,7 @@ public void testLazyPatternExploration() {
         // Now, add some of b in the network. The plan should never explore a -> b, because it already has enough of b.
         // Notice the smaller node count for the bytes.
         env.addStoredItem(b);
-        var secondPlan = env.runSimulation(c, CalculationStrategy.REPORT_MISSING_ITEMS);
+        var secondPlan = runSimulation(env, c, CalculationStrategy.REPORT_MISSING_ITEMS);
         assertThatPlan(secondPlan)
                 .succeeded()
                 .patternsMatch(bToC, 1)
@@ -93,7 +94,7 @@ public void testWaterSubstitution() {
         env.addStoredItem(fluid(Fluids.WATER, 3500));
 
         // Crafting should use the water bucket from the network and then the water directly.
-        var plan = env.runSimulation(new GenericStack(grass.what(), 2), CalculationStrategy.REPORT_MISSING_ITEMS);
+        var plan = runSimulation(env, new GenericStack(grass.what(), 2), CalculationStrategy.REPORT_MISSING_ITEMS);
         assertThatPlan(plan)
                 .succeeded()
                 .patternsMatch(grassPattern, 2)
@@ -127,7 +128,7 @@ public void testMultiplePlanks() {
         var successEnv = env.copy();
         successEnv.addStoredItem(acaciaLog);
 
-        var successPlan = successEnv.runSimulation(new GenericStack(craftingTable.what(), 2),
+        var successPlan = runSimulation(successEnv, new GenericStack(craftingTable.what(), 2),
                 CalculationStrategy.REPORT_MISSING_ITEMS);
         assertThatPlan(successPlan)
                 .succeeded()
@@ -138,7 +139,7 @@ public void testMultiplePlanks() {
         // That's because the simulation sees it can extract 5 planks before it attempts to craft more.
 
         // Network only has 2 acacia planks, 1 birch plank, 2 oak planks for two tables. 1 acacia log is missing.
-        var failurePlan = env.runSimulation(new GenericStack(craftingTable.what(), 2),
+        var failurePlan = runSimulation(env, new GenericStack(craftingTable.what(), 2),
                 CalculationStrategy.REPORT_MISSING_ITEMS);
         assertThatPlan(failurePlan)
                 .failed()
@@ -171,7 +172,7 @@ public void testReusedBuckets() {
         env.addStoredItem(mult(dirt, 10000));
         env.addEmitable(water1000mb.what());
 
-        var plan = env.runSimulation(mult(grass, 100), CalculationStrategy.REPORT_MISSING_ITEMS);
+        var plan = runSimulation(env, mult(grass, 100), CalculationStrategy.REPORT_MISSING_ITEMS);
         assertThatPlan(plan)
                 .succeeded()
                 .patternsMatch(grassPattern, 100, bucketFilling, 100)
@@ -193,7 +194,7 @@ public void testNonsensicalRecursivePattern() {
 
         env.addStoredItem(water1B);
 
-        var plan = env.runSimulation(water1B, CalculationStrategy.REPORT_MISSING_ITEMS);
+        var plan = runSimulation(env, water1B, CalculationStrategy.REPORT_MISSING_ITEMS);
         assertThatPlan(plan).failed();
     }
 
@@ -237,7 +238,7 @@ public void testDamagedOutput(boolean branching) {
         env.addStoredItem(mult(diamond, 3));
         env.addStoredItem(mult(stick, 2));
 
-        var plan = env.runSimulation(mult(cobble, 100), CalculationStrategy.REPORT_MISSING_ITEMS);
+        var plan = runSimulation(env, mult(cobble, 100), CalculationStrategy.REPORT_MISSING_ITEMS);
         assertThatPlan(plan)
                 .succeeded()
                 .patternsMatch(cobblePattern, 100, pickaxePattern, 1)
@@ -270,7 +271,7 @@ public void testCraftWithFuzzyInNetwork() {
         env.addStoredItem(damagedOutput.what(), damagedOutput.amount());
 
         // Make sure this doesn't crash.
-        var plan = env.runSimulation(undamagedOutput, CalculationStrategy.REPORT_MISSING_ITEMS);
+        var plan = runSimulation(env, undamagedOutput, CalculationStrategy.REPORT_MISSING_ITEMS);
         assertThatPlan(plan)
                 .failed()
                 .patternsMatch(pattern, 1)
@@ -298,7 +299,7 @@ public void testMultiplePaths() {
         env.addStoredItem(input2.what(), 3);
 
         // should be able to make 3+5 = 8 items
-        var plan = env.runSimulation(mult(output, 8), CalculationStrategy.REPORT_MISSING_ITEMS);
+        var plan = runSimulation(env, mult(output, 8), CalculationStrategy.REPORT_MISSING_ITEMS);
         assertThatPlan(plan)
                 .succeeded()
                 .patternsMatch(pattern1, 5, pattern2, 3)
@@ -320,7 +321,7 @@ public void testAdaptiveOrder() {
         var pattern = env.addPattern(new ProcessingPatternBuilder(output).addPreciseInput(1, input).build());
 
         // should fallback to REPORT_MISSING_ITEMS since not even 1 can be crafted
-        var plan1 = env.runSimulation(mult(output, 1000), CalculationStrategy.CRAFT_LESS);
+        var plan1 = runSimulation(env, mult(output, 1000), CalculationStrategy.CRAFT_LESS);
         assertThatPlan(plan1)
                 .failed()
                 .patternsMatch(pattern, 1000)
@@ -328,7 +329,7 @@ public void testAdaptiveOrder() {
 
         // should succeed with exactly 547 crafted
         env.addStoredItem(mult(input, 547));
-        var plan2 = env.runSimulation(mult(output, 1000), CalculationStrategy.CRAFT_LESS);
+        var plan2 = runSimulation(env, mult(output, 1000), CalculationStrategy.CRAFT_LESS);
         assertThatPlan(plan2)
                 .succeeded()
                 .patternsMatch(pattern, 547)
@@ -363,7 +364,7 @@ public void testReusedLeftovers() {
 
         env.addStoredItem(mult(sourceItem, 3));
 
-        var plan = env.runSimulation(mult(output, 4), CalculationStrategy.REPORT_MISSING_ITEMS);
+        var plan = runSimulation(env, mult(output, 4), CalculationStrategy.REPORT_MISSING_ITEMS);
         assertThatPlan(plan)
                 .succeeded()
                 .patternsMatch(targetPattern, 4, sourcePattern, 3)
@@ -390,13 +391,24 @@ public void testAlternativeSubCraft() {
 
         env.addEmitable(secondaryInputSource.what());
 
-        var plan = env.runSimulation(mult(output, 10), CalculationStrategy.REPORT_MISSING_ITEMS);
+        var plan = runSimulation(env, mult(output, 10), CalculationStrategy.REPORT_MISSING_ITEMS);
         assertThatPlan(plan)
                 .succeeded()
                 .patternsMatch(mainPattern, 10, secondaryInputPattern, 10)
                 .emittedMatch(mult(secondaryInputSource, 10));
     }
 
+    /**
+     * Runs the calculation both like it runs on the server thread, and like a parallel calculation. Both have to result
+     * in the same plan.
+     */
+    private static ICraftingPlan runSimulation(SimulationEnv env, GenericStack what, CalculationStrategy strategy) {
+        var plan = env.runSimulation(what, strategy, false);
+        var parallelPlan = env.runSimulation(what, strategy, true);
+        assertThatPlan(parallelPlan).isSameAs(plan);
+        return plan;
+    }
+
     private static GenericStack item(Item item) {
         return GenericStack.fromItemStack(new ItemStack(item));
     }
@@ -489,5 +501,25 @@ public CraftingPlanAssert outputMatches(GenericStack output) {
             assertThat(plan.finalOutput()).isEqualTo(output);
             return this;
         }
+
+        public CraftingPlanAssert isSameAs(ICraftingPlan other) {
+            outputMatches(other.finalOutput());
+            assertThat(plan.bytes()).isEqualTo(other.bytes());
+            assertThat(plan.simulation()).isEqualTo(other.simulation());
+            assertThat(plan.multiplePaths()).isEqualTo(other.multiplePaths());
+            patternsMatch(other.patternTimes());
+            emittedMatch(toStacks(other.emittedItems()));
+            missingMatch(toStacks(other.missingItems()));
+            usedMatch(toStacks(other.usedItems()));
+            return this;
+        }
+
+        private static GenericStack[] toStacks(KeyCounter list) {
+            var stacks = new ArrayList<GenericStack>();
+            for (var entry : list) {
+                stacks.add(new GenericStack(entry.getKey(), entry.getLongValue()));
+            }
+            return stacks.toArray(GenericStack[]::new);
+        }
     }
 }
@@ -1,5 +1,6 @@
 package appeng.crafting.simulation.helpers;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -44,7 +45,10 @@
 import appeng.api.storage.IStorageProvider;
 import appeng.api.storage.MEStorage;
 import appeng.crafting.CraftingCalculation;
+import appeng.crafting.ICraftingPatternLookup;
 import appeng.me.helpers.BaseActionSource;
+import appeng.me.service.CraftingService;
+import appeng.me.service.helpers.CraftingPatternSnapshot;
 
 public class SimulationEnv {
     private final Map<AEKey, List<IPatternDetails>> patterns = new HashMap<>();
@@ -88,13 +92,37 @@ public SimulationEnv copy() {
     }
 
     public ICraftingPlan runSimulation(GenericStack what, CalculationStrategy strategy) {
-        var calculation = new CraftingCalculation(mock(Level.class), gridMock, simulationRequester, what, strategy);
+        return runSimulation(what, strategy, false);
+    }
+
+    public ICraftingPlan runSimulation(GenericStack what, CalculationStrategy strategy, boolean parallel) {
+        return runSimulation(what, strategy, parallel, 1000);
+    }
+
+    public ICraftingPlan runSimulation(GenericStack what, CalculationStrategy strategy, long timeoutMillis) {
+        return runSimulation(what, strategy, false, timeoutMillis);
+    }
+
+    /**
+     * @param parallel Whether to run the calculation like a parallel calculation, which doesn't wait for the server
+     *                 thread and reads the patterns from a snapshot.
+     */
+    public ICraftingPlan runSimulation(GenericStack what, CalculationStrategy strategy, boolean parallel,
+            long timeoutMillis) {
+        var grid = parallel ? createParallelGridMock() : gridMock;
+        var calculation = new CraftingCalculation(mock(Level.class), grid, simulationRequester, what, strategy,
+                parallel);
+        var executor = Executors.newSingleThreadExecutor();
         try {
-            var calculationFuture = Executors.newSingleThreadExecutor().submit(calculation::run);
-            calculation.simulateFor(1000000000);
-            return calculationFuture.get(1000, TimeUnit.MILLISECONDS);
+            var calculationFuture = executor.submit(calculation::run);
+            if (!parallel) {
+                calculation.simulateFor(1000000000);
+            }
+            return calculationFuture.get(timeoutMillis, TimeUnit.MILLISECONDS);
         } catch (Exception e) {
             throw new RuntimeException(e);
+        } finally {
+            executor.shutdownNow();
         }
     }
 
@@ -121,6 +149,26 @@ private IGrid createGridMock() {
         return mock;
     }
 
+    /**
+     * Parallel calculations only read the patterns from {@link CraftingService#getPatternSnapshot()}.
+     */
+    private IGrid createParallelGridMock() {
+        var patterns = ICraftingPatternLookup.of(gridMock.getCraftingService());
+        var snapshot = mock(CraftingPatternSnapshot.class);
+        when(snapshot.getCraftingFor(any())).thenAnswer(i -> patterns.getCraftingFor(i.getArgument(0)));
+        when(snapshot.getFuzzyCraftable(any(), any()))
+                .thenAnswer(i -> patterns.getFuzzyCraftable(i.getArgument(0), i.getArgument(1)));
+        when(snapshot.canEmitFor(any())).thenAnswer(i -> patterns.canEmitFor(i.getArgument(0)));
+        var craftingService = mock(CraftingService.class);
+        when(craftingService.getPatternSnapshot()).thenReturn(snapshot);
+
+        IGrid mock = mock(IGrid.class);
+        var storageService = gridMock.getStorageService();
+        when(mock.getCraftingService()).thenReturn(craftingService);
+        when(mock.getStorageService()).thenReturn(storageService);
+        return mock;
+    }
+
     private ICraftingService createCraftingServiceMock() {
         return new ICraftingService() {
             @Override
@@ -0,0 +1,139 @@
+package appeng.helpers.patternprovider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.EnumSet;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.neoforged.neoforge.common.util.LazyOptional;
+
+import appeng.api.config.LockCraftingMode;
+import appeng.api.config.Settings;
+import appeng.api.crafting.IPatternDetails;
+import appeng.api.crafting.PatternDetailsHelper;
+import appeng.api.implementations.blockentities.ICraftingMachine;
+import appeng.api.implementations.blockentities.PatternContainerGroup;
+import appeng.api.networking.IManagedGridNode;
+import appeng.api.stacks.AEItemKey;
+import appeng.api.stacks.GenericStack;
+import appeng.api.stacks.KeyCounter;
+import appeng.capabilities.Capabilities;
+import appeng.crafting.simulation.helpers.ProcessingPatternBuilder;
+import appeng.util.BootstrapMinecraft;
+
+/**
+ * Tests pushing batches of crafts to an adjacent crafting machine.
+ */
+@BootstrapMinecraft
+class PatternProviderLogicTest {
+    private final IPatternDetails pattern = new ProcessingPatternBuilder(
+            new GenericStack(AEItemKey.of(Items.STONE), 1))
+            .addPreciseInput(1, new GenericStack(AEItemKey.of(Items.COBBLESTONE), 1))
+            .build();
+    private final CountingMachine machine = new CountingMachine();
+    private PatternProviderLogic logic;
+
+    @BeforeEach
+    void setUp() {
+        var mainNode = mock(IManagedGridNode.class, RETURNS_SELF);
+        when(mainNode.isActive()).thenReturn(true);
+
+        var level = mock(Level.class);
+        var be = mock(BlockEntity.class);
+        when(be.getLevel()).thenReturn(level);
+        when(be.getBlockPos()).thenReturn(BlockPos.ZERO);
+
+        var machineBe = mock(BlockEntity.class);
+        when(machineBe.getCapability(Capabilities.CRAFTING_MACHINE, Direction.SOUTH))
+                .thenReturn(LazyOptional.of(() -> machine));
+        when(level.getBlockEntity(BlockPos.ZERO.relative(Direction.NORTH))).thenReturn(machineBe);
+
+        var host = mock(PatternProviderLogicHost.class);
+        when(host.getBlockEntity()).thenReturn(be);
+        when(host.getTargets()).thenAnswer(invocation -> EnumSet.of(Direction.NORTH));
+
+        logic = new PatternProviderLogic(mainNode, host);
+        try (var helper = Mockito.mockStatic(PatternDetailsHelper.class)) {
+            helper.when(() -> PatternDetailsHelper.decodePattern(any(ItemStack.class), any(Level.class)))
+                    .thenReturn(pattern);
+            logic.getPatternInv().setItemDirect(0, new ItemStack(Items.PAPER));
+        }
+        assertThat(logic.getAvailablePatterns()).containsExactly(pattern);
+    }
+
+    @Test
+    void testBatchIsPushedToMachine() {
+        var pushed = logic.pushPatterns(pattern, inputs(), 5);
+
+        assertThat(pushed).isEqualTo(5);
+        assertThat(machine.crafts).isEqualTo(5);
+        assertThat(logic.getCraftingLockedReason()).isEqualTo(LockCraftingMode.NONE);
+    }
+
+    /**
+     * A provider that locks until the result is returned must not hand more than one craft to the machine before
+     * locking.
+     */
+    @Test
+    void testLockUntilResultPushesSingleCraft() {
+        logic.getConfigManager().putSetting(Settings.LOCK_CRAFTING_MODE, LockCraftingMode.LOCK_UNTIL_RESULT);
+
+        var pushed = logic.pushPatterns(pattern, inputs(), 5);
+
+        assertThat(pushed).isEqualTo(1);
+        assertThat(machine.crafts).isEqualTo(1);
+        assertThat(logic.getCraftingLockedReason()).isEqualTo(LockCraftingMode.LOCK_UNTIL_RESULT);
+        assertThat(logic.pushPatterns(pattern, inputs(), 5)).isZero();
+        assertThat(machine.crafts).isEqualTo(1);
+    }
+
+    @Test
+    void testLockUntilPulsePushesSingleCraft() {
+        logic.getConfigManager().putSetting(Settings.LOCK_CRAFTING_MODE, LockCraftingMode.LOCK_UNTIL_PULSE);
+
+        var pushed = logic.pushPatterns(pattern, inputs(), 5);
+
+        assertThat(pushed).isEqualTo(1);
+        assertThat(machine.crafts).isEqualTo(1);
+        assertThat(logic.getCraftingLockedReason()).isEqualTo(LockCraftingMode.LOCK_UNTIL_PULSE);
+    }
+
+    private KeyCounter[] inputs() {
+        var input = new KeyCounter();
+        input.add(AEItemKey.of(Items.COBBLESTONE), 1);
+        return new KeyCounter[] { input };
+    }
+
+    private static class CountingMachine implements ICraftingMachine {
+        private int crafts;
+
+        @Override
+        public PatternContainerGroup getCraftingMachineInfo() {
+            return null;
+        }
+
+        @Override
+        public boolean pushPattern(IPatternDetails patternDetails, KeyCounter[] inputs, Direction ejectionDirection) {
+            crafts++;
+            return true;
+        }
+
+        @Override
+        public boolean acceptsPlans() {
+            return true;
+        }
+    }
+}
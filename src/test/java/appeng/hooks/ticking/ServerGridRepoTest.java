@@ -0,0 +1,152 @@
+package appeng.hooks.ticking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.world.level.LevelAccessor;
+
+import it.unimi.dsi.fastutil.objects.ObjectSet;
+
+import appeng.api.networking.IGridNode;
+import appeng.api.networking.ticking.IGridTickable;
+import appeng.api.networking.ticking.TickRateModulation;
+import appeng.api.networking.ticking.TickingRequest;
+import appeng.me.AbstractGridNodeTest;
+import appeng.me.Grid;
+import appeng.me.GridNode;
+
+/**
+ * Tests which grids are ticked with a level when idle grids are skipped.
+ */
+class ServerGridRepoTest extends AbstractGridNodeTest {
+    private ServerGridRepo repo;
+
+    /**
+     * Nodes wake their grid through the tick handler, so the tests use its repo.
+     */
+    @BeforeEach
+    void clearRepo() throws Exception {
+        var field = TickHandler.class.getDeclaredField("grids");
+        field.setAccessible(true);
+        repo = (ServerGridRepo) field.get(TickHandler.instance());
+        repo.clear();
+    }
+
+    /**
+     * A grid that is woken before it was added is only ticked once it was added.
+     */
+    @Test
+    void testGridWokenBeforeUpdateNetworks() {
+        var node = makeTickingNode();
+        var grid = node.getInternalGrid();
+        assertThat(grid.hasLevelTickWork(level)).isTrue();
+        assertThat(repo.getLevelTickedGrids(level)).doesNotContain(grid);
+
+        repo.updateNetworks();
+        assertThat(repo.getLevelTickedGrids(level)).containsExactly(grid);
+    }
+
+    /**
+     * Removing idle grids before a woken grid was added doesn't prevent it from being ticked once it is added.
+     */
+    @Test
+    void testRemoveIdleGridsBeforeUpdateNetworks() {
+        var grid = makeTickingNode().getInternalGrid();
+        repo.removeIdleGrids(level);
+        assertThat(isLevelTicked(grid)).isFalse();
+
+        repo.updateNetworks();
+        assertThat(repo.getLevelTickedGrids(level)).containsExactly(grid);
+    }
+
+    @Test
+    void testIdleGridIsRemovedAfterLevelTick() {
+        var node = makeTickingNode();
+        var grid = node.getInternalGrid();
+        repo.updateNetworks();
+
+        grid.getTickManager().sleepDevice(node);
+        runTick(grid);
+        assertThat(grid.hasLevelTickWork(level)).isFalse();
+        // The grid is only removed at the end of the level tick
+        assertThat(repo.getLevelTickedGrids(level)).containsExactly(grid);
+
+        repo.removeIdleGrids(level);
+        assertThat(repo.getLevelTickedGrids(level)).isEmpty();
+        assertThat(isLevelTicked(grid)).isFalse();
+    }
+
+    /**
+     * Queueing a node of an idle grid to be ticked again creates the tick queue for its level, which wakes the grid.
+     */
+    @Test
+    void testIdleGridIsWokenThroughTickQueue() {
+        var node = makeTickingNode();
+        var grid = node.getInternalGrid();
+        repo.updateNetworks();
+        grid.getTickManager().sleepDevice(node);
+        repo.removeIdleGrids(level);
+        assertThat(repo.getLevelTickedGrids(level)).isEmpty();
+
+        grid.getTickManager().wakeDevice(node);
+
+        assertThat(repo.getLevelTickedGrids(level)).containsExactly(grid);
+        repo.removeIdleGrids(level);
+        assertThat(repo.getLevelTickedGrids(level)).containsExactly(grid);
+    }
+
+    /**
+     * A grid that was removed, but woken again by one of its nodes, is not kept around by the level it was woken in.
+     */
+    @Test
+    void testRemovedGridIsDropped() {
+        var grid = makeTickingNode().getInternalGrid();
+        repo.updateNetworks();
+        repo.removeNetwork(grid);
+        repo.updateNetworks();
+        assertThat(isLevelTicked(grid)).isFalse();
+
+        repo.addLevelTickedGrid(level, grid);
+        assertThat(repo.getLevelTickedGrids(level)).isEmpty();
+
+        repo.removeIdleGrids(level);
+        assertThat(isLevelTicked(grid)).isFalse();
+    }
+
+    private GridNode makeTickingNode() {
+        var node = makeNode();
+        node.addService(IGridTickable.class, new IGridTickable() {
+            @Override
+            public TickingRequest getTickingRequest(IGridNode node) {
+                return new TickingRequest(1, 1, false, false);
+            }
+
+            @Override
+            public TickRateModulation tickingRequest(IGridNode node, int ticksSinceLastCall) {
+                return TickRateModulation.SAME;
+            }
+        });
+        node.markReady();
+        return node;
+    }
+
+    /**
+     * @return Whether the repo still remembers the grid as having to be ticked with the level, regardless of whether
+     *         it was added yet.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean isLevelTicked(Grid grid) {
+        try {
+            var field = ServerGridRepo.class.getDeclaredField("levelTickedGrids");
+            field.setAccessible(true);
+            var grids = ((Map<LevelAccessor, ObjectSet<Grid>>) field.get(repo)).get(level);
+            return grids != null && grids.contains(grid);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
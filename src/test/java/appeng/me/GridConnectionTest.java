@@ -3,10 +3,12 @@
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import org.junit.jupiter.api.Nested;
@@ -183,6 +185,37 @@ void testMergeGridsUsesSizeAsTieBreaker() {
             assertSame(largerGrid, c.getGrid());
         }
 
+        /**
+         * Test that grids connected during assembly are only merged once it ends, and that each node only moves once.
+         * When there's <code>a1-a2-a3 b c</code>, connecting b to c would otherwise move c to the grid of b, and then
+         * both to the grid of a once c is connected to a1.
+         */
+        @Test
+        void testMergeGridsAfterAssembly() {
+            var a1 = makeReadyNode();
+            var a2 = makeReadyNode();
+            var a3 = makeReadyNode();
+            GridHelper.createConnection(a1, a2);
+            GridHelper.createConnection(a2, a3);
+            var gridA = a1.getInternalGrid();
+            var b = makeReadyNode();
+            var gridB = b.getInternalGrid();
+            var c = makeReadyNode();
+            reset(listener);
+
+            GridAssembly.begin();
+            GridHelper.createConnection(b, c);
+            GridHelper.createConnection(c, a1);
+            assertSame(gridB, b.getGrid());
+            GridAssembly.end();
+
+            assertSame(gridA, b.getGrid());
+            assertSame(gridA, c.getGrid());
+            assertEquals(5, gridA.size());
+            verify(listener, times(1)).onGridChanged(owner, b);
+            verify(listener, times(1)).onGridChanged(owner, c);
+        }
+
         private void assertOnlyConnection(GridNode a, GridNode b) {
             assertSameGrid(a, b);
             assertThat(a.getConnections()).hasSize(1);
@@ -205,4 +238,80 @@ private void assertSameGrid(IGridNode a, IGridNode b) {
         }
     }
 
+    /**
+     * Tests how grids are split when a connection is removed.
+     */
+    @Nested
+    class GridSplits {
+        /**
+         * Removing the connection in the middle of <code>a-b-c-d</code> should form two grids.
+         */
+        @Test
+        void testSplitChain() {
+            var a = makeReadyNode();
+            var b = makeReadyNode();
+            var c = makeReadyNode();
+            var d = makeReadyNode();
+            GridHelper.createConnection(a, b);
+            var con = GridHelper.createConnection(b, c);
+            GridHelper.createConnection(c, d);
+            assertSame(a.getGrid(), d.getGrid());
+
+            con.destroy();
+            assertSame(a.getGrid(), b.getGrid());
+            assertSame(c.getGrid(), d.getGrid());
+            assertNotSame(a.getGrid(), c.getGrid());
+            assertEquals(2, a.getGrid().size());
+            assertEquals(2, c.getGrid().size());
+        }
+
+        /**
+         * Removing one connection of the ring <code>a-b-c-d-a</code> should not change the grid.
+         */
+        @Test
+        void testNoSplitInRing() {
+            var a = makeReadyNode();
+            var b = makeReadyNode();
+            var c = makeReadyNode();
+            var d = makeReadyNode();
+            var con = GridHelper.createConnection(a, b);
+            GridHelper.createConnection(b, c);
+            GridHelper.createConnection(c, d);
+            GridHelper.createConnection(d, a);
+            var grid = a.getGrid();
+
+            con.destroy();
+            assertSame(grid, a.getGrid());
+            assertSame(grid, b.getGrid());
+            assertSame(grid, c.getGrid());
+            assertSame(grid, d.getGrid());
+            assertEquals(4, grid.size());
+        }
+
+        /**
+         * Only the smaller component should move to a new grid, even if it contains the pivot.
+         */
+        @Test
+        void testSmallerComponentMovesToNewGrid() {
+            var pivot = makeReadyNode();
+            var b = makeReadyNode();
+            var con = GridHelper.createConnection(pivot, b);
+            var previous = b;
+            for (int i = 0; i < 10; i++) {
+                var node = makeReadyNode();
+                GridHelper.createConnection(previous, node);
+                previous = node;
+            }
+            var grid = b.getInternalGrid();
+            grid.setPivot(pivot);
+
+            con.destroy();
+            assertSame(grid, b.getGrid());
+            assertSame(grid, previous.getGrid());
+            assertEquals(11, grid.size());
+            assertNotSame(grid, pivot.getGrid());
+            assertEquals(1, pivot.getGrid().size());
+        }
+    }
+
 }
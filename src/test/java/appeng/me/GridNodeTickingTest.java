@@ -53,6 +53,30 @@ void testAlertDevice() {
         assertThat(timesSinceLastTick).containsExactly(11, 10, 1);
     }
 
+    /**
+     * Grids only have to be ticked with a level while they have nodes waiting to be ticked in it, so that idle grids
+     * can be skipped.
+     */
+    @Test
+    void testLevelTickWork() {
+        var node = makeTickingNode(
+                new TickingRequest(1, 1, true, false),
+                (tickingNode, ticksSinceLastCall) -> TickRateModulation.SAME);
+        var grid = node.getMyGrid();
+        assertThat(grid.isTickedWithEveryLevel()).isFalse();
+        assertThat(grid.hasLevelTickWork(level)).isFalse();
+
+        grid.getTickManager().wakeDevice(node);
+        assertThat(grid.hasLevelTickWork(level)).isTrue();
+        assertThat(grid.getTickedLevels()).containsExactly(level);
+        runTick(grid);
+        assertThat(grid.hasLevelTickWork(level)).isTrue();
+
+        grid.getTickManager().sleepDevice(node);
+        assertThat(grid.hasLevelTickWork(level)).isFalse();
+        assertThat(grid.getTickedLevels()).isEmpty();
+    }
+
     /**
      * Tests the sleeping behavior of nodes.
      */
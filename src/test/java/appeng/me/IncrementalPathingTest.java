@@ -0,0 +1,269 @@
+package appeng.me;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.core.BlockPos;
+
+import appeng.api.networking.GridFlags;
+import appeng.api.networking.GridHelper;
+import appeng.api.networking.IGridNodeListener;
+import appeng.api.networking.pathing.ControllerState;
+import appeng.blockentity.networking.ControllerBlockEntity;
+import appeng.core.AEConfig;
+import appeng.me.service.PathingService;
+
+/**
+ * Tests that attaching and releasing channels at the edge of a grid without rebooting it results in the same channels
+ * as a full repath, and that changes that could alter existing routes still reboot the grid.
+ */
+class IncrementalPathingTest extends AbstractGridNodeTest {
+
+    private GridNode controller;
+    private GridNode cable;
+    private Grid grid;
+    private PathingService pathing;
+
+    @BeforeEach
+    void bootGridWithController() {
+        AEConfig.instance().COMMON.incrementalPathing.set(true);
+
+        controller = makeController(BlockPos.ZERO);
+        cable = makeReadyNode();
+        GridHelper.createConnection(controller, cable);
+        grid = controller.getInternalGrid();
+        pathing = (PathingService) grid.getPathingService();
+        boot();
+        assertEquals(ControllerState.CONTROLLER_ONLINE, pathing.getControllerState());
+    }
+
+    @AfterEach
+    void disableIncrementalPathing() {
+        AEConfig.instance().COMMON.incrementalPathing.set(false);
+    }
+
+    @Test
+    void testAttachLeaf() {
+        reset(listener);
+
+        var device = makeReadyNode(GridFlags.REQUIRE_CHANNEL);
+        GridHelper.createConnection(cable, device);
+        runTick(grid);
+
+        assertNoReboot();
+        assertEquals(1, device.getUsedChannels());
+        assertEquals(1, pathing.getUsedChannels());
+        assertSameChannelsAsRepath();
+    }
+
+    /**
+     * Nodes that were added in the same tick can be attached through each other.
+     */
+    @Test
+    void testAttachChainOfNodes() {
+        reset(listener);
+
+        var otherCable = makeReadyNode();
+        GridHelper.createConnection(cable, otherCable);
+        var device = makeReadyNode(GridFlags.REQUIRE_CHANNEL);
+        GridHelper.createConnection(otherCable, device);
+        runTick(grid);
+
+        assertNoReboot();
+        assertEquals(1, device.getUsedChannels());
+        assertEquals(1, otherCable.getUsedChannels());
+        assertEquals(1, cable.getUsedChannels());
+        assertSameChannelsAsRepath();
+    }
+
+    @Test
+    void testReleaseLeaf() {
+        var remaining = makeReadyNode(GridFlags.REQUIRE_CHANNEL);
+        GridHelper.createConnection(cable, remaining);
+        var removed = makeReadyNode(GridFlags.REQUIRE_CHANNEL);
+        GridHelper.createConnection(cable, removed);
+        boot();
+        assertEquals(2, cable.getUsedChannels());
+        reset(listener);
+
+        removed.destroy();
+        runTick(grid);
+
+        assertNoReboot();
+        assertEquals(1, remaining.getUsedChannels());
+        assertEquals(1, cable.getUsedChannels());
+        assertEquals(1, pathing.getUsedChannels());
+        assertSameChannelsAsRepath();
+    }
+
+    /**
+     * A new node that connects to the channel tree in two places closes a loop, which could shorten the route of
+     * existing nodes.
+     */
+    @Test
+    void testNewNodeClosingLoopCausesRepath() {
+        var left = makeReadyNode();
+        GridHelper.createConnection(cable, left);
+        var right = makeReadyNode();
+        GridHelper.createConnection(cable, right);
+        boot();
+        reset(listener);
+
+        var device = makeReadyNode(GridFlags.REQUIRE_CHANNEL);
+        GridHelper.createConnection(left, device);
+        GridHelper.createConnection(right, device);
+        runTick(grid);
+
+        assertReboot();
+        boot();
+        assertEquals(1, device.getUsedChannels());
+        assertSameChannelsAsRepath();
+    }
+
+    /**
+     * A new connection between nodes that are already part of the channel tree also closes a loop.
+     */
+    @Test
+    void testConnectionBetweenExistingNodesCausesRepath() {
+        var left = makeReadyNode();
+        GridHelper.createConnection(cable, left);
+        var right = makeReadyNode(GridFlags.REQUIRE_CHANNEL);
+        GridHelper.createConnection(cable, right);
+        boot();
+        reset(listener);
+
+        GridHelper.createConnection(left, right);
+        runTick(grid);
+
+        assertReboot();
+        boot();
+        assertEquals(1, right.getUsedChannels());
+        assertSameChannelsAsRepath();
+    }
+
+    @Test
+    void testControllerCausesRepath() {
+        reset(listener);
+
+        var otherController = makeController(new BlockPos(1, 0, 0));
+        GridHelper.createConnection(controller, otherController);
+        runTick(grid);
+
+        assertReboot();
+        boot();
+        assertEquals(ControllerState.CONTROLLER_ONLINE, pathing.getControllerState());
+        assertSameChannelsAsRepath();
+    }
+
+    @Test
+    void testCompressedChannelNodeCausesRepath() {
+        reset(listener);
+
+        var tunnel = makeReadyNode(GridFlags.REQUIRE_CHANNEL, GridFlags.COMPRESSED_CHANNEL);
+        GridHelper.createConnection(cable, tunnel);
+        runTick(grid);
+
+        assertReboot();
+        boot();
+        assertEquals(1, tunnel.getUsedChannels());
+        assertSameChannelsAsRepath();
+    }
+
+    /**
+     * Merging another grid into the grid while nodes are still waiting to be attached attaches the nodes of the other
+     * grid through the pending nodes.
+     */
+    @Test
+    void testMergeGridsWithPendingNodes() {
+        reset(listener);
+
+        var pending = makeReadyNode();
+        GridHelper.createConnection(cable, pending);
+
+        // A separate grid without a controller
+        var otherCable = makeReadyNode();
+        var otherDevice = makeReadyNode(GridFlags.REQUIRE_CHANNEL);
+        GridHelper.createConnection(otherCable, otherDevice);
+        assertNotSame(grid, otherCable.getInternalGrid());
+
+        GridHelper.createConnection(pending, otherCable);
+        assertThat(otherDevice.getInternalGrid()).isSameAs(grid);
+        runTick(grid);
+
+        assertNoReboot();
+        assertEquals(1, otherDevice.getUsedChannels());
+        assertEquals(1, pending.getUsedChannels());
+        assertEquals(1, pathing.getUsedChannels());
+        assertSameChannelsAsRepath();
+    }
+
+    private GridNode makeController(BlockPos pos) {
+        var blockEntity = mock(ControllerBlockEntity.class);
+        when(blockEntity.getBlockPos()).thenReturn(pos);
+        var node = new GridNode(level, blockEntity, listener,
+                Set.of(GridFlags.CANNOT_CARRY, GridFlags.DENSE_CAPACITY));
+        when(blockEntity.getGridNode()).thenReturn(node);
+        node.markReady();
+        return node;
+    }
+
+    private void boot() {
+        for (int i = 0; i < 100; i++) {
+            runTick(grid);
+            if (!pathing.isNetworkBooting()) {
+                return;
+            }
+        }
+        throw new AssertionError("Grid did not finish booting");
+    }
+
+    private void assertNoReboot() {
+        verify(listener, never()).onStateChanged(any(), any(), eq(IGridNodeListener.State.GRID_BOOT));
+    }
+
+    private void assertReboot() {
+        verify(listener, atLeastOnce()).onStateChanged(any(), any(), eq(IGridNodeListener.State.GRID_BOOT));
+    }
+
+    /**
+     * Compares the channels of every node and connection to the channels after rebooting the grid.
+     */
+    private void assertSameChannelsAsRepath() {
+        var channels = getChannels();
+        var channelsInUse = pathing.getUsedChannels();
+
+        pathing.repath();
+        boot();
+
+        assertThat(getChannels()).isEqualTo(channels);
+        assertEquals(channelsInUse, pathing.getUsedChannels());
+    }
+
+    private Map<Object, Integer> getChannels() {
+        var channels = new HashMap<Object, Integer>();
+        for (var node : grid.getNodes()) {
+            channels.put(node, node.getUsedChannels());
+            for (var connection : node.getConnections()) {
+                channels.put(connection, connection.getUsedChannels());
+            }
+        }
+        return channels;
+    }
+}
@@ -134,6 +134,45 @@ void testVoidUpgrade() {
         assertThat(cell.insert(rejected, Long.MAX_VALUE, Actionable.MODULATE, SRC)).isZero();
     }
 
+    /**
+     * Persisting only the changed keys must result in the same content as writing the entire cell.
+     */
+    @Test
+    void testPersistChangedKeys() {
+        var stack = new ItemStack(AEItems.ITEM_CELL_64K);
+        var cell = BasicCellInventory.createInventory(stack, () -> {
+        });
+        Objects.requireNonNull(cell);
+        var keys = generateDifferentKeys(20);
+
+        for (int i = 0; i < 10; i++) {
+            cell.insert(keys[i], i + 1, Actionable.MODULATE, SRC);
+        }
+        cell.persist();
+
+        // Remove keys from the start, middle and end of the persisted slots, change some and add new ones
+        cell.extract(keys[0], Long.MAX_VALUE, Actionable.MODULATE, SRC);
+        cell.extract(keys[5], Long.MAX_VALUE, Actionable.MODULATE, SRC);
+        cell.extract(keys[9], Long.MAX_VALUE, Actionable.MODULATE, SRC);
+        cell.insert(keys[3], 100, Actionable.MODULATE, SRC);
+        cell.extract(keys[7], 1, Actionable.MODULATE, SRC);
+        for (int i = 10; i < 20; i++) {
+            cell.insert(keys[i], i + 1, Actionable.MODULATE, SRC);
+        }
+        cell.persist();
+
+        var expected = cell.getAvailableStacks();
+        var loaded = BasicCellInventory.createInventory(stack.copy(), null);
+        Objects.requireNonNull(loaded);
+        assertThat(loaded.getStoredItemTypes()).isEqualTo(expected.size());
+        var actual = loaded.getAvailableStacks();
+        assertThat(actual.size()).isEqualTo(expected.size());
+        for (var entry : expected) {
+            assertThat(actual.get(entry.getKey())).isEqualTo(entry.getLongValue());
+        }
+        assertThat(loaded.getStoredItemCount()).isEqualTo(cell.getStoredItemCount());
+    }
+
     private static AEItemKey[] generateDifferentKeys(int count) {
         var out = new AEItemKey[count];
         for (int i = 0; i < count; ++i) {
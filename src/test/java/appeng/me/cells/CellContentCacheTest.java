@@ -0,0 +1,215 @@
+package appeng.me.cells;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+
+import appeng.api.config.Actionable;
+import appeng.api.networking.security.IActionSource;
+import appeng.api.stacks.AEItemKey;
+import appeng.api.stacks.AEKey;
+import appeng.api.storage.StorageCells;
+import appeng.core.AEConfig;
+import appeng.core.definitions.AEItems;
+import appeng.me.helpers.BaseActionSource;
+import appeng.util.BootstrapMinecraft;
+
+/**
+ * Tests which cells the {@link CellContentCache} drops the decoded content of, and that content with unsaved changes
+ * is never lost.
+ */
+@BootstrapMinecraft
+class CellContentCacheTest {
+    private static final IActionSource SRC = new BaseActionSource();
+
+    private final List<AEKey> keys = List.of(
+            AEItemKey.of(Items.STONE),
+            AEItemKey.of(Items.DIRT),
+            AEItemKey.of(Items.COBBLESTONE),
+            AEItemKey.of(Items.STICK));
+    private final CellContentCache cache = CellContentCache.instance();
+
+    @BeforeEach
+    void setUp() {
+        // Each cell holds 4 types, so the content of two cells fits
+        AEConfig.instance().COMMON.decodedCellTypeLimit.set(10);
+        AEConfig.instance().COMMON.decodedCellIdleTicks.set(0);
+        cache.reset();
+        // Makes the test thread the server thread
+        cache.onServerTick();
+    }
+
+    @AfterEach
+    void resetConfig() {
+        AEConfig.instance().COMMON.decodedCellTypeLimit.set(0);
+        AEConfig.instance().COMMON.decodedCellIdleTicks.set(0);
+        cache.reset();
+    }
+
+    @Test
+    void testLeastRecentlyUsedCellIsEvicted() {
+        var first = load(filledCell());
+        var second = load(filledCell());
+        // Using the first cell makes the second one the least recently used
+        first.getAvailableStacks();
+
+        var third = load(filledCell());
+
+        assertThat(cache.getStats().cells()).isEqualTo(2);
+        assertThat(cache.getStats().evictions()).isEqualTo(1);
+        assertThat(isDecoded(first)).isTrue();
+        assertThat(isDecoded(second)).isFalse();
+        assertThat(isDecoded(third)).isTrue();
+
+        // The content is decoded again from the item when it's used again
+        assertContent(second, 1);
+        assertThat(cache.getStats().misses()).isEqualTo(4);
+    }
+
+    /**
+     * A cell with unsaved changes is skipped when it's the least recently used cell, and only dropped once it was
+     * persisted.
+     */
+    @Test
+    void testDirtyCellIsNotEvictedBeforePersisted() {
+        var dirty = load(filledCell());
+        dirty.insert(keys.get(0), 1, Actionable.MODULATE, SRC);
+        var second = load(filledCell());
+
+        load(filledCell());
+
+        assertThat(isDecoded(dirty)).isTrue();
+        assertThat(isDecoded(second)).isFalse();
+        assertThat(cache.getStats().evictions()).isEqualTo(1);
+
+        // The dirty cell was moved behind the others, so it isn't asked again when the next cell is loaded
+        load(filledCell());
+        assertThat(isDecoded(dirty)).isTrue();
+        assertThat(cache.getStats().evictions()).isEqualTo(2);
+        assertThat(dirty.getAvailableStacks().get(keys.get(0))).isEqualTo(2);
+
+        dirty.persist();
+        load(filledCell());
+        load(filledCell());
+        assertThat(isDecoded(dirty)).isFalse();
+
+        // The change survived being dropped
+        assertThat(dirty.getAvailableStacks().get(keys.get(0))).isEqualTo(2);
+    }
+
+    @Test
+    void testIdleCellsAreEvicted() {
+        AEConfig.instance().COMMON.decodedCellTypeLimit.set(0);
+        AEConfig.instance().COMMON.decodedCellIdleTicks.set(5);
+        cache.onServerTick();
+
+        var idle = load(filledCell());
+        var dirty = load(filledCell());
+        dirty.insert(keys.get(0), 1, Actionable.MODULATE, SRC);
+        tick(4);
+        assertThat(isDecoded(idle)).isTrue();
+
+        tick(1);
+        assertThat(isDecoded(idle)).isFalse();
+        assertThat(isDecoded(dirty)).isTrue();
+        assertThat(cache.getStats().evictions()).isEqualTo(1);
+
+        // A deferred cell is only asked again once it was idle for another full period
+        dirty.persist();
+        tick(4);
+        assertThat(isDecoded(dirty)).isTrue();
+        tick(1);
+        assertThat(isDecoded(dirty)).isFalse();
+        assertContent(dirty, 2);
+    }
+
+    /**
+     * Cells that were garbage collected are forgotten without counting as an eviction.
+     */
+    @Test
+    void testCollectedCellsAreForgotten() throws Exception {
+        load(filledCell());
+        var second = load(filledCell());
+        assertThat(cache.getStats().types()).isEqualTo(8);
+
+        clearFirstReference();
+        load(filledCell());
+
+        assertThat(cache.getStats().cells()).isEqualTo(2);
+        assertThat(cache.getStats().types()).isEqualTo(8);
+        assertThat(cache.getStats().evictions()).isZero();
+        assertThat(isDecoded(second)).isTrue();
+    }
+
+    /**
+     * @return A cell item holding one of each key.
+     */
+    private ItemStack filledCell() {
+        var stack = new ItemStack(AEItems.ITEM_CELL_1K.asItem());
+        var cell = Objects.requireNonNull(StorageCells.getCellInventory(stack, null));
+        for (var key : keys) {
+            assertThat(cell.insert(key, 1, Actionable.MODULATE, SRC)).isEqualTo(1);
+        }
+        return stack;
+    }
+
+    /**
+     * Opens the cell like a drive would, with a save provider that doesn't persist the changes right away.
+     */
+    private BasicCellInventory load(ItemStack stack) {
+        var cell = (BasicCellInventory) StorageCells.getCellInventory(stack, () -> {
+        });
+        Objects.requireNonNull(cell).getAvailableStacks();
+        return cell;
+    }
+
+    private void tick(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            cache.onServerTick();
+        }
+    }
+
+    private void assertContent(BasicCellInventory cell, long firstAmount) {
+        var content = cell.getAvailableStacks();
+        assertThat(content.size()).isEqualTo(keys.size());
+        assertThat(content.get(keys.get(0))).isEqualTo(firstAmount);
+        for (var key : keys.subList(1, keys.size())) {
+            assertThat(content.get(key)).isEqualTo(1);
+        }
+    }
+
+    /**
+     * Checks without touching the cell, since that would decode the content again.
+     */
+    private static boolean isDecoded(BasicCellInventory cell) {
+        try {
+            var field = BasicCellInventory.class.getDeclaredField("storedAmounts");
+            field.setAccessible(true);
+            return field.get(cell) != null;
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Simulates the least recently used cell being garbage collected, which can't be forced reliably.
+     */
+    private void clearFirstReference() throws Exception {
+        var entriesField = CellContentCache.class.getDeclaredField("entries");
+        entriesField.setAccessible(true);
+        var entry = ((Map<?, ?>) entriesField.get(cache)).keySet().iterator().next();
+        var cellField = entry.getClass().getDeclaredField("cell");
+        cellField.setAccessible(true);
+        ((WeakReference<?>) cellField.get(entry)).clear();
+    }
+}
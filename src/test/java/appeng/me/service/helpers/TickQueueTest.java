@@ -0,0 +1,126 @@
+package appeng.me.service.helpers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import appeng.api.networking.IGridNode;
+import appeng.api.networking.ticking.IGridTickable;
+import appeng.api.networking.ticking.TickingRequest;
+
+class TickQueueTest {
+    private final IGridNode node = mock(IGridNode.class);
+    private final IGridTickable tickable = mock(IGridTickable.class);
+
+    private TickTracker makeTracker(long lastTick, int rate) {
+        var tracker = new TickTracker(new TickingRequest(1, 100, false, true), node, tickable, lastTick);
+        tracker.setCurrentRate(rate);
+        return tracker;
+    }
+
+    @Test
+    void testPollReturnsTrackersInOrder() {
+        var random = new Random(1);
+        var queue = new TickQueue();
+        for (var i = 0; i < 1000; i++) {
+            queue.add(makeTracker(random.nextInt(1000), 1 + random.nextInt(100)));
+        }
+
+        assertPolledInOrder(queue, 1000);
+    }
+
+    @Test
+    void testRemove() {
+        var queue = new TickQueue();
+        var first = makeTracker(0, 1);
+        var second = makeTracker(0, 2);
+        var third = makeTracker(0, 3);
+        queue.add(first);
+        queue.add(second);
+        queue.add(third);
+
+        assertThat(queue.remove(second)).isTrue();
+        assertThat(queue.remove(second)).isFalse();
+        assertThat(queue.contains(second)).isFalse();
+        assertThat(queue.size()).isEqualTo(2);
+        assertThat(queue.poll()).isSameAs(first);
+        assertThat(queue.poll()).isSameAs(third);
+        assertThat(queue.poll()).isNull();
+    }
+
+    @Test
+    void testAddingQueuedTrackerUpdatesItsPosition() {
+        var queue = new TickQueue();
+        var first = makeTracker(0, 1);
+        var second = makeTracker(0, 50);
+        queue.add(first);
+        queue.add(second);
+
+        second.setTickOnNextTick();
+        queue.add(second);
+
+        assertThat(queue.size()).isEqualTo(2);
+        assertThat(queue.poll()).isSameAs(second);
+    }
+
+    /**
+     * Simulates a large number of devices that are constantly put to sleep, woken up and alerted.
+     */
+    @Test
+    void testFlappingTrackers() {
+        var random = new Random(2);
+        var queue = new TickQueue();
+        var trackers = new ArrayList<TickTracker>();
+        var queued = new HashSet<TickTracker>();
+        for (var i = 0; i < 10000; i++) {
+            var tracker = makeTracker(random.nextInt(100), 1 + random.nextInt(100));
+            trackers.add(tracker);
+            queue.add(tracker);
+            queued.add(tracker);
+        }
+
+        for (var i = 0; i < 100000; i++) {
+            var tracker = trackers.get(random.nextInt(trackers.size()));
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    // Sleep
+                    assertThat(queue.remove(tracker)).isEqualTo(queued.remove(tracker));
+                }
+                case 1 -> {
+                    // Wake
+                    queue.add(tracker);
+                    queued.add(tracker);
+                }
+                case 2 -> {
+                    // Alert
+                    tracker.setTickOnNextTick();
+                    queue.add(tracker);
+                    queued.add(tracker);
+                }
+            }
+        }
+
+        assertThat(queue.size()).isEqualTo(queued.size());
+        for (var tracker : trackers) {
+            assertThat(queue.contains(tracker)).isEqualTo(queued.contains(tracker));
+        }
+        assertPolledInOrder(queue, queued.size());
+    }
+
+    private static void assertPolledInOrder(TickQueue queue, int expectedCount) {
+        var polled = new ArrayList<TickTracker>();
+        TickTracker tracker;
+        while ((tracker = queue.poll()) != null) {
+            polled.add(tracker);
+        }
+        assertThat(polled).hasSize(expectedCount);
+        assertThat(queue.isEmpty()).isTrue();
+        assertThat(polled).isSortedAccordingTo(TickTracker::compareTo);
+        assertThat(new HashSet<>(polled)).hasSize(expectedCount);
+    }
+}
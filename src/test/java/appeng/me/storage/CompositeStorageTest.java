@@ -0,0 +1,131 @@
+package appeng.me.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.item.Items;
+
+import appeng.api.config.Actionable;
+import appeng.api.networking.security.IActionSource;
+import appeng.api.networking.ticking.TickRateModulation;
+import appeng.api.stacks.AEItemKey;
+import appeng.api.stacks.AEKey;
+import appeng.api.stacks.AEKeyType;
+import appeng.api.stacks.KeyCounter;
+import appeng.api.storage.MEStorage;
+import appeng.me.helpers.BaseActionSource;
+import appeng.util.BootstrapMinecraft;
+
+/**
+ * Tests how often an external inventory is scanned while it doesn't change.
+ */
+@BootstrapMinecraft
+class CompositeStorageTest {
+    private static final IActionSource SRC = new BaseActionSource();
+    private static final AEItemKey STONE = AEItemKey.of(Items.STONE);
+
+    private final CountingStorage external = new CountingStorage();
+    private final CompositeStorage storage = new CompositeStorage(Map.of(AEKeyType.items(), external));
+
+    @BeforeEach
+    void setUp() {
+        external.content.add(STONE, 10);
+        storage.setBackoffThreshold(2);
+    }
+
+    @Test
+    void testBackoffWhileUnchanged() {
+        assertThat(storage.onTick()).isEqualTo(TickRateModulation.URGENT);
+        assertThat(scansDuring(2)).isEqualTo(2);
+        // Every second tick after 2 unchanged scans, every fourth tick after 4
+        assertThat(scansDuring(4)).isEqualTo(2);
+        assertThat(scansDuring(8)).isEqualTo(2);
+    }
+
+    @Test
+    void testWithoutBackoff() {
+        storage.setBackoffThreshold(0);
+        assertThat(scansDuring(20)).isEqualTo(20);
+    }
+
+    /**
+     * A change to the external inventory is picked up by the next scan, after which it is scanned every tick again.
+     */
+    @Test
+    void testExternalChangeResetsBackoff() {
+        scansDuring(15);
+        external.content.add(STONE, 1);
+
+        var ticks = 0;
+        var scans = external.scans;
+        TickRateModulation result;
+        do {
+            result = storage.onTick();
+            ticks++;
+        } while (external.scans == scans);
+        // Backing off skips at most 7 ticks
+        assertThat(ticks).isLessThanOrEqualTo(8);
+        assertThat(result).isEqualTo(TickRateModulation.URGENT);
+
+        assertThat(scansDuring(2)).isEqualTo(2);
+    }
+
+    /**
+     * Changes made through the storage are scanned on the next tick, even while backing off.
+     */
+    @Test
+    void testInsertResetsBackoff() {
+        scansDuring(15);
+        assertThat(scansDuring(1)).isZero();
+
+        assertThat(storage.insert(STONE, 5, Actionable.MODULATE, SRC)).isEqualTo(5);
+        assertThat(scansDuring(1)).isEqualTo(1);
+        assertThat(scansDuring(2)).isEqualTo(2);
+    }
+
+    @Test
+    void testSimulatedInsertKeepsBackoff() {
+        scansDuring(15);
+        assertThat(scansDuring(1)).isZero();
+
+        assertThat(storage.insert(STONE, 5, Actionable.SIMULATE, SRC)).isEqualTo(5);
+        assertThat(scansDuring(1)).isZero();
+    }
+
+    private int scansDuring(int ticks) {
+        var scans = external.scans;
+        for (int i = 0; i < ticks; i++) {
+            storage.onTick();
+        }
+        return external.scans - scans;
+    }
+
+    private static class CountingStorage implements MEStorage {
+        private final KeyCounter content = new KeyCounter();
+        private int scans;
+
+        @Override
+        public long insert(AEKey what, long amount, Actionable mode, IActionSource source) {
+            if (mode == Actionable.MODULATE) {
+                content.add(what, amount);
+            }
+            return amount;
+        }
+
+        @Override
+        public void getAvailableStacks(KeyCounter out) {
+            scans++;
+            out.addAll(content);
+        }
+
+        @Override
+        public Component getDescription() {
+            return Component.literal("External");
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package appeng.me.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.neoforged.neoforge.items.ItemStackHandler;
+
+import appeng.api.config.Actionable;
+import appeng.api.networking.security.IActionSource;
+import appeng.api.stacks.AEItemKey;
+import appeng.api.stacks.KeyCounter;
+import appeng.me.helpers.BaseActionSource;
+import appeng.util.BootstrapMinecraft;
+
+/**
+ * Tests that extracting from and inserting into an external item inventory using the slot index has the same result
+ * as walking all slots, as long as the inventory was scanned since it was changed externally.
+ */
+@BootstrapMinecraft
+class ExternalStorageFacadeTest {
+    private static final IActionSource SRC = new BaseActionSource();
+
+    private final List<AEItemKey> keys = List.of(
+            AEItemKey.of(Items.STONE),
+            AEItemKey.of(Items.DIRT),
+            AEItemKey.of(Items.COBBLESTONE),
+            AEItemKey.of(Items.STICK),
+            AEItemKey.of(Items.ENDER_PEARL));
+    private final Random random = new Random(1234);
+
+    private final TestHandler indexedHandler = new TestHandler(9);
+    private final TestHandler handler = new TestHandler(9);
+    private final ExternalStorageFacade indexed = ExternalStorageFacade.of(indexedHandler);
+    private final ExternalStorageFacade scanned = ExternalStorageFacade.of(handler);
+
+    ExternalStorageFacadeTest() {
+        indexed.setSlotIndexEnabled(true);
+    }
+
+    @Test
+    void testIndexedMatchesScan() {
+        scan();
+        for (int i = 0; i < 5000; i++) {
+            var op = random.nextInt(10);
+            if (op <= 1) {
+                // Replaces the content of a slot without going through the facade, which the storage bus only
+                // notices during its next scan
+                var slot = random.nextInt(handler.getSlots());
+                var what = randomKey();
+                var stack = random.nextInt(4) == 0 ? ItemStack.EMPTY
+                        : what.toStack(1 + random.nextInt(what.getItem().getMaxStackSize()));
+                indexedHandler.setStackInSlot(slot, stack.copy());
+                handler.setStackInSlot(slot, stack.copy());
+                scan();
+            } else if (op == 2) {
+                // Taking items out of a slot externally keeps the index valid, even without a scan
+                var slot = random.nextInt(handler.getSlots());
+                var amount = random.nextInt(handler.getStackInSlot(slot).getCount() + 1);
+                indexedHandler.extractItem(slot, amount, false);
+                handler.extractItem(slot, amount, false);
+            } else if (op <= 5) {
+                var what = randomKey();
+                var amount = 1 + random.nextInt(100);
+                assertThat(indexed.insert(what, amount, Actionable.MODULATE, SRC))
+                        .isEqualTo(scanned.insert(what, amount, Actionable.MODULATE, SRC));
+            } else {
+                var mode = random.nextBoolean() ? Actionable.MODULATE : Actionable.SIMULATE;
+                var what = randomKey();
+                var amount = 1 + random.nextInt(200);
+                assertThat(indexed.extract(what, amount, mode, SRC))
+                        .isEqualTo(scanned.extract(what, amount, mode, SRC));
+            }
+
+            assertSameContent();
+        }
+    }
+
+    /**
+     * Items that were inserted through the facade can be extracted before the next scan.
+     */
+    @Test
+    void testInsertedItemsAreExtractableBeforeScan() {
+        var stone = keys.get(0);
+        indexedHandler.setStackInSlot(4, stone.toStack(10));
+        scan();
+
+        assertThat(indexed.insert(stone, 64, Actionable.MODULATE, SRC)).isEqualTo(64);
+        assertThat(indexed.insert(keys.get(1), 5, Actionable.MODULATE, SRC)).isEqualTo(5);
+
+        assertThat(indexed.extract(stone, 100, Actionable.MODULATE, SRC)).isEqualTo(74);
+        assertThat(indexed.extract(keys.get(1), 100, Actionable.MODULATE, SRC)).isEqualTo(5);
+    }
+
+    /**
+     * Once the number of slots changed, the index is no longer used until the next scan.
+     */
+    @Test
+    void testSlotCountChangeFallsBackToScan() {
+        var stone = keys.get(0);
+        indexedHandler.setStackInSlot(0, stone.toStack(10));
+        scan();
+
+        indexedHandler.resize(12);
+        indexedHandler.setStackInSlot(11, stone.toStack(20));
+        indexedHandler.setStackInSlot(10, keys.get(1).toStack(5));
+
+        assertThat(indexed.extract(stone, 100, Actionable.MODULATE, SRC)).isEqualTo(30);
+        assertThat(indexed.extract(keys.get(1), 100, Actionable.MODULATE, SRC)).isEqualTo(5);
+    }
+
+    private void scan() {
+        var indexedContent = new KeyCounter();
+        indexed.getAvailableStacks(indexedContent);
+        var content = new KeyCounter();
+        scanned.getAvailableStacks(content);
+        for (var what : keys) {
+            assertThat(indexedContent.get(what)).isEqualTo(content.get(what));
+        }
+    }
+
+    private void assertSameContent() {
+        for (int i = 0; i < handler.getSlots(); i++) {
+            assertThat(ItemStack.matches(indexedHandler.getStackInSlot(i), handler.getStackInSlot(i)))
+                    .as("slot %d", i)
+                    .isTrue();
+        }
+    }
+
+    private AEItemKey randomKey() {
+        return keys.get(random.nextInt(keys.size()));
+    }
+
+    private static class TestHandler extends ItemStackHandler {
+        private TestHandler(int size) {
+            super(size);
+        }
+
+        /**
+         * Changes the slot count, keeping the content of the remaining slots.
+         */
+        void resize(int size) {
+            var oldStacks = stacks;
+            setSize(size);
+            for (int i = 0; i < Math.min(size, oldStacks.size()); i++) {
+                stacks.set(i, oldStacks.get(i));
+            }
+        }
+    }
+}
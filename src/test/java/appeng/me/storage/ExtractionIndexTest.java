@@ -0,0 +1,245 @@
+package appeng.me.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.item.Items;
+
+import appeng.api.config.Actionable;
+import appeng.api.networking.security.IActionSource;
+import appeng.api.stacks.AEItemKey;
+import appeng.api.stacks.AEKey;
+import appeng.api.stacks.KeyCounter;
+import appeng.api.storage.MEStorage;
+import appeng.me.helpers.BaseActionSource;
+import appeng.util.BootstrapMinecraft;
+
+/**
+ * Tests that extracting from a network storage using the {@link ExtractionIndex} extracts the same amounts from the
+ * same inventories, in the same order, as asking every inventory.
+ */
+@BootstrapMinecraft
+class ExtractionIndexTest {
+    private static final IActionSource SRC = new BaseActionSource();
+
+    private final List<AEKey> keys = List.of(
+            AEItemKey.of(Items.STONE),
+            AEItemKey.of(Items.DIRT),
+            AEItemKey.of(Items.COBBLESTONE),
+            AEItemKey.of(Items.STICK),
+            AEItemKey.of(Items.DIAMOND));
+    private final Random random = new Random(1234);
+
+    private final NetworkStorage indexedStorage = new NetworkStorage();
+    private final NetworkStorage storage = new NetworkStorage();
+    /**
+     * The inventories that were extracted from, with the extracted amount, in the order they were asked.
+     */
+    private final List<String> indexedExtractions = new ArrayList<>();
+    private final List<String> extractions = new ArrayList<>();
+    /**
+     * Each inventory is mounted into both network storages, as two identical copies.
+     */
+    private final List<InventoryPair> inventories = new ArrayList<>();
+
+    ExtractionIndexTest() {
+        indexedStorage.setExtractionIndexEnabled(true);
+    }
+
+    @Test
+    void testExtractionMatchesScan() {
+        for (int i = 0; i < 5000; i++) {
+            var op = random.nextInt(10);
+            if (op == 0 || inventories.isEmpty()) {
+                mount(new InventoryPair(inventories.size(), random.nextInt(3) != 0), randomPriority());
+            } else if (op == 1) {
+                var pair = randomInventory();
+                if (pair.mounted) {
+                    unmount(pair);
+                } else {
+                    // Remounting puts the inventory behind the others of its new priority
+                    mount(pair, randomPriority());
+                }
+            } else if (op <= 4) {
+                var what = randomKey();
+                var amount = 1 + random.nextInt(100);
+                assertThat(indexedStorage.insert(what, amount, Actionable.MODULATE, SRC))
+                        .isEqualTo(storage.insert(what, amount, Actionable.MODULATE, SRC));
+            } else if (op == 5) {
+                // A change that doesn't go through the network storage
+                var pair = randomInventory();
+                var what = randomKey();
+                var amount = 1 + random.nextInt(100);
+                pair.indexed.addExternally(what, amount);
+                pair.scanned.addExternally(what, amount);
+            } else {
+                var mode = random.nextBoolean() ? Actionable.MODULATE : Actionable.SIMULATE;
+                var what = randomKey();
+                var amount = 1 + random.nextInt(200);
+                assertThat(indexedStorage.extract(what, amount, mode, SRC))
+                        .isEqualTo(storage.extract(what, amount, mode, SRC));
+                assertThat(indexedExtractions).isEqualTo(extractions);
+            }
+
+            for (var pair : inventories) {
+                for (var what : keys) {
+                    assertThat(pair.indexed.content.get(what)).isEqualTo(pair.scanned.content.get(what));
+                }
+            }
+        }
+    }
+
+    /**
+     * Inventories with the same priority are asked in the order they were mounted in, even if the inventory that was
+     * mounted later received the key first.
+     */
+    @Test
+    void testSamePriorityUsesMountOrder() {
+        var first = new InventoryPair(0, true);
+        var second = new InventoryPair(1, true);
+        mount(first, 0);
+        mount(second, 0);
+        var stone = keys.get(0);
+        second.indexed.addExternally(stone, 10);
+        second.scanned.addExternally(stone, 10);
+        first.indexed.addExternally(stone, 10);
+        first.scanned.addExternally(stone, 10);
+
+        assertThat(indexedStorage.extract(stone, 15, Actionable.MODULATE, SRC)).isEqualTo(15);
+        assertThat(storage.extract(stone, 15, Actionable.MODULATE, SRC)).isEqualTo(15);
+        assertThat(indexedExtractions).containsExactly("0: 10", "1: 5").isEqualTo(extractions);
+    }
+
+    /**
+     * An unmounted inventory is no longer asked, and is only asked again for its content after it was mounted again.
+     */
+    @Test
+    void testUnmountAndRemount() {
+        var pair = new InventoryPair(0, true);
+        mount(pair, 1);
+        var stone = keys.get(0);
+        indexedStorage.insert(stone, 10, Actionable.MODULATE, SRC);
+        storage.insert(stone, 10, Actionable.MODULATE, SRC);
+
+        unmount(pair);
+        assertThat(indexedStorage.extract(stone, 10, Actionable.MODULATE, SRC)).isZero();
+        assertThat(indexedExtractions).isEmpty();
+
+        mount(pair, -1);
+        assertThat(indexedStorage.extract(stone, 10, Actionable.MODULATE, SRC)).isEqualTo(10);
+        assertThat(indexedExtractions).containsExactly("0: 10");
+    }
+
+    private void mount(InventoryPair pair, int priority) {
+        if (!inventories.contains(pair)) {
+            inventories.add(pair);
+        }
+        indexedStorage.mount(priority, pair.indexed);
+        storage.mount(priority, pair.scanned);
+        pair.mounted = true;
+    }
+
+    private void unmount(InventoryPair pair) {
+        indexedStorage.unmount(pair.indexed);
+        storage.unmount(pair.scanned);
+        pair.mounted = false;
+    }
+
+    private int randomPriority() {
+        return random.nextInt(3) - 1;
+    }
+
+    private InventoryPair randomInventory() {
+        return inventories.get(random.nextInt(inventories.size()));
+    }
+
+    private AEKey randomKey() {
+        return keys.get(random.nextInt(keys.size()));
+    }
+
+    private class InventoryPair {
+        private final TestInventory indexed;
+        private final TestInventory scanned;
+        private boolean mounted;
+
+        /**
+         * @param reportsAllChanges Whether the inventory can be indexed, or has to be asked for every key.
+         */
+        private InventoryPair(int id, boolean reportsAllChanges) {
+            this.indexed = new TestInventory(id, reportsAllChanges, indexedExtractions);
+            this.scanned = new TestInventory(id, reportsAllChanges, extractions);
+        }
+    }
+
+    private static class TestInventory implements MEStorage, IJournaledStorage {
+        private final int id;
+        private final boolean reportsAllChanges;
+        private final List<String> extractions;
+        private final KeyCounter content = new KeyCounter();
+        @Nullable
+        private StorageChangeJournal journal;
+
+        private TestInventory(int id, boolean reportsAllChanges, List<String> extractions) {
+            this.id = id;
+            this.reportsAllChanges = reportsAllChanges;
+            this.extractions = extractions;
+        }
+
+        void addExternally(AEKey what, long amount) {
+            content.add(what, amount);
+            if (journal != null) {
+                journal.inventoryChanged(this);
+            }
+        }
+
+        @Override
+        public long insert(AEKey what, long amount, Actionable mode, IActionSource source) {
+            // Only take some of each key, so that inserts are spread over the inventories
+            var inserted = Math.min(amount, 50);
+            if (mode == Actionable.MODULATE) {
+                content.add(what, inserted);
+            }
+            return inserted;
+        }
+
+        @Override
+        public long extract(AEKey what, long amount, Actionable mode, IActionSource source) {
+            var extracted = Math.min(amount, content.get(what));
+            if (extracted > 0) {
+                extractions.add(id + ": " + extracted);
+                if (mode == Actionable.MODULATE) {
+                    content.remove(what, extracted);
+                    content.removeZeros();
+                }
+            }
+            return extracted;
+        }
+
+        @Override
+        public void getAvailableStacks(KeyCounter out) {
+            out.addAll(content);
+        }
+
+        @Override
+        public Component getDescription() {
+            return Component.literal("Inventory " + id);
+        }
+
+        @Override
+        public void setChangeJournal(@Nullable StorageChangeJournal journal) {
+            this.journal = journal;
+        }
+
+        @Override
+        public boolean reportsAllChanges() {
+            return reportsAllChanges;
+        }
+    }
+}